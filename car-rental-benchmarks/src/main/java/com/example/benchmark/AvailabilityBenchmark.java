@@ -0,0 +1,116 @@
+package com.example.benchmark;
+
+import com.example.availability.CarAvailabilityIndex;
+import com.example.models.Car;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the status-flag availability check with the per-car interval index.
+ * <p>
+ * The defaults describe the production target of 100k cars and 10M confirmed reservations
+ * (100 two-hour bookings per car, one per day); the index alone needs a few GB of heap at that size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class AvailabilityBenchmark {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 8, 0);
+    private static final int QUERIES = 1 << 16;
+
+    @Param("100000")
+    public int cars;
+
+    @Param("100")
+    public int reservationsPerCar;
+
+    private Car[] fleet;
+    private List<String> carIds;
+    private CarAvailabilityIndex index;
+    private int[] queryCars;
+    private LocalDateTime[] queryStarts;
+    private LocalDateTime[] queryEnds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        fleet = new Car[cars];
+        carIds = new ArrayList<>(cars);
+        index = new CarAvailabilityIndex();
+        for (int i = 0; i < cars; i++) {
+            String id = "car" + i;
+            Car.CarStatus status = random.nextInt(10) == 0 ? Car.CarStatus.MAINTENANCE : Car.CarStatus.RESERVED;
+            fleet[i] = new Car(id, "Model", "Brand", status, 25.0, Car.CarType.SEDAN);
+            carIds.add(id);
+            for (int day = 0; day < reservationsPerCar; day++) {
+                LocalDateTime start = EPOCH.plusDays(day).plusHours(random.nextInt(12));
+                index.load(id, id + "-" + day, start, start.plusHours(2));
+            }
+        }
+
+        queryCars = new int[QUERIES];
+        queryStarts = new LocalDateTime[QUERIES];
+        queryEnds = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryCars[i] = random.nextInt(cars);
+            queryStarts[i] = EPOCH.plusHours(random.nextInt(reservationsPerCar * 24));
+            queryEnds[i] = queryStarts[i].plusHours(1 + random.nextInt(4));
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (QUERIES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public boolean flagIsAvailable() {
+        return fleet[queryCars[next()]].isAvailable();
+    }
+
+    @Benchmark
+    public boolean indexIsFree() {
+        int q = next();
+        return index.isFree(carIds.get(queryCars[q]), queryStarts[q], queryEnds[q]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int flagListAvailable() {
+        int available = 0;
+        for (Car car : fleet) {
+            if (car.isAvailable()) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int indexListFree() {
+        int q = next();
+        return index.freeCars(carIds, queryStarts[q], queryEnds[q]).size();
+    }
+}
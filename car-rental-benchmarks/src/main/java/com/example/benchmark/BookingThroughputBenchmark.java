@@ -0,0 +1,170 @@
+package com.example.benchmark;
+
+import com.example.CarRentalApplication;
+import com.example.concurrency.ConflictRetryPolicy;
+import com.example.models.Car;
+import com.example.models.Customer;
+import com.example.repository.CarRepository;
+import com.example.repository.CustomerRepository;
+import com.example.service.AdminService;
+import com.example.service.CustomerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bookings per second from concurrent clients, through the real service layer on an embedded H2.
+ * <p>
+ * {@code LEGACY} is the entity path behind the admin booking endpoint: load customer and car, check in Java, save
+ * reservation and car, with optimistic retries. {@code CLAIM} is the conditional-UPDATE fast path. With
+ * {@code cars=1} every client fights over one row; with {@code cars=10000} contention is rare. Windows never overlap
+ * and are handed out in descending order, so the overlap probe stays a one-row index range and the numbers reflect
+ * the write path rather than a growing scan. The {@code bookings} and {@code conflicts} counters split the score
+ * into committed bookings and requests that gave up after the last retry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@Threads(8)
+public class BookingThroughputBenchmark {
+
+    private static final LocalDateTime LATEST = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"1", "10000"})
+    public int cars;
+
+    @Param({"LEGACY", "CLAIM"})
+    public String path;
+
+    @Param("1000")
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private CustomerService customerService;
+    private AdminService adminService;
+    private CustomerRepository customerRepository;
+    private CarRepository carRepository;
+    private ConflictRetryPolicy retryPolicy;
+    private String[] carIds;
+    private String[] customerIds;
+    private final AtomicLong slot = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long bookings;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bookings = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CarRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:booking_" + path + "_" + cars,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        customerService = context.getBean(CustomerService.class);
+        adminService = context.getBean(AdminService.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        carRepository = context.getBean(CarRepository.class);
+        retryPolicy = context.getBean(ConflictRetryPolicy.class);
+
+        List<Car> fleet = new ArrayList<>(cars);
+        carIds = new String[cars];
+        for (int i = 0; i < cars; i++) {
+            carIds[i] = "bench-car-" + i;
+            fleet.add(new Car(carIds[i], "Model", "Brand", Car.CarStatus.AVAILABLE, 25.0, Car.CarType.SEDAN));
+        }
+        carRepository.saveAll(fleet);
+
+        List<Customer> people = new ArrayList<>(customers);
+        customerIds = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = "bench-customer-" + i;
+            people.add(new Customer(customerIds[i], "Customer " + i, "c" + i + "@example.com", "555-0100", "DL" + i));
+        }
+        customerRepository.saveAll(people);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void book(Outcomes outcomes) {
+        long n = slot.incrementAndGet();
+        String carId = carIds[(int) (n % cars)];
+        String customerId = customerIds[(int) ((n * 31) % customers)];
+        LocalDateTime start = LATEST.minusHours(2 * n);
+        LocalDateTime end = start.plusHours(1);
+        try {
+            inRequestScope(() -> {
+                if ("CLAIM".equals(path)) {
+                    retryPolicy.run("bench.claim", () -> customerService.reserve(customerId, carId, start, end));
+                } else {
+                    retryPolicy.run("bench.legacy", () -> {
+                        Customer customer = customerRepository.findById(customerId).orElseThrow();
+                        Car car = carRepository.findById(carId).orElseThrow();
+                        adminService.makeReservationForCustomer(customer, car, start, end);
+                    });
+                }
+            });
+            outcomes.bookings++;
+        } catch (ConcurrencyFailureException e) {
+            outcomes.conflicts++;
+        }
+    }
+
+    /**
+     * Binds a request-scoped EntityManager the way open-in-view does for the HTTP endpoints.
+     */
+    private void inRequestScope(Runnable work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            work.run();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.benchmark;
+
+import com.example.models.Car;
+import com.example.models.RateCard;
+import com.example.models.Reservation;
+import com.example.pricing.RateTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The domain code every booking runs: pricing a reservation and moving a car to {@code RESERVED}. Each call works
+ * on the next of a few thousand prepared reservations, with windows from under an hour to two weeks, so the JIT
+ * cannot fold the inputs. Prices come from a rate table with a year of monthly cards per car type and a card for
+ * every eighth car.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainBenchmark {
+
+    private static final int RESERVATIONS = 4096;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private Reservation[] reservations;
+    private RateTable rateTable;
+    private Car[] cars;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        reservations = new Reservation[RESERVATIONS];
+        cars = new Car[RESERVATIONS];
+        for (int i = 0; i < RESERVATIONS; i++) {
+            cars[i] = new Car("car-" + i, "Model", "Brand", Car.CarStatus.AVAILABLE, 20 + random.nextInt(80),
+                    Car.CarType.SEDAN);
+            Reservation reservation = new Reservation();
+            reservation.setCar(cars[i]);
+            reservation.setStartTime(EPOCH.plusMinutes(random.nextInt(525_600)));
+            reservation.setEndTime(reservation.getStartTime().plusMinutes(1 + random.nextInt(20_160)));
+            reservation.setStatus(Reservation.ReservationStatus.PENDING);
+            reservations[i] = reservation;
+        }
+
+        List<RateCard> cards = new ArrayList<>();
+        for (int month = 0; month < 12; month++) {
+            for (Car.CarType type : Car.CarType.values()) {
+                cards.add(new RateCard(null, type, null, EPOCH.plusMonths(month), 2000 + 100L * month, 30_000L,
+                        150_000L, 5_000));
+            }
+        }
+        for (int i = 0; i < RESERVATIONS; i += 8) {
+            cards.add(new RateCard(null, null, cars[i].getId(), EPOCH, 1500, 25_000L, null, 0));
+        }
+        rateTable = RateTable.compile(cards);
+    }
+
+    @Benchmark
+    public long price() {
+        Reservation reservation = reservations[next()];
+        Car car = reservation.getCar();
+        return rateTable.price(car.getId(), car.getCarType(), car.getRatePerHour(), reservation.getStartTime(),
+                reservation.getEndTime());
+    }
+
+    @Benchmark
+    public Car.CarStatus reserveCar() {
+        Car car = cars[next()];
+        car.makeAvailable();
+        car.reserve();
+        return car.getCarStatus();
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (RESERVATIONS - 1);
+        return cursor;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import com.example.models.Car;
+import com.example.models.Customer;
+import com.example.models.Reservation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the entities the API sends and receives, with an {@link ObjectMapper} configured the way
+ * Spring Boot configures the application's: Java time as ISO-8601 strings, unknown properties ignored. A reservation
+ * is written with its car and customer inlined, as the reservation endpoints return it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Car car;
+    private Reservation reservation;
+    private String carJson;
+    private String reservationJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        car = new Car("car-1", "Corolla", "Toyota", Car.CarStatus.AVAILABLE, 25.0, Car.CarType.SEDAN);
+        reservation = new Reservation();
+        reservation.setReservationId("0190c5a4-1f2e-7a3b-9c4d-5e6f7a8b9c0d");
+        reservation.setCar(car);
+        reservation.setCustomer(new Customer("customer-1", "Ada Lovelace", "ada@example.com", "555-0101", "DL-1"));
+        reservation.setStartTime(LocalDateTime.of(2024, 6, 1, 10, 0));
+        reservation.setEndTime(LocalDateTime.of(2024, 6, 3, 10, 0));
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        reservation.setTotalCostCents(200_000);
+        carJson = objectMapper.writeValueAsString(car);
+        reservationJson = objectMapper.writeValueAsString(reservation);
+    }
+
+    @Benchmark
+    public String writeCar() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(car);
+    }
+
+    @Benchmark
+    public Car readCar() throws JsonProcessingException {
+        return objectMapper.readValue(carJson, Car.class);
+    }
+
+    @Benchmark
+    public String writeReservation() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(reservation);
+    }
+
+    @Benchmark
+    public Reservation readReservation() throws JsonProcessingException {
+        return objectMapper.readValue(reservationJson, Reservation.class);
+    }
+}
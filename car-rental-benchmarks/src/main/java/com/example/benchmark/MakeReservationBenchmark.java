@@ -0,0 +1,136 @@
+package com.example.benchmark;
+
+import com.example.CarRentalApplication;
+import com.example.availability.AvailabilityIndexLoader;
+import com.example.id.TimeOrderedUuid;
+import com.example.models.Car;
+import com.example.models.Customer;
+import com.example.repository.CarRepository;
+import com.example.repository.CustomerRepository;
+import com.example.service.CustomerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one {@link CustomerService#reserve} call, the booking path behind {@code POST /api/customer/reservation},
+ * on an embedded H2 that already holds {@code reservations} confirmed bookings spread over {@code cars} cars. Each
+ * call books the next free window; windows move back in time so they never overlap the preloaded ones or each other.
+ * <p>
+ * Single-threaded on purpose: {@link BookingThroughputBenchmark} covers contention, this one tracks what a single
+ * booking costs as the tables grow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class MakeReservationBenchmark {
+
+    private static final LocalDateTime PRELOAD_FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int BATCH = 1000;
+
+    @Param("1000")
+    public int cars;
+
+    @Param("100000")
+    public int reservations;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private CustomerService customerService;
+    private CustomerRepository customerRepository;
+    private CarRepository carRepository;
+    private String[] carIds;
+    private long booked;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CarRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:make_reservation_" + reservations,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        customerService = context.getBean(CustomerService.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        carRepository = context.getBean(CarRepository.class);
+
+        List<Car> fleet = new ArrayList<>(cars);
+        carIds = new String[cars];
+        for (int i = 0; i < cars; i++) {
+            carIds[i] = "bench-car-" + i;
+            fleet.add(new Car(carIds[i], "Model", "Brand", Car.CarStatus.AVAILABLE, 25.0, Car.CarType.SEDAN));
+        }
+        carRepository.saveAll(fleet);
+        customerRepository.save(new Customer("bench-customer", "Customer", "c@example.com", "555-0100", "DL0"));
+        preload(context.getBean(JdbcTemplate.class));
+        context.getBean(AvailabilityIndexLoader.class).hydrate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void makeReservation() {
+        long n = ++booked;
+        String carId = carIds[(int) (n % cars)];
+        LocalDateTime start = PRELOAD_FROM.minusHours(2 * n);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            customerService.reserve("bench-customer", carId, start, start.plusHours(1));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Inserts the confirmed bookings straight through JDBC; going through the service would take longer than the
+     * benchmark itself at the larger sizes.
+     */
+    private void preload(JdbcTemplate jdbcTemplate) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < reservations; i++) {
+            LocalDateTime start = PRELOAD_FROM.plusHours(2L * (i / cars));
+            batch.add(new Object[]{TimeOrderedUuid.next(), carIds[i % cars], "bench-customer",
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), 2500L});
+            if (batch.size() == BATCH || i == reservations - 1) {
+                jdbcTemplate.batchUpdate("insert into reservations (reservation_id, car_id, customer_id, start_time, "
+                        + "end_time, status, total_cost_cents, version) "
+                        + "values (?, ?, ?, ?, ?, 'CONFIRMED', ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("update users set active_reservations = ? where id = 'bench-customer'", reservations);
+    }
+}
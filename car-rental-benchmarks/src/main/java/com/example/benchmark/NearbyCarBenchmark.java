@@ -0,0 +1,121 @@
+package com.example.benchmark;
+
+import com.example.dto.NearbyCar;
+import com.example.dto.NearbyCarQuery;
+import com.example.location.BranchGrid;
+import com.example.models.Branch;
+import com.example.models.Car;
+import com.example.search.CarSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Nearest 10 available SUVs within {@code radiusKm}" over {@code cars} cars spread across {@code branches} branches
+ * in a 24° by 57° box (roughly the continental US), from a rotating set of query points. {@code scan} answers the
+ * same question by measuring every car, as a query without the branch grid would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class NearbyCarBenchmark {
+    private static final int QUERY_POINTS = 1024;
+
+    @Param("1000000")
+    public int cars;
+
+    @Param("1000")
+    public int branches;
+
+    @Param({"50", "500"})
+    public double radiusKm;
+
+    private CarSearchIndex index;
+    private BranchGrid grid;
+    private NearbyCarQuery[] queries;
+    private double[] carLatitudes;
+    private double[] carLongitudes;
+    private Car.CarType[] carTypes;
+    private Car.CarStatus[] carStatuses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Branch> sites = new ArrayList<>(branches);
+        for (int i = 0; i < branches; i++) {
+            sites.add(new Branch("branch-" + i, "Branch " + i, 25 + random.nextDouble() * 24,
+                    -124 + random.nextDouble() * 57));
+        }
+        grid = BranchGrid.compile(sites, 0.5);
+
+        index = new CarSearchIndex(new double[]{25, 50, 100});
+        carLatitudes = new double[cars];
+        carLongitudes = new double[cars];
+        carTypes = new Car.CarType[cars];
+        carStatuses = new Car.CarStatus[cars];
+        Car.CarStatus[] statuses = Car.CarStatus.values();
+        Car.CarType[] types = Car.CarType.values();
+        for (int i = 0; i < cars; i++) {
+            Branch branch = sites.get(random.nextInt(branches));
+            carLatitudes[i] = branch.getLatitude();
+            carLongitudes[i] = branch.getLongitude();
+            carTypes[i] = types[random.nextInt(types.length)];
+            carStatuses[i] = statuses[random.nextInt(statuses.length)];
+            index.put("car-" + i, "Brand " + random.nextInt(40), "Model " + random.nextInt(400), carTypes[i],
+                    carStatuses[i], 10 + random.nextInt(140), branch.getId(), 0);
+        }
+
+        queries = new NearbyCarQuery[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = new NearbyCarQuery(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57, radiusKm,
+                    List.of(Car.CarType.SUV), List.of(Car.CarStatus.AVAILABLE), 10);
+        }
+    }
+
+    @Benchmark
+    public List<NearbyCar> nearest() {
+        return index.nearest(nextQuery(), grid);
+    }
+
+    @Benchmark
+    public List<Integer> scan() {
+        NearbyCarQuery query = nextQuery();
+        List<Integer> found = new ArrayList<>();
+        double[] distances = new double[cars];
+        for (int i = 0; i < cars; i++) {
+            if (carTypes[i] == Car.CarType.SUV && carStatuses[i] == Car.CarStatus.AVAILABLE) {
+                distances[i] = BranchGrid.distanceKm(query.latitude(), query.longitude(), carLatitudes[i],
+                        carLongitudes[i]);
+                if (distances[i] <= query.radiusKm()) {
+                    found.add(i);
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(i -> distances[i]));
+        return found.subList(0, Math.min(query.limit(), found.size()));
+    }
+
+    private NearbyCarQuery nextQuery() {
+        next = (next + 1) & (QUERY_POINTS - 1);
+        return queries[next];
+    }
+}
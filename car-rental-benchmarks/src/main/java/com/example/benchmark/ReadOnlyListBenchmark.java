@@ -0,0 +1,106 @@
+package com.example.benchmark;
+
+import com.example.CarRentalApplication;
+import com.example.models.Car;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads {@code rows} cars as entities in one transaction, once read-write and once {@code readOnly}, the way the
+ * services' listings run. A read-only transaction goes to the replica pool, keeps no dirty-checking snapshot of the
+ * loaded entities and skips the flush at commit. The replica is a second pool on the same in-memory H2, so both
+ * read the same rows and only the transaction mode differs. Run it with {@code -prof gc} to compare the allocation
+ * per read as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class ReadOnlyListBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param("10000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CarRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:read_only_list",
+                        "--car-rental.read-replica.url=jdbc:h2:mem:read_only_list",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        entityManager = context.getBean(EntityManager.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        preload(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int readWrite() {
+        return readWrite.execute(status -> load());
+    }
+
+    @Benchmark
+    public int readOnly() {
+        return readOnly.execute(status -> load());
+    }
+
+    private int load() {
+        List<Car> cars = entityManager.createQuery("select c from Car c order by c.id", Car.class)
+                .setMaxResults(rows)
+                .getResultList();
+        return cars.size();
+    }
+
+    private void preload(JdbcTemplate jdbcTemplate) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{String.format("bench-car-%07d", i), "Model " + (i % 50), "Brand " + (i % 20),
+                    10.0 + i % 90, Car.CarType.values()[i % Car.CarType.values().length].name()});
+            if (batch.size() == BATCH || i == rows - 1) {
+                jdbcTemplate.batchUpdate("insert into cars (id, version, model, brand, rate_per_hour, car_status, "
+                        + "car_type) values (?, 0, ?, ?, ?, 'AVAILABLE', ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.benchmark;
+
+import com.example.id.TimeOrderedUuid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reservation inserts on top of a large table, keyed three ways: random UUID text in a VARCHAR (the old mapping),
+ * random UUIDs in a native UUID column, and time-ordered UUIDs in a native UUID column (the current mapping).
+ * The table lives in a file-backed H2 with the primary key and the {@code (start_time, reservation_id)} index of
+ * {@code Reservation}. The score is rows per second, each invocation inserting and committing one batch. At the
+ * end of the trial the table's size on disk, indexes included, is printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ReservationIdBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"RANDOM_TEXT", "RANDOM_UUID", "TIME_ORDERED_UUID"})
+    public String key;
+
+    @Param("10000000")
+    public int rows;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        directory = Files.createTempDirectory("reservation-ids");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("ids"));
+        connection.setAutoCommit(false);
+        String idType = "RANDOM_TEXT".equals(key) ? "VARCHAR(255)" : "UUID";
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE reservations (reservation_id " + idType + " PRIMARY KEY, car_id VARCHAR(255), "
+                    + "status VARCHAR(32), start_time TIMESTAMP, end_time TIMESTAMP, total_cost_cents BIGINT)");
+            ddl.execute("CREATE INDEX idx_reservations_start_id ON reservations (start_time, reservation_id)");
+        }
+        insert = connection.prepareStatement("INSERT INTO reservations VALUES (?, ?, 'CONFIRMED', ?, ?, 10.0)");
+        random = new SplittableRandom(7);
+        for (int loaded = 0; loaded < rows; loaded += BATCH) {
+            insertBatch();
+        }
+        System.out.printf("%n%s: %,d rows preloaded, %,d KB on disk%n", key, rows, diskSpaceKb());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        System.out.printf("%n%s: %,d rows, %,d KB on disk%n", key, rowCount(), diskSpaceKb());
+        try (Statement shutdown = connection.createStatement()) {
+            shutdown.execute("SHUTDOWN");
+        }
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            LocalDateTime start = EPOCH.plusMinutes(random.nextInt(5_000_000));
+            bindId(insert);
+            insert.setString(2, "car" + random.nextInt(10_000));
+            insert.setTimestamp(3, Timestamp.valueOf(start));
+            insert.setTimestamp(4, Timestamp.valueOf(start.plusHours(1 + random.nextInt(48))));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private void bindId(PreparedStatement statement) throws SQLException {
+        switch (key) {
+            case "RANDOM_TEXT" -> statement.setString(1, UUID.randomUUID().toString());
+            case "RANDOM_UUID" -> statement.setObject(1, UUID.randomUUID());
+            default -> statement.setObject(1, TimeOrderedUuid.next());
+        }
+    }
+
+    private long rowCount() throws SQLException {
+        return queryLong("SELECT COUNT(*) FROM reservations");
+    }
+
+    private long diskSpaceKb() throws SQLException {
+        return queryLong("SELECT DISK_SPACE_USED('RESERVATIONS')") / 1024;
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation range queries against the old schema (ISO-8601 text columns, no time indexes) and the
+ * typed one (TIMESTAMP columns with the indexes declared on {@code Reservation}), in an embedded H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ReservationRangeQueryBenchmark {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"TEXT", "TYPED"})
+    public String schema;
+
+    @Param("1000000")
+    public int reservations;
+
+    @Param("10000")
+    public int cars;
+
+    private Connection connection;
+    private PreparedStatement overlappingWeek;
+    private PreparedStatement endingWithinHour;
+    private PreparedStatement carOverlap;
+    private SplittableRandom random;
+    private int days;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:range_" + schema + ";DB_CLOSE_DELAY=-1");
+        boolean typed = "TYPED".equals(schema);
+        String timeType = typed ? "TIMESTAMP" : "VARCHAR(255)";
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE reservations (reservation_id VARCHAR(36) PRIMARY KEY, car_id VARCHAR(255), "
+                    + "status VARCHAR(32), start_time " + timeType + ", end_time " + timeType
+                    + ", total_cost_cents BIGINT)");
+            ddl.execute("CREATE INDEX idx_reservations_car ON reservations (car_id)");
+            if (typed) {
+                ddl.execute("CREATE INDEX idx_reservations_car_window ON reservations (car_id, start_time, end_time)");
+                ddl.execute("CREATE INDEX idx_reservations_start_id ON reservations (start_time, reservation_id)");
+                ddl.execute("CREATE INDEX idx_reservations_end ON reservations (end_time)");
+            }
+        }
+
+        // Each car gets back-to-back bookings of 1 to 48 hours spread over the whole period.
+        int perCar = Math.max(1, reservations / cars);
+        days = perCar * 2;
+        SplittableRandom data = new SplittableRandom(7);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO reservations VALUES (?, ?, 'CONFIRMED', ?, ?, 10.0)")) {
+            int id = 0;
+            for (int car = 0; car < cars; car++) {
+                LocalDateTime cursor = EPOCH.plusHours(data.nextInt(24));
+                for (int i = 0; i < perCar; i++) {
+                    LocalDateTime end = cursor.plusHours(1 + data.nextInt(48));
+                    insert.setString(1, Integer.toString(id++));
+                    insert.setString(2, "car" + car);
+                    bindTime(insert, 3, cursor);
+                    bindTime(insert, 4, end);
+                    insert.addBatch();
+                    cursor = end.plusHours(data.nextInt(48));
+                }
+                if (car % 100 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement analyze = connection.createStatement()) {
+            analyze.execute("ANALYZE");
+        }
+
+        overlappingWeek = connection.prepareStatement("SELECT COUNT(*) FROM reservations "
+                + "WHERE status = 'CONFIRMED' AND start_time < ? AND end_time > ?");
+        endingWithinHour = connection.prepareStatement("SELECT COUNT(*) FROM reservations "
+                + "WHERE status = 'CONFIRMED' AND end_time >= ? AND end_time < ?");
+        carOverlap = connection.prepareStatement("SELECT COUNT(*) FROM reservations "
+                + "WHERE car_id = ? AND status = 'CONFIRMED' AND start_time < ? AND end_time > ?");
+        random = new SplittableRandom(11);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement drop = connection.createStatement()) {
+            drop.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    /**
+     * "This week": history accumulates in the past, so the window sits in the last tenth of the data.
+     */
+    @Benchmark
+    public long overlappingWeek() throws SQLException {
+        LocalDateTime from = EPOCH.plusDays(days - 7 - random.nextInt(Math.max(1, days / 10)));
+        bindTime(overlappingWeek, 1, from.plusWeeks(1));
+        bindTime(overlappingWeek, 2, from);
+        return count(overlappingWeek);
+    }
+
+    @Benchmark
+    public long endingWithinHour() throws SQLException {
+        LocalDateTime now = EPOCH.plusHours(random.nextInt(days * 24));
+        bindTime(endingWithinHour, 1, now);
+        bindTime(endingWithinHour, 2, now.plusHours(1));
+        return count(endingWithinHour);
+    }
+
+    @Benchmark
+    public long carOverlap() throws SQLException {
+        LocalDateTime start = EPOCH.plusHours(random.nextInt(days * 24));
+        carOverlap.setString(1, "car" + random.nextInt(cars));
+        bindTime(carOverlap, 2, start.plusHours(4));
+        bindTime(carOverlap, 3, start);
+        return count(carOverlap);
+    }
+
+    private void bindTime(PreparedStatement statement, int index, LocalDateTime time) throws SQLException {
+        if ("TYPED".equals(schema)) {
+            statement.setTimestamp(index, Timestamp.valueOf(time));
+        } else {
+            statement.setString(index, time.toString());
+        }
+    }
+
+    private static long count(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
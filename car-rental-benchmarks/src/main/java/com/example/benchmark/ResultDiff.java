@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with {@code -rf json}, e.g. from the commit before and after a change:
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.benchmark.ResultDiff before.json after.json
+ * </pre>
+ * Benchmarks are matched by name and parameters. A change counts as significant when the scores are further apart
+ * than the two error margins combined; it is then marked as faster or slower, taking the benchmark mode into
+ * account (higher is better for throughput, lower for average time). Runs too short for JMH to report an error
+ * margin are listed but never marked. The exit status is 1 if anything got slower.
+ */
+public final class ResultDiff {
+
+    private ResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ResultDiff <before.json> <after.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> before = read(Path.of(args[0]));
+        Map<String, JsonNode> after = read(Path.of(args[1]));
+
+        boolean regressed = false;
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "Benchmark", "Before", "After", "Change", "Unit");
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode next = entry.getValue().get("primaryMetric");
+            JsonNode previous = before.containsKey(entry.getKey())
+                    ? before.get(entry.getKey()).get("primaryMetric") : null;
+            if (previous == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", next.get("score").asDouble(),
+                        "new", next.get("scoreUnit").asText());
+                continue;
+            }
+            double oldScore = previous.get("score").asDouble();
+            double newScore = next.get("score").asDouble();
+            double margin = previous.path("scoreError").asDouble(Double.NaN)
+                    + next.path("scoreError").asDouble(Double.NaN);
+            String verdict = "";
+            if (Math.abs(newScore - oldScore) > margin) {
+                boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+                boolean better = higherIsBetter == newScore > oldScore;
+                verdict = better ? "faster" : "SLOWER";
+                regressed |= !better;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), oldScore, newScore,
+                    oldScore == 0 ? 0 : (newScore - oldScore) * 100 / oldScore, next.get("scoreUnit").asText(),
+                    verdict.isEmpty() ? "" : " " + verdict);
+        }
+        before.keySet().stream()
+                .filter(key -> !after.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14s %14s %9s%n", key, "", "-", "removed"));
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            String name = result.get("benchmark").asText();
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            results.put(params.isEmpty() ? name : name + " " + params, result);
+        }
+        return results;
+    }
+}
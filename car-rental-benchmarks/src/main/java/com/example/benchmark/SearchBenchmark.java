@@ -0,0 +1,76 @@
+package com.example.benchmark;
+
+import com.example.dto.CarSearchQuery;
+import com.example.dto.CarSearchResult;
+import com.example.dto.Suggestion;
+import com.example.models.Car;
+import com.example.search.CarSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Faceted fleet searches against a {@link CarSearchIndex} of {@code cars} cars from 40 brands with 10 models each:
+ * a broad query filtering on status alone, and a narrow one on two brands, a type, a status and a rate band. Both
+ * return a page of 20 cars and every facet count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SearchBenchmark {
+
+    @Param("1000000")
+    public int cars;
+
+    private CarSearchIndex index;
+    private CarSearchQuery broad;
+    private CarSearchQuery narrow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new CarSearchIndex(new double[]{25, 50, 100});
+        Car.CarStatus[] statuses = Car.CarStatus.values();
+        Car.CarType[] types = Car.CarType.values();
+        for (int i = 0; i < cars; i++) {
+            int brand = random.nextInt(40);
+            index.put("car-" + i, "Brand " + brand, "Model " + brand + "-" + random.nextInt(10),
+                    types[random.nextInt(types.length)], statuses[random.nextInt(statuses.length)],
+                    10 + random.nextInt(140), null, 0);
+        }
+        broad = new CarSearchQuery(null, null, null, List.of(Car.CarStatus.AVAILABLE), null, 0, 20);
+        narrow = new CarSearchQuery(List.of("Brand 3", "Brand 17"), null, List.of(Car.CarType.SUV),
+                List.of(Car.CarStatus.AVAILABLE), List.of("25-50"), 0, 20);
+    }
+
+    @Benchmark
+    public CarSearchResult broadSearch() {
+        return index.search(broad);
+    }
+
+    @Benchmark
+    public CarSearchResult narrowSearch() {
+        return index.search(narrow);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestModel() {
+        return index.suggest(CarSearchIndex.TextField.MODEL, "model 1", 10);
+    }
+}
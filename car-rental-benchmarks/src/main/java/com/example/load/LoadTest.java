@@ -0,0 +1,371 @@
+package com.example.load;
+
+import com.example.CarRentalApplication;
+import com.example.availability.AvailabilityIndexLoader;
+import com.example.fleet.FleetCounterAudit;
+import com.example.id.TimeOrderedUuid;
+import com.example.models.Car;
+import com.example.models.Customer;
+import com.example.repository.CarRepository;
+import com.example.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP load test against the full application. Starts it on a random port with an in-memory H2, seeds a synthetic
+ * fleet, customer base and booking history, then runs {@code clients} concurrent clients for {@code warmup} plus
+ * {@code duration} seconds, each sending requests back to back (after an optional {@code think} pause) in the
+ * proportions of {@code mix}:
+ * <ul>
+ *     <li>{@code browse}: one page of {@code GET /api/customer/cars/available}, with a car type one time in three;</li>
+ *     <li>{@code book}: {@code POST /api/customer/reservation} for a random car, customer and window within
+ *     {@code horizon} days, so bookings start to collide as the calendar fills;</li>
+ *     <li>{@code cancel}: {@code DELETE /api/customer/reservation/{id}} for a confirmed reservation seen in an admin
+ *     listing (an admin listing is sent instead while none is known);</li>
+ *     <li>{@code admin}: the next page of {@code GET /api/admin/reservations}, each client walking the listing with
+ *     its own cursor.</li>
+ * </ul>
+ * Only the measured part is reported: per operation and in total, requests per second, latency percentiles, the
+ * share of errors (any other answer than 2xx, or 409 to a booking) and the share of bookings refused with 409.
+ * Clients wait for each answer before sending the next request, so a stalled server sends fewer requests rather
+ * than queueing them, and the percentiles understate what an open stream of users would see.
+ * <p>
+ * {@code threads=virtual} starts the application with its {@code virtual} profile, which needs Java 21. Both modes
+ * run with the same connection pool and Tomcat limits, so that the thread model is the only difference.
+ * <p>
+ * Settings are {@code name=value} arguments, e.g.
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.load.LoadTest clients=200 duration=120 mix=browse:70,book:20,cancel:5,admin:5
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final LocalDateTime HORIZON_START = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final int BATCH = 1000;
+    private static final int POOL_SIZE = 20;
+    private static final Duration POOL_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Settings settings;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<String> cancellable = new ConcurrentLinkedQueue<>();
+    private final Set<String> offered = ConcurrentHashMap.newKeySet();
+    private String baseUrl;
+
+    private LoadTest(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Settings settings = Settings.parse(args);
+        System.out.println("Load test: " + settings);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CarRentalApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=" + POOL_TIMEOUT.toMillis(),
+                        "--server.tomcat.threads.max=" + Math.max(200, settings.clients()),
+                        "--server.tomcat.accept-count=1000",
+                        "--spring.profiles.active=" + (settings.virtualThreads() ? "virtual" : "default"));
+        try {
+            LoadTest test = new LoadTest(settings);
+            test.seed(context);
+            test.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            test.report(test.run());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Creates the cars and customers through the repositories, and the booking history, which is large, straight
+     * through JDBC. The history sits before the booking horizon so it never collides with new bookings, and covers
+     * only the first half of the fleet, so the other half stays {@code AVAILABLE} for browsing.
+     */
+    private void seed(ConfigurableApplicationContext context) {
+        List<Car> fleet = new ArrayList<>(settings.cars());
+        int booked = settings.reservations() == 0 ? 0 : Math.max(1, settings.cars() / 2);
+        Car.CarType[] types = Car.CarType.values();
+        for (int i = 0; i < settings.cars(); i++) {
+            fleet.add(new Car("car-" + i, "Model " + i % 40, "Brand " + i % 12,
+                    i < booked ? Car.CarStatus.RESERVED : Car.CarStatus.AVAILABLE, 20 + i % 80, types[i % types.length]));
+        }
+        context.getBean(CarRepository.class).saveAll(fleet);
+
+        List<Customer> customers = new ArrayList<>(settings.customers());
+        for (int i = 0; i < settings.customers(); i++) {
+            customers.add(new Customer("customer-" + i, "Customer " + i, "c" + i + "@example.com", "555-0100", "DL" + i));
+        }
+        context.getBean(CustomerRepository.class).saveAll(customers);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < settings.reservations(); i++) {
+            LocalDateTime start = HISTORY_START.plusHours(2L * (i / booked));
+            batch.add(new Object[]{TimeOrderedUuid.next(), "car-" + i % booked, "customer-" + i % settings.customers(),
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1))});
+            if (batch.size() == BATCH || i == settings.reservations() - 1) {
+                jdbcTemplate.batchUpdate("insert into reservations (reservation_id, car_id, customer_id, start_time, "
+                        + "end_time, status, total_cost_cents, version) "
+                        + "values (?, ?, ?, ?, ?, 'CONFIRMED', 2500, 0)", batch);
+                batch.clear();
+            }
+        }
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+                context.getBean(CustomerRepository.class).reconcileActiveReservations());
+        context.getBean(AvailabilityIndexLoader.class).hydrate();
+        context.getBean(FleetCounterAudit.class).hydrate();
+        System.out.printf("Seeded %d cars, %d customers and %d reservations.%n",
+                settings.cars(), settings.customers(), settings.reservations());
+    }
+
+    private Map<Operation, OperationStats> run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + settings.warmup().toNanos();
+        long stopAt = measureFrom + settings.duration().toNanos();
+        List<Map<Operation, OperationStats>> perClient = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < settings.clients(); i++) {
+            Map<Operation, OperationStats> stats = newStats();
+            perClient.add(stats);
+            Thread client = new Thread(() -> drive(stats, measureFrom, stopAt), "load-client-" + i);
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        Map<Operation, OperationStats> merged = newStats();
+        perClient.forEach(stats -> stats.forEach((operation, part) -> merged.get(operation).merge(part)));
+        return merged;
+    }
+
+    private void drive(Map<Operation, OperationStats> stats, long measureFrom, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] cursor = new String[1];
+        while (System.nanoTime() < stopAt) {
+            Operation operation = settings.pick(random.nextInt(settings.totalWeight()));
+            String reservationId = operation == Operation.CANCEL ? cancellable.poll() : null;
+            if (operation == Operation.CANCEL && reservationId == null) {
+                operation = Operation.ADMIN;
+            }
+            long start = System.nanoTime();
+            OperationStats.Outcome outcome;
+            try {
+                outcome = switch (operation) {
+                    case BROWSE -> browse(random);
+                    case BOOK -> book(random);
+                    case CANCEL -> cancel(reservationId);
+                    case ADMIN -> listReservations(cursor);
+                };
+            } catch (IOException e) {
+                outcome = OperationStats.Outcome.ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= stopAt) {
+                stats.get(operation).record(end - start, outcome);
+            }
+            if (!settings.think().isZero()) {
+                try {
+                    Thread.sleep(settings.think().toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private OperationStats.Outcome browse(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String query = "?page=" + random.nextInt(5) + (random.nextInt(3) == 0
+                ? "&type=" + Car.CarType.values()[random.nextInt(Car.CarType.values().length)] : "");
+        return outcome(send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/customer/cars/available" + query)).GET()),
+                false);
+    }
+
+    private OperationStats.Outcome book(ThreadLocalRandom random) throws IOException, InterruptedException {
+        LocalDateTime start = HORIZON_START.plusHours(random.nextInt(settings.horizonDays() * 24));
+        String body = objectMapper.writeValueAsString(Map.of(
+                "customer", Map.of("id", "customer-" + random.nextInt(settings.customers())),
+                "car", Map.of("id", "car-" + random.nextInt(settings.cars())),
+                "startTime", start.toString(),
+                "endTime", start.plusHours(1 + random.nextInt(72)).toString()));
+        return outcome(send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/customer/reservation"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))), true);
+    }
+
+    private OperationStats.Outcome cancel(String reservationId) throws IOException, InterruptedException {
+        return outcome(send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/customer/reservation/" + reservationId))
+                .DELETE()), false);
+    }
+
+    /**
+     * Fetches the next page of the admin listing and offers its confirmed reservations for cancelling, each once.
+     * Starts over from the first page after the last one.
+     */
+    private OperationStats.Outcome listReservations(String[] cursor) throws IOException, InterruptedException {
+        String query = "?size=50" + (cursor[0] == null ? "" : "&cursor=" + cursor[0]);
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                URI.create(baseUrl + "/api/admin/reservations" + query)).GET());
+        if (response.statusCode() != 200) {
+            cursor[0] = null;
+            return OperationStats.Outcome.ERROR;
+        }
+        JsonNode page = objectMapper.readTree(response.body());
+        for (JsonNode item : page.path("items")) {
+            String id = item.path("reservationId").asText();
+            if ("CONFIRMED".equals(item.path("status").asText()) && offered.add(id)) {
+                cancellable.add(id);
+            }
+        }
+        cursor[0] = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        return OperationStats.Outcome.OK;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static OperationStats.Outcome outcome(HttpResponse<String> response, boolean booking) {
+        if (booking && response.statusCode() == 409) {
+            return OperationStats.Outcome.CONFLICT;
+        }
+        return response.statusCode() / 100 == 2 ? OperationStats.Outcome.OK : OperationStats.Outcome.ERROR;
+    }
+
+    private void report(Map<Operation, OperationStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        OperationStats total = new OperationStats();
+        System.out.printf("%n%-8s %10s %10s %9s %9s %9s %9s %8s %10s%n",
+                "", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "errors", "conflicts");
+        stats.forEach((operation, operationStats) -> {
+            total.merge(operationStats);
+            print(operation.name().toLowerCase(), operationStats, seconds, operation == Operation.BOOK);
+        });
+        print("total", total, seconds, false);
+    }
+
+    private static void print(String label, OperationStats stats, double seconds, boolean showConflicts) {
+        double[] millis = stats.percentilesMillis(PERCENTILES);
+        System.out.printf("%-8s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %7.2f%% %10s%n", label, stats.count(),
+                stats.count() / seconds, millis[0], millis[1], millis[2], millis[3], share(stats.errors(), stats.count()),
+                showConflicts ? String.format("%.2f%%", share(stats.conflicts(), stats.count())) : "");
+    }
+
+    private static double share(long part, long whole) {
+        return whole == 0 ? 0 : part * 100.0 / whole;
+    }
+
+    private static Map<Operation, OperationStats> newStats() {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        return stats;
+    }
+
+    enum Operation {
+        BROWSE,
+        BOOK,
+        CANCEL,
+        ADMIN
+    }
+
+    record Settings(int clients, Duration warmup, Duration duration, Duration think, int cars, int customers,
+                    int reservations, int horizonDays, Map<Operation, Integer> mix, boolean virtualThreads) {
+
+        static Settings parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>(Map.of(
+                    "clients", "50",
+                    "warmup", "10",
+                    "duration", "60",
+                    "think", "0",
+                    "cars", "1000",
+                    "customers", "10000",
+                    "reservations", "100000",
+                    "horizon", "365",
+                    "mix", "browse:60,book:25,cancel:10,admin:5",
+                    "threads", "platform"));
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (equals < 0 || !values.containsKey(arg.substring(0, equals))) {
+                    throw new IllegalArgumentException("Unknown setting " + arg + "; known are " + values.keySet());
+                }
+                values.put(arg.substring(0, equals), arg.substring(equals + 1));
+            }
+
+            if (!List.of("platform", "virtual").contains(values.get("threads"))) {
+                throw new IllegalArgumentException("threads must be platform or virtual");
+            }
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String part : values.get("mix").split(",")) {
+                String[] weight = part.split(":");
+                mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+            }
+            Settings settings = new Settings(Integer.parseInt(values.get("clients")),
+                    Duration.ofSeconds(Long.parseLong(values.get("warmup"))),
+                    Duration.ofSeconds(Long.parseLong(values.get("duration"))),
+                    Duration.ofMillis(Long.parseLong(values.get("think"))),
+                    Integer.parseInt(values.get("cars")),
+                    Integer.parseInt(values.get("customers")),
+                    Integer.parseInt(values.get("reservations")),
+                    Integer.parseInt(values.get("horizon")),
+                    mix,
+                    "virtual".equals(values.get("threads")));
+            if (settings.clients() < 1 || settings.cars() < 1 || settings.customers() < 1 || settings.horizonDays() < 1
+                    || settings.duration().isZero() || settings.totalWeight() < 1) {
+                throw new IllegalArgumentException("clients, cars, customers, horizon, duration and the mix must be positive");
+            }
+            return settings;
+        }
+
+        int totalWeight() {
+            return mix.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        Operation pick(int ticket) {
+            for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+                ticket -= weight.getValue();
+                if (ticket < 0) {
+                    return weight.getKey();
+                }
+            }
+            throw new IllegalStateException("Ticket beyond the total weight");
+        }
+    }
+}
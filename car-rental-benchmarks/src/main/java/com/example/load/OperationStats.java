@@ -0,0 +1,67 @@
+package com.example.load;
+
+import java.util.Arrays;
+
+/**
+ * What one client saw of one operation: every latency, plus error and booking-conflict counts. Each client thread
+ * owns its instances, so nothing here is synchronized; {@link #merge} combines them once the clients have stopped.
+ */
+final class OperationStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private long conflicts;
+
+    void record(long nanos, Outcome outcome) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (outcome == Outcome.ERROR) {
+            errors++;
+        } else if (outcome == Outcome.CONFLICT) {
+            conflicts++;
+        }
+    }
+
+    void merge(OperationStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        conflicts += other.conflicts;
+    }
+
+    long count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    long conflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Latency percentiles in milliseconds, nearest-rank. Sorts the samples, so call it once all are merged.
+     */
+    double[] percentilesMillis(double... percentiles) {
+        Arrays.sort(latencies, 0, count);
+        double[] millis = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length && count > 0; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100 * count);
+            millis[i] = latencies[Math.max(0, Math.min(count, rank) - 1)] / 1_000_000.0;
+        }
+        return millis;
+    }
+
+    enum Outcome {
+        OK,
+        CONFLICT,
+        ERROR
+    }
+}
@@ -1,11 +1,28 @@
 package com.example.api.controller;
 
+import com.example.concurrency.ConflictRetryPolicy;
+import com.example.dto.CarImportFormat;
+import com.example.dto.CarImportSummary;
+import com.example.dto.CursorPage;
+import com.example.dto.FleetStatus;
+import com.example.dto.ReservationExportFilter;
+import com.example.dto.ReservationSummary;
+import com.example.models.Branch;
 import com.example.models.Car;
 import com.example.models.Customer;
+import com.example.models.RateCard;
 import com.example.models.Reservation;
+import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.service.AdminService;
+import com.example.service.BranchService;
+import com.example.service.CarImportService;
+import com.example.service.PricingService;
+import com.example.service.ReservationExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,19 +30,32 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
+    private static final String NDJSON = "application/x-ndjson";
 
     private final AdminService adminService;
+    private final ReservationExportService reservationExportService;
+    private final CarImportService carImportService;
+    private final PricingService pricingService;
+    private final BranchService branchService;
     private final CustomerRepository customerRepository;
+    private final CarRepository carRepository;
+    private final ConflictRetryPolicy conflictRetryPolicy;
 
     @PostMapping("/car")
     public ResponseEntity<String> addCar(@RequestBody Car car) {
@@ -33,6 +63,12 @@ public class AdminController {
         return ResponseEntity.ok("Car added successfully");
     }
 
+    @PostMapping(value = "/cars/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<CarImportSummary> importCars(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       InputStream body) throws IOException {
+        return ResponseEntity.ok(carImportService.importCars(CarImportFormat.of(contentType), body));
+    }
+
     @DeleteMapping("/car")
     public ResponseEntity<String> removeCar(@RequestBody Car car) {
         adminService.removeCar(car);
@@ -46,33 +82,88 @@ public class AdminController {
     }
 
     @GetMapping("/cars")
-    public ResponseEntity<List<Car>> getAllCars() {
-        return ResponseEntity.ok(adminService.viewAllCars());
+    public ResponseEntity<CursorPage<Car>> getAllCars(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.viewCars(cursor, size));
+    }
+
+    @GetMapping("/fleet")
+    public ResponseEntity<FleetStatus> getFleetStatus() {
+        return ResponseEntity.ok(adminService.viewFleetStatus());
+    }
+
+    @PostMapping("/rate-cards")
+    public ResponseEntity<RateCard> addRateCard(@RequestBody RateCard rateCard) {
+        return ResponseEntity.ok(pricingService.addRateCard(rateCard));
+    }
+
+    @GetMapping("/rate-cards")
+    public ResponseEntity<List<RateCard>> getRateCards() {
+        return ResponseEntity.ok(pricingService.viewRateCards());
+    }
+
+    @PutMapping("/branches")
+    public ResponseEntity<Branch> saveBranch(@RequestBody Branch branch) {
+        return ResponseEntity.ok(branchService.saveBranch(branch));
+    }
+
+    @GetMapping("/branches")
+    public ResponseEntity<List<Branch>> getBranches() {
+        return ResponseEntity.ok(branchService.viewBranches());
     }
 
     @GetMapping("/reservations")
-    public ResponseEntity<String> getAllReservations() {
-        adminService.viewAllReservations();
-        return ResponseEntity.ok("Reservations displayed in console");
+    public ResponseEntity<CursorPage<ReservationSummary>> getAllReservations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.viewReservations(cursor, size));
+    }
+
+    @GetMapping("/reservations/overlapping")
+    public ResponseEntity<List<ReservationSummary>> getReservationsOverlapping(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.viewReservationsOverlapping(from, to, size));
+    }
+
+    @GetMapping("/reservations/ending")
+    public ResponseEntity<List<ReservationSummary>> getReservationsEnding(
+            @RequestParam(defaultValue = "PT1H") Duration within,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.viewReservationsEndingWithin(within, size));
+    }
+
+    @GetMapping(value = "/reservations/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) Reservation.ReservationStatus status,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        ReservationExportFilter filter = ReservationExportFilter.of(status, from, to);
+        StreamingResponseBody body = out -> reservationExportService.exportReservations(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     @PostMapping("/reservation/{customerId}")
     public ResponseEntity<String> makeReservationForCustomer(@PathVariable String customerId, @RequestBody Reservation request) {
-            Customer customer = customerRepository.findById(customerId).orElseThrow(
-                    () -> new RuntimeException("Customer not found"));
-
-            Car car = new Car();
-            car.setId(request.getCar().getId());
+            conflictRetryPolicy.run("admin.reservation", () -> {
+                Customer customer = customerRepository.findById(customerId).orElseThrow(
+                        () -> new RuntimeException("Customer not found"));
+                Car car = carRepository.findById(request.getCar().getId()).orElseThrow(
+                        () -> new RuntimeException("Car not found"));
 
-            adminService.makeReservationForCustomer(customer, car, request.getStartTime(),
-                    request.getEndTime());
+                adminService.makeReservationForCustomer(customer, car, request.getStartTime(),
+                        request.getEndTime());
+            });
 
             return ResponseEntity.ok("Reservation created by admin");
         }
 
     @DeleteMapping("/reservation/{id}")
     public ResponseEntity<String> cancelReservation(@PathVariable String id) {
-        adminService.cancelReservation(id);
+        conflictRetryPolicy.run("admin.cancel", () -> adminService.cancelReservation(id));
         return ResponseEntity.ok("Reservation cancelled by admin");
     }
 }
\ No newline at end of file
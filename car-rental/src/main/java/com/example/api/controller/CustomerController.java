@@ -1,12 +1,29 @@
 package com.example.api.controller;
 
+import com.example.concurrency.ConflictRetryPolicy;
+import com.example.dto.BulkReservationRequest;
+import com.example.dto.BulkReservationResult;
+import com.example.dto.CarSearchQuery;
+import com.example.dto.CarSearchResult;
+import com.example.dto.FleetViewPage;
+import com.example.dto.NearbyCar;
+import com.example.dto.NearbyCarQuery;
+import com.example.dto.Quote;
+import com.example.dto.QuoteRequest;
+import com.example.dto.Suggestion;
+import com.example.location.BranchLocator;
 import com.example.models.Car;
-import com.example.models.Customer;
 import com.example.models.Reservation;
-import com.example.repository.CarRepository;
-import com.example.repository.CustomerRepository;
+import com.example.readmodel.CarView;
+import com.example.readmodel.FleetReadModel;
+import com.example.search.CarSearchIndex;
 import com.example.service.CustomerService;
+import com.example.service.PricingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,8 +31,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,29 +42,101 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CustomerController {
     private final CustomerService customerService;
-    private final CustomerRepository customerRepository;
-    private final CarRepository carRepository;
+    private final PricingService pricingService;
+    private final CarSearchIndex searchIndex;
+    private final BranchLocator branchLocator;
+    private final FleetReadModel readModel;
+    private final ConflictRetryPolicy conflictRetryPolicy;
 
     @GetMapping("/cars/available")
-    public ResponseEntity<List<Car>> viewAvailableCars() {
-        return ResponseEntity.ok(customerService.viewAvailableCars());
+    public ResponseEntity<Slice<Car>> viewAvailableCars(@RequestParam(required = false) Car.CarType type,
+                                                        @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(customerService.viewAvailableCars(type, pageable));
+    }
+
+    @GetMapping("/cars/free")
+    public ResponseEntity<Slice<Car>> viewFreeCars(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                   @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(customerService.viewFreeCars(start, end, pageable));
+    }
+
+    @GetMapping("/view/cars/available")
+    public ResponseEntity<FleetViewPage> viewAvailableCarsFromReadModel(@RequestParam(required = false) Car.CarType type,
+                                                                        @RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(readModel.snapshot().available(type, page, size));
+    }
+
+    @GetMapping("/view/cars/free")
+    public ResponseEntity<FleetViewPage> viewFreeCarsFromReadModel(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                                   @RequestParam(required = false) Car.CarType type,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(readModel.snapshot().free(start, end, type, page, size));
+    }
+
+    @GetMapping("/view/cars/{id}")
+    public ResponseEntity<CarView> viewCarFromReadModel(@PathVariable String id) {
+        CarView car = readModel.snapshot().car(id);
+        return car == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(car);
+    }
+
+    @GetMapping("/cars/search")
+    public ResponseEntity<CarSearchResult> searchCars(@RequestParam(required = false) List<String> brand,
+                                                      @RequestParam(required = false) List<String> model,
+                                                      @RequestParam(required = false) List<Car.CarType> type,
+                                                      @RequestParam(required = false) List<Car.CarStatus> status,
+                                                      @RequestParam(required = false) List<String> rateBand,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchIndex.search(new CarSearchQuery(brand, model, type, status, rateBand, page, size)));
+    }
+
+    @GetMapping("/cars/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam CarSearchIndex.TextField field,
+                                                    @RequestParam(defaultValue = "") String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchIndex.suggest(field, prefix, limit));
+    }
+
+    @GetMapping("/cars/nearby")
+    public ResponseEntity<List<NearbyCar>> nearbyCars(@RequestParam double latitude,
+                                                      @RequestParam double longitude,
+                                                      @RequestParam(defaultValue = "25") double radiusKm,
+                                                      @RequestParam(required = false) List<Car.CarType> type,
+                                                      @RequestParam(defaultValue = "AVAILABLE") List<Car.CarStatus> status,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        NearbyCarQuery query = new NearbyCarQuery(latitude, longitude, radiusKm, type, status, limit);
+        return ResponseEntity.ok(searchIndex.nearest(query, branchLocator.grid()));
+    }
+
+    @PostMapping("/quotes")
+    public ResponseEntity<List<Quote>> quote(@RequestBody QuoteRequest request) {
+        return ResponseEntity.ok(pricingService.quote(request.items()));
     }
 
     @PostMapping("/reservation")
     public ResponseEntity<String> makeReservation(@RequestBody Reservation request) {
-            Customer customer = customerRepository.findById(request.getCustomer().getId()).orElseThrow(
-                    () -> new RuntimeException("Customer not found"));
-            Car car = carRepository.findById(request.getCar().getId()).orElseThrow(
-                    () -> new RuntimeException("Car not found"));
+            String customerId = request.getCustomer().getId();
+            String carId = request.getCar().getId();
 
-            customerService.makeReservation(customer, car, request.getStartTime(), request.getEndTime());
+            conflictRetryPolicy.run("customer.reservation", () ->
+                    customerService.reserve(customerId, carId, request.getStartTime(), request.getEndTime()));
 
             return ResponseEntity.ok("Reservation created successfully");
     }
 
+    @PostMapping("/reservations/bulk")
+    public ResponseEntity<List<BulkReservationResult>> makeBulkReservation(@RequestBody BulkReservationRequest request) {
+        return ResponseEntity.ok(conflictRetryPolicy.execute("customer.bulk-reservation",
+                () -> customerService.reserveAll(request.customerId(), request.items())));
+    }
+
     @DeleteMapping("/reservation/{id}")
     public ResponseEntity<String> cancelReservation(@PathVariable String id) {
-        customerService.cancelReservation(id);
+        conflictRetryPolicy.run("customer.cancel", () -> customerService.cancelReservation(id));
         return ResponseEntity.ok("Reservation cancelled");
     }
 
@@ -0,0 +1,93 @@
+package com.example.api.reactive;
+
+import com.example.models.Car;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Car reads over R2DBC, against the same H2 database the JPA side writes to. Rows are emitted as they are read and
+ * only as fast as the subscriber requests them.
+ * <p>
+ * The pool is deliberately not a bean: Spring Boot backs off from configuring the JDBC {@code DataSource} as soon as
+ * an R2DBC {@code ConnectionFactory} bean exists.
+ */
+@Component
+public class ReactiveCarQueries implements DisposableBean {
+    private static final String COLUMNS = "id, version, model, brand, rate_per_hour, car_status, car_type, branch_id";
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCarQueries(@Value("${car-rental.reactive-read.url:r2dbc:h2:mem:///testdb}") String url,
+                              @Value("${car-rental.reactive-read.max-connections:20}") int maxConnections,
+                              @Value("${spring.datasource.username:sa}") String username,
+                              @Value("${spring.datasource.password:}") String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxConnections)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    /**
+     * One page of the available cars, optionally of one type, in id order like the MVC listing.
+     */
+    public Flux<Car> availableCars(Car.CarType type, int page, int size) {
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql("select " + COLUMNS + " from cars "
+                        + "where car_status = :status" + (type == null ? "" : " and car_type = :type")
+                        + " order by id limit :limit offset :offset")
+                .bind("status", Car.CarStatus.AVAILABLE.name())
+                .bind("limit", size)
+                .bind("offset", (long) page * size);
+        if (type != null) {
+            query = query.bind("type", type.name());
+        }
+        return query.map(ReactiveCarQueries::toCar).all();
+    }
+
+    /**
+     * The fleet in {@code (ratePerHour, id)} order, starting after the given position (from the beginning when
+     * {@code afterId} is null), up to {@code limit} cars or to the end when {@code limit} is null.
+     */
+    public Flux<Car> cars(double afterRate, String afterId, Integer limit) {
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql("select " + COLUMNS + " from cars"
+                + (afterId == null ? "" : " where rate_per_hour >= :rate and (rate_per_hour > :rate or id > :id)")
+                + " order by rate_per_hour, id" + (limit == null ? "" : " limit :limit"));
+        if (afterId != null) {
+            query = query.bind("rate", afterRate).bind("id", afterId);
+        }
+        if (limit != null) {
+            query = query.bind("limit", limit);
+        }
+        return query.map(ReactiveCarQueries::toCar).all();
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private static Car toCar(Readable row) {
+        Car car = new Car(row.get("id", String.class), row.get("model", String.class), row.get("brand", String.class),
+                enumOrNull(Car.CarStatus.class, row.get("car_status", String.class)),
+                row.get("rate_per_hour", Double.class),
+                enumOrNull(Car.CarType.class, row.get("car_type", String.class)));
+        car.setVersion(row.get("version", Long.class));
+        car.setBranchId(row.get("branch_id", String.class));
+        return car;
+    }
+
+    private static <E extends Enum<E>> E enumOrNull(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+}
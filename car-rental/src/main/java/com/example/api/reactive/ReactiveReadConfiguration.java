@@ -0,0 +1,125 @@
+package com.example.api.reactive;
+
+import com.example.dto.KeysetCursor;
+import com.example.models.Car;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking mirror of the car browsing endpoints under {@value #PATH}, next to the MVC API:
+ * <ul>
+ *     <li>{@code GET /reactive/api/customer/cars/available?type=&page=&size=} takes the parameters of its MVC
+ *     counterpart;</li>
+ *     <li>{@code GET /reactive/api/admin/cars?cursor=&size=} takes the MVC listing's cursors and, without a
+ *     {@code size}, streams the rest of the fleet.</li>
+ * </ul>
+ * Both answer with one JSON car per line ({@code application/x-ndjson}). The functional routes are served by
+ * Tomcat through {@link ServletHttpHandlerAdapter}, which uses non-blocking servlet I/O: a connection holds no
+ * thread while its client is slow to read, and rows are only fetched from {@link ReactiveCarQueries} as fast as
+ * the client takes them. Writes stay on the MVC endpoints.
+ */
+@Configuration
+public class ReactiveReadConfiguration {
+    public static final String PATH = "/reactive";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactiveReadServlet(ReactiveCarQueries queries,
+                                                                                  ObjectMapper objectMapper) {
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes(queries), HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build());
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration =
+                new ServletRegistrationBean<>(new ServletHttpHandlerAdapter(httpHandler), PATH + "/*");
+        registration.setName("reactiveRead");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+
+    static RouterFunction<ServerResponse> routes(ReactiveCarQueries queries) {
+        return RouterFunctions.route()
+                .GET("/api/customer/cars/available", request -> Mono.defer(() -> {
+                    Car.CarType type = request.queryParam("type").map(ReactiveReadConfiguration::carType).orElse(null);
+                    int page = intParam(request, "page", 0);
+                    int size = Math.min(intParam(request, "size", 20), MAX_PAGE_SIZE);
+                    if (page < 0 || size < 1) {
+                        throw new IllegalArgumentException("Page must not be negative and size must be positive");
+                    }
+                    return stream(queries.availableCars(type, page, size));
+                }))
+                .GET("/api/admin/cars", request -> Mono.defer(() -> {
+                    KeysetCursor cursor = request.queryParam("cursor").filter(token -> !token.isBlank())
+                            .map(KeysetCursor::decode).orElse(null);
+                    Integer size = request.queryParam("size").isPresent() ? intParam(request, "size", 0) : null;
+                    if (size != null && size < 1) {
+                        throw new IllegalArgumentException("Page size must be positive");
+                    }
+                    return stream(cursor == null ? queries.cars(0, null, size)
+                            : queries.cars(rate(cursor), cursor.id(), size));
+                }))
+                .onError(IllegalArgumentException.class, ReactiveReadConfiguration::badRequest)
+                .build();
+    }
+
+    private static Mono<ServerResponse> stream(Flux<Car> cars) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(cars, Car.class);
+    }
+
+    // Same body as GlobalExceptionHandler's, which only covers the MVC endpoints
+    private static Mono<ServerResponse> badRequest(Throwable e, ServerRequest request) {
+        Map<String, Object> errorDetails = new LinkedHashMap<>();
+        errorDetails.put("timestamp", LocalDateTime.now().toString());
+        errorDetails.put("status", HttpStatus.BAD_REQUEST.value());
+        errorDetails.put("error", "Bad Request");
+        errorDetails.put("message", e.getMessage());
+        errorDetails.put("path", request.requestPath().value());
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(errorDetails);
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static Car.CarType carType(String value) {
+        try {
+            return Car.CarType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown car type: " + value);
+        }
+    }
+
+    private static double rate(KeysetCursor cursor) {
+        try {
+            return Double.parseDouble(cursor.sortKey());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
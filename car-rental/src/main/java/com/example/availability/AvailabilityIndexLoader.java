@@ -0,0 +1,48 @@
+package com.example.availability;
+
+import com.example.models.Reservation;
+import com.example.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fills the {@link CarAvailabilityIndex} from the confirmed reservations that have not ended yet once the application
+ * is up, and every {@code car-rental.availability.prune-interval} drops the bookings that have ended since.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityIndexLoader {
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityIndexLoader.class);
+    private final ReservationRepository reservationRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        availabilityIndex.clear();
+        for (ReservationRepository.BookingRow row : reservationRepository.findBookingsEndingAfter(
+                Reservation.ReservationStatus.CONFIRMED, LocalDateTime.now())) {
+            if (row.getCarId() == null) {
+                continue;
+            }
+            if (!availabilityIndex.load(row.getCarId(), row.getReservationId(), row.getStartTime(), row.getEndTime())) {
+                log.warn("Reservation {} overlaps another confirmed reservation of car {}",
+                        row.getReservationId(), row.getCarId());
+            }
+        }
+        log.info("Availability index loaded with {} reservations.", availabilityIndex.size());
+    }
+
+    @Scheduled(initialDelayString = "${car-rental.availability.prune-interval:PT1H}",
+            fixedDelayString = "${car-rental.availability.prune-interval:PT1H}")
+    public void pruneEnded() {
+        long pruned = availabilityIndex.pruneEndedBy(LocalDateTime.now());
+        log.debug("Pruned {} ended bookings from the availability index.", pruned);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.availability;
+
+import com.example.concurrency.TransactionHooks;
+import com.example.exception.CarUnavailableException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory interval index of confirmed reservations, one {@link CarTimeline} per car.
+ * <p>
+ * Windows are half-open: a booking for [10:00, 12:00) does not clash with one starting at 12:00.
+ * Lookups cost O(log n) in the number of bookings of the car, independent of the size of the
+ * reservations table.
+ */
+@Component
+public class CarAvailabilityIndex {
+
+    private final Map<String, CarTimeline> timelines = new ConcurrentHashMap<>();
+
+    public boolean isFree(String carId, LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        CarTimeline timeline = timelines.get(carId);
+        return timeline == null || timeline.isFree(toKey(start), toKey(end));
+    }
+
+    public List<String> freeCars(Collection<String> carIds, LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        long from = toKey(start);
+        long to = toKey(end);
+        return carIds.stream()
+                .filter(carId -> {
+                    CarTimeline timeline = timelines.get(carId);
+                    return timeline == null || timeline.isFree(from, to);
+                })
+                .toList();
+    }
+
+    /**
+     * Records a confirmed reservation. Throws {@link CarUnavailableException} if the window was taken since it was
+     * last checked.
+     * When called inside a transaction the entry is withdrawn again if the transaction rolls back.
+     */
+    public void book(String carId, String reservationId, LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        long from = toKey(start);
+        CarTimeline timeline = timelines.computeIfAbsent(carId, id -> new CarTimeline());
+        if (!timeline.tryBook(reservationId, from, toKey(end))) {
+            throw new CarUnavailableException("Car " + carId + " is already booked between " + start + " and " + end);
+        }
+        TransactionHooks.afterRollback(() -> timeline.release(reservationId, from));
+    }
+
+    /**
+     * Removes a reservation from the index. Inside a transaction the entry is restored on rollback.
+     */
+    public void release(String carId, String reservationId, LocalDateTime start, LocalDateTime end) {
+        CarTimeline timeline = timelines.get(carId);
+        if (timeline == null || start == null || end == null) {
+            return;
+        }
+        long from = toKey(start);
+        long to = toKey(end);
+        if (timeline.release(reservationId, from)) {
+            TransactionHooks.afterRollback(() -> timeline.load(reservationId, from, to));
+        }
+    }
+
+    /**
+     * Adds an already persisted reservation without checking for clashes.
+     *
+     * @return false if the reservation overlaps one that was indexed before
+     */
+    public boolean load(String carId, String reservationId, LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        return timelines.computeIfAbsent(carId, id -> new CarTimeline())
+                .load(reservationId, toKey(start), toKey(end));
+    }
+
+    /**
+     * Whether the car has a booking that is still running or yet to come at {@code time}; past bookings that have
+     * not been pruned yet do not count.
+     */
+    public boolean hasBookingsEndingAfter(String carId, LocalDateTime time) {
+        CarTimeline timeline = timelines.get(carId);
+        return timeline != null && timeline.hasBookingsEndingAfter(toKey(time));
+    }
+
+    /**
+     * Drops every booking that ended at or before {@code time}. Timelines stay in place even when emptied, so a
+     * booking racing the prune cannot land on a timeline that is no longer indexed.
+     *
+     * @return the number of bookings dropped
+     */
+    public long pruneEndedBy(LocalDateTime time) {
+        long ended = toKey(time);
+        return timelines.values().stream().mapToLong(timeline -> timeline.pruneEndedBy(ended)).sum();
+    }
+
+    public void evict(String carId) {
+        timelines.remove(carId);
+    }
+
+    public void clear() {
+        timelines.clear();
+    }
+
+    public long size() {
+        return timelines.values().stream().mapToLong(CarTimeline::size).sum();
+    }
+
+    private static void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Reservation window must have a start before its end");
+        }
+    }
+
+    private static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.availability;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Confirmed bookings of a single car, ordered by start time and then reservation id.
+ * <p>
+ * Bookings on a timeline never overlap, so the booking with the greatest start before a window's end
+ * is the only one that can intersect it. That keeps every lookup a single {@link TreeSet} floor search.
+ * Persisted rows loaded without the overlap check may still clash with a booking already on the timeline;
+ * those are kept aside in a plain list that every lookup also scans. The list only ever holds such
+ * inconsistent rows, so it stays empty or tiny.
+ */
+class CarTimeline {
+
+    record Booking(String reservationId, long start, long end) {
+    }
+
+    private static final Comparator<Booking> ORDER = Comparator.comparingLong(Booking::start)
+            .thenComparing(Booking::reservationId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final TreeSet<Booking> bookings = new TreeSet<>(ORDER);
+    private final List<Booking> clashing = new ArrayList<>();
+
+    synchronized boolean isFree(long start, long end) {
+        return !overlaps(start, end);
+    }
+
+    synchronized boolean tryBook(String reservationId, long start, long end) {
+        if (overlaps(start, end)) {
+            return false;
+        }
+        bookings.add(new Booking(reservationId, start, end));
+        return true;
+    }
+
+    /**
+     * Adds a booking without the overlap check, for rows that are already persisted.
+     */
+    synchronized boolean load(String reservationId, long start, long end) {
+        release(reservationId, start);
+        Booking booking = new Booking(reservationId, start, end);
+        if (overlapsOrdered(start, end)) {
+            clashing.add(booking);
+            return false;
+        }
+        bookings.add(booking);
+        return clashing.stream().noneMatch(other -> other.end() > start && other.start() < end);
+    }
+
+    synchronized boolean release(String reservationId, long start) {
+        if (reservationId == null) {
+            return false;
+        }
+        return bookings.remove(new Booking(reservationId, start, start))
+                | clashing.removeIf(booking -> booking.start() == start && reservationId.equals(booking.reservationId()));
+    }
+
+    /**
+     * Drops bookings that ended at or before {@code time}.
+     *
+     * @return the number of bookings dropped
+     */
+    synchronized int pruneEndedBy(long time) {
+        int before = size();
+        // Ordered bookings do not overlap, so they end in the order they start
+        while (!bookings.isEmpty() && bookings.first().end() <= time) {
+            bookings.pollFirst();
+        }
+        clashing.removeIf(booking -> booking.end() <= time);
+        return before - size();
+    }
+
+    /**
+     * Whether a booking is still running or yet to come at {@code time}. Ordered bookings do not overlap and end in
+     * the order they start, so the last one decides among them.
+     */
+    synchronized boolean hasBookingsEndingAfter(long time) {
+        return (!bookings.isEmpty() && bookings.last().end() > time)
+                || clashing.stream().anyMatch(booking -> booking.end() > time);
+    }
+
+    synchronized int size() {
+        return bookings.size() + clashing.size();
+    }
+
+    private boolean overlaps(long start, long end) {
+        return overlapsOrdered(start, end)
+                || clashing.stream().anyMatch(booking -> booking.end() > start && booking.start() < end);
+    }
+
+    private boolean overlapsOrdered(long start, long end) {
+        // Sorts before every booking starting at end, so lower() finds the last one starting before it
+        Booking candidate = bookings.lower(new Booking(null, end, end));
+        return candidate != null && candidate.end() > start;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caches for Hibernate's second-level cache, backed by Caffeine.
+ * <p>
+ * Three regions are created up front: {@value #CAR_REGION} for {@code Car} entities, the query results region
+ * for cacheable car listings, both bounded by size and TTL, and the update timestamps region. The latter must
+ * never expire ahead of the query results it validates, so it is left unbounded; it holds one entry per table.
+ * Hit and miss counts are published as {@code cache.gets}, tagged with the cache name.
+ */
+@Configuration
+public class CarCacheConfiguration {
+    public static final String CAR_REGION = "cars";
+    private static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    private static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * Each application context gets its own manager; the provider hands out one instance per URI, and test
+     * contexts would otherwise collide on the cache names.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager carCacheManager(@Value("${car-rental.car-cache.max-size:10000}") long maxSize,
+                                        @Value("${car-rental.car-cache.query-max-size:1000}") long queryMaxSize,
+                                        @Value("${car-rental.car-cache.ttl:10m}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("car-rental:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(CAR_REGION, bounded(maxSize, ttl));
+        cacheManager.createCache(QUERY_REGION, bounded(queryMaxSize, ttl));
+        cacheManager.createCache(TIMESTAMPS_REGION, unbounded());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer carCacheHibernateProperties(CacheManager carCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, carCacheManager);
+    }
+
+    @Bean
+    public MeterBinder carCacheMetrics(CacheManager carCacheManager) {
+        return registry -> List.of(CAR_REGION, QUERY_REGION, TIMESTAMPS_REGION).forEach(name ->
+                JCacheMetrics.monitor(registry, carCacheManager.getCache(name)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = unbounded();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> unbounded() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate already stores disassembled state, so there is nothing to gain from copying it again.
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work that lost an optimistic-locking race.
+ *
+ * <p>The action must open its own transaction and re-read the entities it writes, so each attempt starts from
+ * committed state: call it around the transactional service, never from inside one. Backoff is exponential with
+ * full jitter, which spreads writers contending for the same hot car instead of letting them collide again in
+ * lockstep. Retries and give-ups are counted per operation as {@code write.conflict.retries} and
+ * {@code write.conflict.aborts}.
+ */
+@Component
+public class ConflictRetryPolicy {
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryPolicy.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public ConflictRetryPolicy(MeterRegistry meterRegistry,
+                               @Value("${car-rental.write-retry.max-attempts:5}") int maxAttempts,
+                               @Value("${car-rental.write-retry.initial-backoff:25ms}") Duration initialBackoff,
+                               @Value("${car-rental.write-retry.max-backoff:500ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Backoff must satisfy 0 <= initial <= max");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    counter("write.conflict.aborts", operation).increment();
+                    log.warn("Giving up on {} after {} conflicting attempts.", operation, attempt);
+                    throw e;
+                }
+                counter("write.conflict.retries", operation).increment();
+                log.info("Conflict on {} (attempt {}), retrying.", operation, attempt);
+                sleep(backoffMillis(attempt), e);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Full jitter: a uniformly random delay between zero and the capped exponential ceiling for this attempt.
+     */
+    long backoffMillis(int attempt) {
+        long ceiling = initialBackoffMillis << Math.min(attempt - 1, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(ceiling, maxBackoffMillis) + 1);
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static void sleep(long millis, ConcurrencyFailureException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
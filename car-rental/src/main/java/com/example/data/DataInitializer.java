@@ -1,9 +1,11 @@
 package com.example.data;
 
 import com.example.models.Admin;
+import com.example.models.Branch;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.repository.AdminRepository;
+import com.example.repository.BranchRepository;
 import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import org.springframework.boot.CommandLineRunner;
@@ -16,22 +18,32 @@ public class DataInitializer {
     private final CarRepository carRepository;
     private final CustomerRepository customerRepository;
     private final AdminRepository adminRepository;
+    private final BranchRepository branchRepository;
 
     public DataInitializer(CarRepository carRepository,
                            CustomerRepository customerRepository,
-                           AdminRepository adminRepository) {
+                           AdminRepository adminRepository,
+                           BranchRepository branchRepository) {
         this.carRepository = carRepository;
         this.customerRepository = customerRepository;
         this.adminRepository = adminRepository;
+        this.branchRepository = branchRepository;
     }
 
     @Bean
     CommandLineRunner initDatabase() {
         return args -> {
+            branchRepository.save(new Branch("downtown", "Downtown", 40.7128, -74.0060));
+            branchRepository.save(new Branch("airport", "Airport", 40.6413, -73.7781));
+
             Car car1 = new Car("car1","Camry", "Toyota", Car.CarStatus.AVAILABLE, 25.00, Car.CarType.SEDAN);
             Car car2 = new Car("car2","CR-V", "Honda", Car.CarStatus.AVAILABLE, 35.00, Car.CarType.SUV);
             Car car3 = new Car("car3","F-150", "Ford", Car.CarStatus.AVAILABLE, 45.00, Car.CarType.TRUCK);
 
+            car1.setBranchId("downtown");
+            car2.setBranchId("downtown");
+            car3.setBranchId("airport");
+
             carRepository.save(car1);
             carRepository.save(car2);
             carRepository.save(car3);
@@ -0,0 +1,81 @@
+package com.example.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica when {@code car-rental.read-replica.url} is set, and everything else to
+ * the primary configured by {@code spring.datasource.*}.
+ * <p>
+ * The {@code DataSource} that JPA and JDBC use picks the pool by whether the current Spring transaction is
+ * {@code readOnly}. It sits behind a {@link LazyConnectionDataSourceProxy}, so that a transaction's connection is only
+ * fetched at its first statement, once the transaction's read-only flag is known; beginning the transaction alone
+ * touches no pool. Hibernate releases the connection at the end of each transaction (see
+ * {@code application.properties}), so a request running a read and then a write through the open-in-view session
+ * does not reuse the replica's connection for the write.
+ * <p>
+ * A replica may lag the primary: methods marked {@code readOnly} must tolerate slightly stale rows, and anything
+ * that reads in order to write stays in a read-write transaction. Both pools are published as {@code hikaricp.*},
+ * tagged with their pool name.
+ */
+@Configuration
+public class ReadReplicaConfiguration {
+    public static final String REPLICA_POOL = "replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("car-rental.read-replica.url")
+    @ConfigurationProperties("car-rental.read-replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${car-rental.read-replica.url}") String url,
+                                              @Value("${car-rental.read-replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${car-rental.read-replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA_POOL);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(HikariDataSource primaryDataSource,
+                                                    @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource) {
+        DataSource replica = replicaDataSource.getIfAvailable();
+        if (replica == null) {
+            return new LazyConnectionDataSourceProxy(primaryDataSource);
+        }
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource();
+        routing.setTargetDataSources(Map.of(false, primaryDataSource, true, replica));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static final class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+    }
+}
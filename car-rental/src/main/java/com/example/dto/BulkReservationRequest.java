@@ -0,0 +1,13 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A batch of bookings placed by one customer. Items are answered in the order they were sent.
+ */
+public record BulkReservationRequest(String customerId, List<Item> items) {
+
+    public record Item(String carId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.dto;
+
+/**
+ * Outcome of one item of a bulk reservation. {@code index} points back into the request's item list;
+ * {@code reservationId} is set for confirmed items, {@code reason} for the others.
+ */
+public record BulkReservationResult(int index, String carId, Outcome outcome, String reservationId, String reason) {
+
+    public enum Outcome {
+        CONFIRMED,
+        CONFLICT,
+        REJECTED
+    }
+
+    public static BulkReservationResult confirmed(int index, String carId, String reservationId) {
+        return new BulkReservationResult(index, carId, Outcome.CONFIRMED, reservationId, null);
+    }
+
+    public static BulkReservationResult conflict(int index, String carId, String reason) {
+        return new BulkReservationResult(index, carId, Outcome.CONFLICT, null, reason);
+    }
+
+    public static BulkReservationResult rejected(int index, String carId, String reason) {
+        return new BulkReservationResult(index, carId, Outcome.REJECTED, null, reason);
+    }
+}
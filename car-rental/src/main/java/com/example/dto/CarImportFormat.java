@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Body formats accepted by the fleet import. Both are read line by line: CSV with a header row naming the
+ * columns, NDJSON with one car object per line.
+ */
+public enum CarImportFormat {
+    CSV,
+    NDJSON;
+
+    public static CarImportFormat of(MediaType contentType) {
+        if (contentType != null && "csv".equalsIgnoreCase(contentType.getSubtype())) {
+            return CSV;
+        }
+        if (contentType != null && "x-ndjson".equalsIgnoreCase(contentType.getSubtype())) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Car import expects text/csv or application/x-ndjson, got: " + contentType);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Result of a fleet import. {@code rejected} counts every refused row, while {@code rejectedRows} only lists
+ * the first ones so the summary stays small for large files.
+ */
+public record CarImportSummary(long created, long updated, long rejected, List<RejectedRow> rejectedRows) {
+
+    /**
+     * A refused row, identified by its 1-based line number in the uploaded body.
+     */
+    public record RejectedRow(long line, String reason) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.dto;
+
+import com.example.models.Car;
+
+import java.util.List;
+
+/**
+ * A fleet search. Within a field the listed values are alternatives; across fields they must all match. An empty
+ * field does not filter. Brands and models match case-insensitively.
+ */
+public record CarSearchQuery(List<String> brands,
+                             List<String> models,
+                             List<Car.CarType> carTypes,
+                             List<Car.CarStatus> carStatuses,
+                             List<String> rateBands,
+                             int page,
+                             int size) {
+
+    public CarSearchQuery {
+        brands = brands == null ? List.of() : brands;
+        models = models == null ? List.of() : models;
+        carTypes = carTypes == null ? List.of() : carTypes;
+        carStatuses = carStatuses == null ? List.of() : carStatuses;
+        rateBands = rateBands == null ? List.of() : rateBands;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.dto;
+
+import com.example.models.Car;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of matching cars, the number of matches, and facet counts per field ({@code brand}, {@code carType},
+ * {@code carStatus} and {@code rateBand}). A field's counts apply every filter except the field's own, so they tell
+ * how many cars each alternative value would add.
+ */
+public record CarSearchResult(long total, List<Hit> cars, Map<String, Map<String, Integer>> facets) {
+
+    public record Hit(String id, String brand, String model, Car.CarType carType, Car.CarStatus carStatus,
+                      double ratePerHour, String rateBand) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import com.example.models.Car;
+
+import java.util.Map;
+
+/**
+ * Fleet dashboard figures: cars per status, cars per type, and the number of cars with a status.
+ */
+public record FleetStatus(Map<Car.CarStatus, Long> byStatus, Map<Car.CarType, Long> byType, long total) {
+}
@@ -0,0 +1,13 @@
+package com.example.dto;
+
+import com.example.readmodel.CarView;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page read from a single read-model snapshot: {@code version} and {@code asOf} identify the snapshot, so pages
+ * with the same version are consistent with each other.
+ */
+public record FleetViewPage(long version, Instant asOf, List<CarView> cars, boolean hasNext) {
+}
@@ -0,0 +1,10 @@
+package com.example.dto;
+
+import com.example.models.Car;
+
+/**
+ * A car found by a nearby search, with the branch it is kept at and that branch's distance from the query's point.
+ */
+public record NearbyCar(String id, String brand, String model, Car.CarType carType, Car.CarStatus carStatus,
+                        double ratePerHour, String branchId, String branchName, double distanceKm) {
+}
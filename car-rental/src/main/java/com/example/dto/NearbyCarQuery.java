@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import com.example.models.Car;
+
+import java.util.List;
+
+/**
+ * The cars kept within {@code radiusKm} of a point, of any of the listed types and statuses; an empty list does not
+ * filter.
+ */
+public record NearbyCarQuery(double latitude,
+                             double longitude,
+                             double radiusKm,
+                             List<Car.CarType> carTypes,
+                             List<Car.CarStatus> carStatuses,
+                             int limit) {
+
+    public NearbyCarQuery {
+        carTypes = carTypes == null ? List.of() : carTypes;
+        carStatuses = carStatuses == null ? List.of() : carStatuses;
+    }
+}
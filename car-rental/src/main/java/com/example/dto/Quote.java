@@ -0,0 +1,16 @@
+package com.example.dto;
+
+/**
+ * Price of one item of a {@link QuoteRequest}. {@code index} points back into the request's item list;
+ * {@code totalCostCents} is set for priced items, {@code reason} for the others.
+ */
+public record Quote(int index, String carId, Long totalCostCents, String reason) {
+
+    public static Quote priced(int index, String carId, long totalCostCents) {
+        return new Quote(index, carId, totalCostCents, null);
+    }
+
+    public static Quote rejected(int index, String carId, String reason) {
+        return new Quote(index, carId, null, reason);
+    }
+}
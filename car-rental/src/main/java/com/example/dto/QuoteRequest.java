@@ -0,0 +1,13 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rental windows to price, e.g. for a page of search results. Items are answered in the order they were sent.
+ */
+public record QuoteRequest(List<Item> items) {
+
+    public record Item(String carId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.dto;
+
+import com.example.models.Reservation;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Optional filters of a reservation export. The time window keeps reservations overlapping [from, to).
+ */
+public record ReservationExportFilter(Reservation.ReservationStatus status, LocalDateTime from, LocalDateTime to) {
+
+    public ReservationExportFilter {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    public static ReservationExportFilter of(Reservation.ReservationStatus status, String from, String to) {
+        return new ReservationExportFilter(status, parse(from, "from"), parse(to, "to"));
+    }
+
+    private static LocalDateTime parse(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + name + "' must be an ISO date-time, got: " + value);
+        }
+    }
+}
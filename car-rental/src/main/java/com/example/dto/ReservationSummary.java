@@ -0,0 +1,19 @@
+package com.example.dto;
+
+import com.example.models.Reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a reservation for listings. Built directly by the query, so a page of summaries costs one
+ * statement and never touches the car or customer entities. {@code totalCost} is in currency units, converted from
+ * the stored cents.
+ */
+public record ReservationSummary(String reservationId,
+                                 String customerName,
+                                 String carModel,
+                                 LocalDateTime startTime,
+                                 LocalDateTime endTime,
+                                 Reservation.ReservationStatus status,
+                                 double totalCost) {
+}
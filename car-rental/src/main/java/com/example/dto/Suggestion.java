@@ -0,0 +1,7 @@
+package com.example.dto;
+
+/**
+ * An autocomplete value and the number of cars that have it.
+ */
+public record Suggestion(String value, int count) {
+}
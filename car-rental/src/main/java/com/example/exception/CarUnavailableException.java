@@ -0,0 +1,7 @@
+package com.example.exception;
+
+public class CarUnavailableException extends RuntimeException {
+    public CarUnavailableException(String message) {
+        super(message);
+    }
+}
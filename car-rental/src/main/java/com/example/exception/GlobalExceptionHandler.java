@@ -1,5 +1,6 @@
 package com.example.exception;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -45,6 +46,41 @@ public class GlobalExceptionHandler {
                 .body(errorDetails);
     }
 
+    @ExceptionHandler(CarUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleCarUnavailableException(
+            CarUnavailableException ex, WebRequest request) {
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", LocalDateTime.now().toString());
+        errorDetails.put("status", HttpStatus.CONFLICT.value());
+        errorDetails.put("error", "Conflict");
+        errorDetails.put("message", ex.getMessage());
+        errorDetails.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Content-Type", "application/json")
+                .body(errorDetails);
+    }
+
+    // Optimistic-locking losses, lock timeouts and deadlocks that were still failing after the last retry
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrencyFailure(
+            ConcurrencyFailureException ex, WebRequest request) {
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", LocalDateTime.now().toString());
+        errorDetails.put("status", HttpStatus.CONFLICT.value());
+        errorDetails.put("error", "Conflict");
+        errorDetails.put("message", "The resource was modified concurrently, please retry");
+        errorDetails.put("path", request.getDescription(false).replace("uri=", ""));
+
+        // Retry-After marks the conflict as transient, so IdempotencyFilter does not keep it for the key
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Content-Type", "application/json")
+                .header("Retry-After", "1")
+                .body(errorDetails);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(
             Exception ex, WebRequest request) {
@@ -0,0 +1,92 @@
+package com.example.fleet;
+
+import com.example.dto.FleetStatus;
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import com.example.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Keeps the denormalized counters honest. At startup the {@link FleetCounters} are loaded from the cars table;
+ * after that, every {@code car-rental.fleet-audit.interval} they are compared with a fresh tally, and the
+ * customers' active-reservation columns are recounted from the reservations table.
+ * <p>
+ * A booking that commits while the tally runs can make the fleet counters and the table disagree for a moment, so
+ * fleet drift is only corrected when two audits in a row see it. Customer counts are fixed in one statement that
+ * reads and writes each row together, so they are corrected straight away.
+ * <p>
+ * Both tallies are read in read-write transactions on purpose: the live counters are deltas on top of them, so they
+ * must come from the primary rather than a replica that may lag it. Audits run with a fixed delay, so one never
+ * starts before the previous one finished and {@code driftSeen} needs no lock.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class FleetCounterAudit {
+    private static final Logger log = LoggerFactory.getLogger(FleetCounterAudit.class);
+    private final CarRepository carRepository;
+    private final CustomerRepository customerRepository;
+    private final FleetCounters counters;
+    private boolean driftSeen;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        Tally tally = tally();
+        counters.reset(tally.statuses(), tally.types());
+        log.info("Fleet counters loaded: {}.", tally.statuses());
+    }
+
+    @Scheduled(initialDelayString = "${car-rental.fleet-audit.interval:PT5M}",
+            fixedDelayString = "${car-rental.fleet-audit.interval:PT5M}")
+    public void audit() {
+        Tally tally = tally();
+        FleetStatus live = counters.snapshot();
+        boolean drifted = !tally.statuses().equals(live.byStatus()) || !tally.types().equals(live.byType());
+        if (drifted && driftSeen) {
+            log.warn("Fleet counters drifted from the cars table: counted {} {}, table has {} {}. Correcting.",
+                    live.byStatus(), live.byType(), tally.statuses(), tally.types());
+            counters.reset(tally.statuses(), tally.types());
+            drifted = false;
+        }
+        driftSeen = drifted;
+
+        int customers = customerRepository.reconcileActiveReservations();
+        if (customers > 0) {
+            log.warn("Corrected the active-reservation count of {} customers.", customers);
+        }
+    }
+
+    private Tally tally() {
+        Tally tally = new Tally(zeros(Car.CarStatus.class), zeros(Car.CarType.class));
+        for (CarRepository.FleetCount count : carRepository.countFleet()) {
+            if (count.getCarStatus() != null) {
+                tally.statuses().merge(count.getCarStatus(), count.getCars(), Long::sum);
+            }
+            if (count.getCarType() != null) {
+                tally.types().merge(count.getCarType(), count.getCars(), Long::sum);
+            }
+        }
+        return tally;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeros(Class<E> type) {
+        Map<E, Long> zeros = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            zeros.put(key, 0L);
+        }
+        return zeros;
+    }
+
+    private record Tally(Map<Car.CarStatus, Long> statuses, Map<Car.CarType, Long> types) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.fleet;
+
+import com.example.models.Car;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link FleetCounters} with every car inserted, updated or deleted through Hibernate: admin edits, imports,
+ * and the status changes of the entity-based booking and cancellation paths. Hibernate calls it only once the
+ * transaction has committed, with the car's state before and after the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetCounterListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private final FleetCounters counters;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Car.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        counters.carAdded(status(event.getPersister(), event.getState()), type(event.getPersister(), event.getState()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Without the previous state there is nothing to diff against; the audit picks up whatever changed.
+        if (event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        counters.carChanged(status(persister, event.getOldState()), type(persister, event.getOldState()),
+                status(persister, event.getState()), type(persister, event.getState()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object[] state = event.getDeletedState();
+        if (state == null) {
+            return;
+        }
+        counters.carRemoved(status(event.getPersister(), state), type(event.getPersister(), state));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static Car.CarStatus status(EntityPersister persister, Object[] state) {
+        return (Car.CarStatus) state[persister.getPropertyIndex("carStatus")];
+    }
+
+    private static Car.CarType type(EntityPersister persister, Object[] state) {
+        return (Car.CarType) state[persister.getPropertyIndex("carType")];
+    }
+}
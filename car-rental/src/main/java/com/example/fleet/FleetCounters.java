@@ -0,0 +1,118 @@
+package com.example.fleet;
+
+import com.example.concurrency.TransactionHooks;
+import com.example.dto.FleetStatus;
+import com.example.models.Car;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live count of cars per {@link Car.CarStatus} and per {@link Car.CarType}, so fleet dashboards never scan the
+ * cars table.
+ * <p>
+ * Each count is a {@link LongAdder}: bookings on different threads bump the same few counters, and striped adders
+ * keep them from contending on one cache line. Only committed changes are counted. Changes made through the entity
+ * arrive from {@link FleetCounterListener} after commit; native statements report theirs with
+ * {@link #recordStatusChange}. {@link FleetCounterAudit} loads the counts at startup and checks them against the
+ * table from then on. The counts are published as the {@code fleet.cars.status} and {@code fleet.cars.type} gauges.
+ */
+@Component
+public class FleetCounters implements MeterBinder {
+    private final Map<Car.CarStatus, LongAdder> byStatus = adders(Car.CarStatus.class);
+    private final Map<Car.CarType, LongAdder> byType = adders(Car.CarType.class);
+
+    public long count(Car.CarStatus status) {
+        return byStatus.get(status).sum();
+    }
+
+    public long count(Car.CarType type) {
+        return byType.get(type).sum();
+    }
+
+    public FleetStatus snapshot() {
+        Map<Car.CarStatus, Long> statuses = sums(Car.CarStatus.class, byStatus);
+        Map<Car.CarType, Long> types = sums(Car.CarType.class, byType);
+        return new FleetStatus(statuses, types, statuses.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Records cars moved between statuses by a statement that bypassed the entity. Inside a transaction the change
+     * is applied once it commits and dropped if it rolls back.
+     */
+    public void recordStatusChange(Car.CarStatus from, Car.CarStatus to, long cars) {
+        if (from == to || cars == 0) {
+            return;
+        }
+        Runnable change = () -> {
+            adjust(byStatus, from, -cars);
+            adjust(byStatus, to, cars);
+        };
+        TransactionHooks.afterCommit(change);
+    }
+
+    /**
+     * Replaces every count, e.g. with a fresh tally of the cars table.
+     */
+    public void reset(Map<Car.CarStatus, Long> statuses, Map<Car.CarType, Long> types) {
+        byStatus.forEach((status, adder) -> adder.add(statuses.getOrDefault(status, 0L) - adder.sum()));
+        byType.forEach((type, adder) -> adder.add(types.getOrDefault(type, 0L) - adder.sum()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        byStatus.forEach((status, adder) -> Gauge.builder("fleet.cars.status", adder, LongAdder::sum)
+                .tag("status", status.name())
+                .register(registry));
+        byType.forEach((type, adder) -> Gauge.builder("fleet.cars.type", adder, LongAdder::sum)
+                .tag("type", type.name())
+                .register(registry));
+    }
+
+    void carAdded(Car.CarStatus status, Car.CarType type) {
+        adjust(byStatus, status, 1);
+        adjust(byType, type, 1);
+    }
+
+    void carRemoved(Car.CarStatus status, Car.CarType type) {
+        adjust(byStatus, status, -1);
+        adjust(byType, type, -1);
+    }
+
+    void carChanged(Car.CarStatus oldStatus, Car.CarType oldType, Car.CarStatus newStatus, Car.CarType newType) {
+        if (oldStatus != newStatus) {
+            adjust(byStatus, oldStatus, -1);
+            adjust(byStatus, newStatus, 1);
+        }
+        if (oldType != newType) {
+            adjust(byType, oldType, -1);
+            adjust(byType, newType, 1);
+        }
+    }
+
+    // Cars without a status or type are not counted under either.
+    private static <E extends Enum<E>> void adjust(Map<E, LongAdder> adders, E key, long delta) {
+        if (key != null) {
+            adders.get(key).add(delta);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> adders = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            adders.put(key, new LongAdder());
+        }
+        return adders;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> sums(Class<E> type, Map<E, LongAdder> adders) {
+        Map<E, Long> sums = new EnumMap<>(type);
+        adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+        return sums;
+    }
+}
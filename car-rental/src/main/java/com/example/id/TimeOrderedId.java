@@ -0,0 +1,19 @@
+package com.example.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id assigned from {@link TimeOrderedUuid} on insert. The attribute may be a {@link java.util.UUID} or a
+ * {@code String}; a string id should also carry {@code @JavaType(UuidStringJavaType.class)} so it is stored as a
+ * 16-byte UUID rather than as text.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
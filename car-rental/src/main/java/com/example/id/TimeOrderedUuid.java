@@ -0,0 +1,36 @@
+package com.example.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 values: a 48-bit Unix millisecond timestamp, then a 12-bit sequence, then 62 random bits.
+ * <p>
+ * Ids taken one after another are strictly increasing, so inserts land at the right-hand edge of the primary key
+ * index instead of splitting pages all over it. Within one millisecond the sequence counts up; if it runs out, the
+ * timestamp field is borrowed ahead of the clock, and a clock stepping backwards is ignored in the same way. The
+ * random bits keep ids from separate processes apart and hard to guess.
+ */
+public final class TimeOrderedUuid {
+    private static final int SEQUENCE_BITS = 12;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long now = epochMillis << SEQUENCE_BITS;
+        long stamp = LAST.accumulateAndGet(now, (last, candidate) -> Math.max(last + 1, candidate));
+        long mostSignificant = (stamp >>> SEQUENCE_BITS) << 16
+                | 0x7000L
+                | (stamp & ((1L << SEQUENCE_BITS) - 1));
+        long leastSignificant = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
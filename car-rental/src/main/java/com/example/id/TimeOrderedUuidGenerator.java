@@ -0,0 +1,41 @@
+package com.example.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Hibernate side of {@link TimeOrderedId}: hands out a fresh {@link TimeOrderedUuid} for every insert, converted to
+ * the type of the id attribute.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+    private final boolean textual;
+
+    public TimeOrderedUuidGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Class<?> type = member instanceof Field field ? field.getType() : ((Method) member).getReturnType();
+        if (type != UUID.class && type != String.class) {
+            throw new IllegalArgumentException("@TimeOrderedId needs a UUID or String attribute, not " + type.getName());
+        }
+        this.textual = type == String.class;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        UUID id = TimeOrderedUuid.next();
+        return textual ? id.toString() : id;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.id;
+
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+import java.util.UUID;
+
+/**
+ * Maps a {@code String} attribute holding a UUID onto the database's native UUID type. The application and the API
+ * keep the canonical 36-character text, while the column and its indexes store 16 bytes. Text and native UUIDs sort
+ * alike, so keyset queries on such ids behave the same either way. Text that is not a UUID can never match a row
+ * and is rejected with an {@link IllegalArgumentException} when bound.
+ */
+public class UuidStringJavaType extends AbstractClassJavaType<String> {
+
+    public UuidStringJavaType() {
+        super(String.class);
+    }
+
+    @Override
+    public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+        return indicators.getTypeConfiguration().getJdbcTypeRegistry().getDescriptor(SqlTypes.UUID);
+    }
+
+    @Override
+    public String fromString(CharSequence string) {
+        return string == null ? null : string.toString();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (UUID.class.isAssignableFrom(type)) {
+            return (X) UUID.fromString(value);
+        }
+        if (String.class.isAssignableFrom(type)) {
+            return (X) value;
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid.toString();
+        }
+        if (value instanceof String string) {
+            return string;
+        }
+        throw unknownWrap(value.getClass());
+    }
+}
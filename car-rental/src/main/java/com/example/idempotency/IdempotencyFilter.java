@@ -0,0 +1,256 @@
+package com.example.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Makes the customer booking writes safe to retry when sent with an {@value #HEADER} header:
+ * {@code POST /api/customer/reservation}, {@code POST /api/customer/reservations/bulk} and
+ * {@code DELETE /api/customer/reservation/{id}}.
+ * <p>
+ * The first request with a key runs as usual and its response, success or client error, is kept in the
+ * {@link IdempotencyStore}. A retry with the same key and the same request gets that response back, marked with
+ * {@value #REPLAYED_HEADER}, without reaching the controller or the database. Reusing a key for a different request
+ * is refused with 422, and a retry arriving while the first attempt still runs with 409. Server errors and responses
+ * carrying {@code Retry-After} are not kept, so the key can be retried, unless the request's changes had already
+ * committed: then the key stays taken, and a retry is refused with 409 once the claim has timed out.
+ * <p>
+ * The body is buffered to fingerprint the request, so bodies over {@code car-rental.idempotency.max-body-size} are
+ * refused with 413 before any key is claimed.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    /**
+     * Request attribute holding the key while the rest of the chain runs; read by {@link IdempotencyTransactionListener}.
+     */
+    public static final String KEY_ATTRIBUTE = IdempotencyFilter.class.getName() + ".key";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Pattern CANCEL_PATH = Pattern.compile("/api/customer/reservation/[^/]+");
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final int maxBodySize;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper,
+                             @Value("${car-rental.idempotency.max-body-size:256KB}") DataSize maxBodySize) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.maxBodySize = Math.toIntExact(maxBodySize.toBytes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (request.getMethod()) {
+            case "POST" -> !path.equals("/api/customer/reservation") && !path.equals("/api/customer/reservations/bulk");
+            case "DELETE" -> !CANCEL_PATH.matcher(path).matches();
+            default -> true;
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getContentLengthLong() > maxBodySize ? null
+                : request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body == null || body.length > maxBodySize) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests sent with an " + HEADER + " may have at most " + maxBodySize + " bytes of body");
+            return;
+        }
+        String fingerprint = fingerprint(request, body);
+
+        IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+        switch (claim.outcome()) {
+            case REPLAY -> {
+                log.debug("Replaying the stored response for {} {}", request.getMethod(), request.getRequestURI());
+                replay(response, claim.response());
+                return;
+            }
+            case IN_PROGRESS -> {
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " is still in progress");
+                return;
+            }
+            case MISMATCH -> {
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "This " + HEADER + " was already used for a different request");
+                return;
+            }
+            case APPLIED -> {
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " was already applied, but its response was not kept");
+                return;
+            }
+            case ACQUIRED -> {
+            }
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            request.setAttribute(KEY_ATTRIBUTE, key);
+            try {
+                chain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+            } finally {
+                request.removeAttribute(KEY_ATTRIBUTE);
+            }
+            int status = responseWrapper.getStatus();
+            if (status < 500 && responseWrapper.getHeader(HttpHeaders.RETRY_AFTER) == null) {
+                completed = complete(key, fingerprint, new IdempotencyStore.StoredResponse(status,
+                        responseWrapper.getContentType(), responseWrapper.getContentAsByteArray()));
+            }
+        } finally {
+            if (!completed) {
+                // Keeps the key if the request's changes committed
+                store.release(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Stores the outcome. The request has already run, so a failure here is logged and the response still sent.
+     */
+    private boolean complete(String key, String fingerprint, IdempotencyStore.StoredResponse response) {
+        try {
+            store.complete(key, fingerprint, response);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not store the response for an {} key; retries will not be replayed.", HEADER, e);
+            return false;
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(body);
+            return request.getMethod() + " " + request.getRequestURI() + " " + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    // Same body as GlobalExceptionHandler's; these requests never reach the controllers
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String message) throws IOException {
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", LocalDateTime.now().toString());
+        errorDetails.put("status", status.value());
+        errorDetails.put("error", status.getReasonPhrase());
+        errorDetails.put("message", message);
+        errorDetails.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorDetails);
+    }
+
+    /**
+     * Serves the body already read for the fingerprint to the rest of the chain.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once and then read completely
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
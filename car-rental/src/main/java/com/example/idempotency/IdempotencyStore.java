@@ -0,0 +1,145 @@
+package com.example.idempotency;
+
+import com.example.models.IdempotencyKey;
+import com.example.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Outcomes of requests sent with an {@code Idempotency-Key}, kept in the {@code idempotency_keys} table so that
+ * every instance sees them and they survive a restart. A key is claimed by inserting its row before the request
+ * runs, so a duplicate arriving meanwhile, at this instance or another, is told so instead of running the request
+ * a second time.
+ * <p>
+ * The key is {@link #markApplied marked} inside each transaction that writes on the request's behalf (see
+ * {@link IdempotencyTransactionListener}), so once those changes have committed the key stays taken even if storing the
+ * response fails or the instance stops first. A retry then learns that its request was already applied instead of
+ * running it again.
+ * <p>
+ * Outcomes expire {@code car-rental.idempotency.ttl} after they were stored and are purged every
+ * {@code car-rental.idempotency.purge-interval}; the number purged is published as {@code idempotency.keys.purged}.
+ * The same run then evicts the oldest finished keys until at most {@code car-rental.idempotency.max-keys} rows are
+ * left, publishing the number as {@code idempotency.keys.evicted}, so a burst of keys cannot grow the table without
+ * bound before they expire.
+ * A claim that neither finished nor was applied after {@code car-rental.idempotency.claim-timeout}, because the
+ * instance running it went away, may be claimed again.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private final IdempotencyKeyRepository repository;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final long maxKeys;
+    private final Counter purged;
+    private final Counter evicted;
+
+    public IdempotencyStore(IdempotencyKeyRepository repository,
+                            @Value("${car-rental.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${car-rental.idempotency.claim-timeout:5m}") Duration claimTimeout,
+                            @Value("${car-rental.idempotency.max-keys:100000}") long maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.maxKeys = maxKeys;
+        this.purged = meterRegistry.counter("idempotency.keys.purged");
+        this.evicted = meterRegistry.counter("idempotency.keys.evicted");
+    }
+
+    /**
+     * Claims {@code key} for a request identified by {@code fingerprint}, unless the key is already known. Only a
+     * {@link Claim.Outcome#ACQUIRED} claim lets the request run, and its caller must then either
+     * {@link #complete} or {@link #release} the key.
+     */
+    public Claim claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.deleteIfStale(key, now, now.minus(claimTimeout));
+        Optional<IdempotencyKey> existing = repository.findById(key);
+        if (existing.isEmpty()) {
+            try {
+                repository.insertClaim(key, fingerprint, now, now.plus(ttl));
+                return new Claim(Claim.Outcome.ACQUIRED, null);
+            } catch (DataIntegrityViolationException e) {
+                // Another request claimed the key since the read above
+                existing = repository.findById(key);
+            }
+        }
+
+        if (existing.isEmpty()) {
+            // That request failed and was released meanwhile; a later retry may claim the key
+            return new Claim(Claim.Outcome.IN_PROGRESS, null);
+        }
+        if (!existing.get().getFingerprint().equals(fingerprint)) {
+            return new Claim(Claim.Outcome.MISMATCH, null);
+        }
+        if (existing.get().getStatus() == null) {
+            boolean responseLost = existing.get().getAppliedAt() != null
+                    && existing.get().getClaimedAt().isBefore(now.minus(claimTimeout));
+            return new Claim(responseLost ? Claim.Outcome.APPLIED : Claim.Outcome.IN_PROGRESS, null);
+        }
+        return new Claim(Claim.Outcome.REPLAY, new StoredResponse(existing.get().getStatus(),
+                existing.get().getContentType(), existing.get().getBody()));
+    }
+
+    /**
+     * Records in the current transaction that the request holding {@code key} changed data.
+     */
+    public void markApplied(String key) {
+        repository.markApplied(key, LocalDateTime.now());
+    }
+
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        repository.complete(key, fingerprint, response.status(), response.contentType(), response.body(),
+                LocalDateTime.now().plus(ttl));
+    }
+
+    /**
+     * Forgets a claimed key whose request did not reach a final outcome, so that it can be retried. A key whose
+     * request was applied is kept.
+     */
+    public void release(String key) {
+        repository.deleteUnapplied(key);
+    }
+
+    @Scheduled(initialDelayString = "${car-rental.idempotency.purge-interval:PT10M}",
+            fixedDelayString = "${car-rental.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int count = repository.deleteExpired(LocalDateTime.now());
+        purged.increment(count);
+        log.debug("Purged {} expired idempotency keys.", count);
+
+        long excess = repository.count() - maxKeys;
+        if (excess > 0) {
+            int evictedCount = repository.deleteOldestCompleted(excess);
+            evicted.increment(evictedCount);
+            log.info("Evicted {} idempotency keys to stay within {} keys.", evictedCount, maxKeys);
+        }
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+
+        public enum Outcome {
+            ACQUIRED,
+            REPLAY,
+            IN_PROGRESS,
+            MISMATCH,
+            /**
+             * The request was applied, but its response was never stored.
+             */
+            APPLIED
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Marks the key of a request sent with an {@value IdempotencyFilter#HEADER} as applied in each read-write transaction
+ * the request runs, right before it commits, so the mark commits or rolls back with the request's changes. The
+ * {@link IdempotencyFilter} leaves the key on the request while the request runs; transactions started anywhere
+ * else, by schedulers or other threads, carry no key and are left alone, and the services never see the key at all.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyTransactionListener implements TransactionExecutionListener {
+    private final IdempotencyStore store;
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isNewTransaction() || transaction.isReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object key = request == null ? null
+                : request.getAttribute(IdempotencyFilter.KEY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (key instanceof String appliedKey) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    store.markApplied(appliedKey);
+                }
+            });
+        }
+    }
+}
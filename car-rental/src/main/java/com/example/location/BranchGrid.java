@@ -0,0 +1,156 @@
+package com.example.location;
+
+import com.example.models.Branch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Branches bucketed into a grid of latitude/longitude cells, for finding those within a radius of a point without
+ * measuring the distance to every one. A query visits only the cells overlapping the circle's bounding box,
+ * wrapping across the antimeridian, and measures great-circle distances to the branches in them. A grid is immutable
+ * once compiled and safe to share between threads; new branches mean a new grid.
+ */
+public final class BranchGrid {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double MAX_RADIUS_KM = 1000;
+    public static final BranchGrid EMPTY = new BranchGrid(1, Map.of(), List.of());
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final Map<Long, Site[]> cells;
+    private final List<Site> sites;
+
+    private BranchGrid(double cellDegrees, Map<Long, Site[]> cells, List<Site> sites) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        this.cells = cells;
+        this.sites = sites;
+    }
+
+    /**
+     * @param cellDegrees side of a cell; about the radius of a typical query keeps the cells visited to a handful
+     */
+    public static BranchGrid compile(List<Branch> branches, double cellDegrees) {
+        if (!(cellDegrees > 0) || cellDegrees > 90) {
+            throw new IllegalArgumentException("Grid cells must be between 0 and 90 degrees");
+        }
+        BranchGrid shape = new BranchGrid(cellDegrees, Map.of(), List.of());
+        Map<Long, List<Site>> byCell = new HashMap<>();
+        List<Site> sites = new ArrayList<>(branches.size());
+        for (Branch branch : branches) {
+            Site site = new Site(branch.getId(), branch.getName(), branch.getLatitude(), branch.getLongitude());
+            sites.add(site);
+            byCell.computeIfAbsent(shape.cell(shape.row(site.latitude()), shape.column(site.longitude())),
+                    cell -> new ArrayList<>()).add(site);
+        }
+        Map<Long, Site[]> cells = new HashMap<>();
+        byCell.forEach((cell, cellSites) -> cells.put(cell, cellSites.toArray(Site[]::new)));
+        return new BranchGrid(cellDegrees, Map.copyOf(cells), List.copyOf(sites));
+    }
+
+    /**
+     * The branches within {@code radiusKm} of the point, nearest first and by id among equally near ones.
+     */
+    public List<Match> within(double latitude, double longitude, double radiusKm) {
+        checkCoordinates(latitude, longitude);
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + MAX_RADIUS_KM + " km");
+        }
+        List<Match> matches = new ArrayList<>();
+        double latitudeSpan = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        int fromRow = row(Math.max(-90, latitude - latitudeSpan));
+        int toRow = row(Math.min(90, latitude + latitudeSpan));
+        int columnSpan = columnSpan(latitude, latitudeSpan);
+        int width = Math.min(columns, 2 * columnSpan + 1);
+        if ((long) (toRow - fromRow + 1) * width >= cells.size()) {
+            // A wide circle covers more cells than there are occupied ones
+            sites.forEach(site -> match(site, latitude, longitude, radiusKm, matches));
+        } else {
+            int first = column(longitude) - columnSpan;
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int offset = 0; offset < width; offset++) {
+                    Site[] cellSites = cells.get(cell(row, Math.floorMod(first + offset, columns)));
+                    if (cellSites != null) {
+                        for (Site site : cellSites) {
+                            match(site, latitude, longitude, radiusKm, matches);
+                        }
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::distanceKm).thenComparing(Match::branchId));
+        return matches;
+    }
+
+    public int size() {
+        return sites.size();
+    }
+
+    /**
+     * Great-circle distance between two points, by the haversine formula.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+    }
+
+    private static void match(Site site, double latitude, double longitude, double radiusKm, List<Match> matches) {
+        double distance = distanceKm(latitude, longitude, site.latitude(), site.longitude());
+        if (distance <= radiusKm) {
+            matches.add(new Match(site.id(), site.name(), distance));
+        }
+    }
+
+    /**
+     * Cells to visit either side of the center's column: enough to cover the widest longitude the circle reaches,
+     * or every column when it contains a pole.
+     */
+    private int columnSpan(double latitude, double latitudeSpan) {
+        if (Math.abs(latitude) + latitudeSpan >= 90) {
+            return columns / 2;
+        }
+        double sin = Math.sin(Math.toRadians(latitudeSpan)) / Math.cos(Math.toRadians(latitude));
+        if (sin >= 1) {
+            return columns / 2;
+        }
+        double longitudeSpan = Math.toDegrees(Math.asin(sin));
+        return Math.min(columns / 2, (int) Math.ceil(longitudeSpan / cellDegrees));
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, (int) Math.floor((latitude + 90) / cellDegrees));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private long cell(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    /**
+     * A branch within the radius of a query and its distance from the query's point.
+     */
+    public record Match(String branchId, String name, double distanceKm) {
+    }
+
+    private record Site(String id, String name, double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.location;
+
+import com.example.models.Branch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Holds the current {@link BranchGrid}. The grid is swapped as a whole when branches change, so a caller that needs
+ * several lookups against the same branches should take {@link #grid()} once.
+ */
+@Component
+public class BranchLocator {
+    private final double cellDegrees;
+    private volatile BranchGrid grid = BranchGrid.EMPTY;
+
+    public BranchLocator(@Value("${car-rental.branches.grid-cell-degrees:0.5}") double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public BranchGrid grid() {
+        return grid;
+    }
+
+    public BranchGrid compile(List<Branch> branches) {
+        return BranchGrid.compile(branches, cellDegrees);
+    }
+
+    public void install(BranchGrid grid) {
+        this.grid = grid;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns {@link io.micrometer.core.annotation.Timed @Timed} on the service classes into timers. Every public service
+ * method is recorded as {@value #SERVICE_TIMER}, tagged with its class and method; the histogram and percentiles
+ * for it, for HTTP requests and for connection-pool waits are configured in {@code application.properties}.
+ */
+@Configuration
+public class MetricsConfiguration {
+    public static final String SERVICE_TIMER = "service.method";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
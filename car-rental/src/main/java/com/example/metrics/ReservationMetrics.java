@@ -0,0 +1,55 @@
+package com.example.metrics;
+
+import com.example.concurrency.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Business counters for the booking flow, tagged with the booking path ({@code claim}, {@code bulk},
+ * {@code legacy} or {@code admin}):
+ * <ul>
+ *     <li>{@code reservations.booked}, counted once the booking commits, so retried attempts count once;</li>
+ *     <li>{@code reservations.cancelled}, likewise on commit, tagged with who cancelled;</li>
+ *     <li>{@code reservations.conflicts}, requests refused because the car was not bookable or the window was
+ *     taken, tagged with the reason.</li>
+ * </ul>
+ * Optimistic-locking conflicts are counted separately by {@link com.example.concurrency.ConflictRetryPolicy}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public enum Conflict {
+        UNAVAILABLE,
+        OVERLAP
+    }
+
+    public void booked(String path, long reservations) {
+        if (reservations > 0) {
+            TransactionHooks.afterCommit(() -> Counter.builder("reservations.booked")
+                    .tag("path", path)
+                    .register(meterRegistry)
+                    .increment(reservations));
+        }
+    }
+
+    public void cancelled(String by) {
+        TransactionHooks.afterCommit(() -> Counter.builder("reservations.cancelled")
+                .tag("by", by)
+                .register(meterRegistry)
+                .increment());
+    }
+
+    public void conflict(String path, Conflict reason) {
+        Counter.builder("reservations.conflicts")
+                .tag("path", path)
+                .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+}
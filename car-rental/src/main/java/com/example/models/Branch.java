@@ -0,0 +1,24 @@
+package com.example.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rental location. Cars name the branch they are kept at; coordinates are WGS84 degrees.
+ */
+@Entity
+@Table(name = "branches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Branch {
+    @Id
+    private String id;
+    private String name;
+    private double latitude;
+    private double longitude;
+}
@@ -1,18 +1,31 @@
 package com.example.models;
 
+import com.example.cache.CarCacheConfiguration;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "cars")
+@Table(name = "cars", indexes = {
+        @Index(name = "idx_cars_status", columnList = "car_status"),
+        @Index(name = "idx_cars_status_type", columnList = "car_status, car_type"),
+        @Index(name = "idx_cars_rate_id", columnList = "rate_per_hour, id"),
+        @Index(name = "idx_cars_branch", columnList = "branch_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CarCacheConfiguration.CAR_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,6 +45,12 @@ public class Car {
     }
     @Id
     private String id;
+    /**
+     * Null on a car that was never saved, and on admin requests from clients that do not send it; see
+     * {@code AdminService#updateCarDetails}.
+     */
+    @Version
+    private Long version;
     private String model;
     private String brand;
     private double ratePerHour;
@@ -39,6 +58,10 @@ public class Car {
     private CarStatus carStatus;
     @Enumerated(EnumType.STRING)
     private CarType carType;
+    /**
+     * The {@link Branch} the car is kept at, or null while it is not assigned to one.
+     */
+    private String branchId;
 
     public Car (String id,String model, String brand, CarStatus carStatus, double ratePerHour,CarType carType) {
         this.id=id;
@@ -53,8 +76,15 @@ public class Car {
         return carStatus == CarStatus.AVAILABLE;
     }
 
+    /**
+     * Whether the car can take new bookings at all. A reserved car can still be booked for other time windows.
+     */
+    public boolean isBookable() {
+        return carStatus == CarStatus.AVAILABLE || carStatus == CarStatus.RESERVED;
+    }
+
     public void reserve() {
-        if (!isAvailable()) {
+        if (!isBookable()) {
             throw new IllegalStateException("Car is not available");
         }
         this.carStatus = CarStatus.RESERVED;
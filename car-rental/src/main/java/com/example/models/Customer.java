@@ -1,6 +1,7 @@
 package com.example.models;
 
-import jakarta.persistence.CascadeType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -19,7 +20,15 @@ import java.util.List;
 public class Customer extends User{
     private String licenseNumber;
 
-    @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL)
+    /**
+     * Number of CONFIRMED reservations. Booking and cancellation adjust the column with a single statement, never
+     * through the entity, so a loaded customer shows the count as of its loading.
+     */
+    @Column(name = "active_reservations", updatable = false)
+    private int activeReservations;
+
+    @JsonIgnore
+    @OneToMany(mappedBy = "customer")
     private List<Reservation> reservationList;
 
 
@@ -45,8 +54,7 @@ public class Customer extends User{
     }
 
     public boolean hasActiveReservations() {
-        return reservationList.stream()
-                .anyMatch(r -> r.getStatus() == Reservation.ReservationStatus.CONFIRMED);
+        return activeReservations > 0;
     }
 
 }
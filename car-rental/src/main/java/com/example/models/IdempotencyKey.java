@@ -0,0 +1,48 @@
+package com.example.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A key sent in an {@code Idempotency-Key} header and, once its request has finished, the response to replay. Rows
+ * are written through {@link com.example.repository.IdempotencyKeyRepository}'s statements only; while the request
+ * runs, {@code status} is null. {@code appliedAt} is set in the same transaction as the booking or cancellation the
+ * request made, so a key whose changes committed is never handed out again, even if its response was not stored.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 600)
+    private String fingerprint;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    private Integer status;
+    private String contentType;
+
+    @Lob
+    @Column(name = "response_body")
+    private byte[] body;
+}
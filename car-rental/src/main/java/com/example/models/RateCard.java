@@ -0,0 +1,50 @@
+package com.example.models;
+
+import com.example.id.TimeOrderedId;
+import com.example.id.UuidStringJavaType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JavaType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Prices of one car type, or of one car, from {@code effectiveFrom} until a later card of the same scope takes
+ * over. Cards are never edited: a price change is a new card, so every reservation can be traced to the card that
+ * priced it. Amounts are in cents; a null cap means none.
+ */
+@Entity
+@Table(name = "rate_cards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateCard {
+    /**
+     * Time-ordered, so of two cards effective from the same instant the one created last wins.
+     */
+    @Id
+    @TimeOrderedId
+    @JavaType(UuidStringJavaType.class)
+    private String id;
+
+    /**
+     * Set for cards of a whole car type; exactly one of {@code carType} and {@code carId} is set.
+     */
+    @Enumerated(EnumType.STRING)
+    private Car.CarType carType;
+    private String carId;
+
+    @Column(name = "effective_from", nullable = false)
+    private LocalDateTime effectiveFrom;
+    private long hourlyCents;
+    private Long dailyCapCents;
+    private Long weeklyCapCents;
+    private long minimumChargeCents;
+}
@@ -1,45 +1,61 @@
 package com.example.models;
 
+import com.example.id.TimeOrderedId;
+import com.example.id.UuidStringJavaType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JavaType;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_car_window", columnList = "car_id, start_time, end_time"),
+        @Index(name = "idx_reservations_start_id", columnList = "start_time, reservation_id"),
+        @Index(name = "idx_reservations_end", columnList = "end_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reservation implements Serializable {
+    /**
+     * Time-ordered, so new rows append to the primary key index; stored as a native UUID, exposed as its text.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
+    @JavaType(UuidStringJavaType.class)
     private String reservationId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id")
     private Car car;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
 
-    private String startTime;
-    private String endTime;
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
     @Enumerated(EnumType.STRING)
     private ReservationStatus status;
-    private double totalCost;
+    private long totalCostCents;
+    @Version
+    private long version;
 
     public enum ReservationStatus {
         PENDING,
@@ -55,26 +71,16 @@ public class Reservation implements Serializable {
         this.car.reserve();
     }
 
+    /**
+     * Marks the reservation cancelled. It stays in the customer's history, so the customer side is not touched
+     * and never has to be loaded.
+     */
     public void cancel() {
         if (status == ReservationStatus.CANCELLED) {
             throw new IllegalStateException("Reservation already cancelled");
         }
         this.status = ReservationStatus.CANCELLED;
         this.car.makeAvailable();
-
-        if (null != customer && null != customer.getReservationList()) {
-            if (!customer.getReservationList().isEmpty()) {
-                customer.getReservationList().remove(this);
-            }
-        }
-
     }
 
-    public double calculateTotalCost() {
-        long hours = ChronoUnit.HOURS.between(LocalDateTime.parse(startTime), LocalDateTime.parse(endTime));
-        if (hours == 0) hours = 1;
-        double cost = hours * car.getRatePerHour();
-        this.totalCost =cost;
-        return this.totalCost;
-    }
 }
@@ -0,0 +1,31 @@
+package com.example.pricing;
+
+import com.example.models.Car;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Prices reservations against the current {@link RateTable}. The table is swapped as a whole when rate cards
+ * change, so a caller that needs several prices from the same cards should take {@link #rateTable()} once.
+ */
+@Component
+public class PricingEngine {
+    private volatile RateTable rateTable = RateTable.EMPTY;
+
+    public RateTable rateTable() {
+        return rateTable;
+    }
+
+    public void install(RateTable rateTable) {
+        this.rateTable = rateTable;
+    }
+
+    public long quote(Car car, LocalDateTime start, LocalDateTime end) {
+        return quote(car.getId(), car.getCarType(), car.getRatePerHour(), start, end);
+    }
+
+    public long quote(String carId, Car.CarType carType, double ratePerHour, LocalDateTime start, LocalDateTime end) {
+        return rateTable.price(carId, carType, ratePerHour, start, end);
+    }
+}
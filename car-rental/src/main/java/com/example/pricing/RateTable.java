@@ -0,0 +1,121 @@
+package com.example.pricing;
+
+import com.example.models.Car;
+import com.example.models.RateCard;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate cards compiled for lookup. Each car, and each car type, gets its cards as a sorted array of effective
+ * instants next to an array of {@link Tariff}s, so finding the card in effect is one binary search and pricing
+ * allocates nothing. A table is immutable once compiled and safe to share between threads; new cards mean a new
+ * table.
+ * <p>
+ * A reservation is priced by the card in effect when it starts: the car's own card if it has one, otherwise its
+ * type's, otherwise the car's hourly rate without caps.
+ */
+public final class RateTable {
+    public static final RateTable EMPTY = new RateTable(Map.of(), Map.of(), 0);
+
+    private final Map<String, Schedule> byCar;
+    private final Map<Car.CarType, Schedule> byType;
+    private final int cards;
+
+    private RateTable(Map<String, Schedule> byCar, Map<Car.CarType, Schedule> byType, int cards) {
+        this.byCar = byCar;
+        this.byType = byType;
+        this.cards = cards;
+    }
+
+    /**
+     * Compiles cards in {@code (effectiveFrom, id)} order; of two cards of the same scope and instant the later wins.
+     */
+    public static RateTable compile(List<RateCard> cards) {
+        Map<String, List<RateCard>> byCar = new HashMap<>();
+        Map<Car.CarType, List<RateCard>> byType = new EnumMap<>(Car.CarType.class);
+        for (RateCard card : cards) {
+            if (card.getCarId() != null) {
+                byCar.computeIfAbsent(card.getCarId(), id -> new ArrayList<>()).add(card);
+            } else if (card.getCarType() != null) {
+                byType.computeIfAbsent(card.getCarType(), type -> new ArrayList<>()).add(card);
+            }
+        }
+        Map<String, Schedule> carSchedules = new HashMap<>();
+        byCar.forEach((carId, carCards) -> carSchedules.put(carId, Schedule.of(carCards)));
+        Map<Car.CarType, Schedule> typeSchedules = new EnumMap<>(Car.CarType.class);
+        byType.forEach((type, typeCards) -> typeSchedules.put(type, Schedule.of(typeCards)));
+        return new RateTable(Map.copyOf(carSchedules), Map.copyOf(typeSchedules), cards.size());
+    }
+
+    /**
+     * Price in cents of renting a car from {@code start} to {@code end}, for the whole hours elapsed and at least one.
+     */
+    public long price(String carId, Car.CarType carType, double ratePerHour, LocalDateTime start, LocalDateTime end) {
+        Tariff tariff = find(carId, carType, start);
+        long hours = Math.max(1, ChronoUnit.HOURS.between(start, end));
+        return tariff != null ? tariff.price(hours) : hours * baseCents(ratePerHour);
+    }
+
+    public Tariff tariff(String carId, Car.CarType carType, double ratePerHour, LocalDateTime at) {
+        Tariff tariff = find(carId, carType, at);
+        return tariff != null ? tariff : Tariff.hourly(baseCents(ratePerHour));
+    }
+
+    public int size() {
+        return cards;
+    }
+
+    private Tariff find(String carId, Car.CarType carType, LocalDateTime at) {
+        long instant = at.toEpochSecond(ZoneOffset.UTC);
+        Schedule schedule = carId == null ? null : byCar.get(carId);
+        Tariff tariff = schedule == null ? null : schedule.at(instant);
+        if (tariff == null && carType != null) {
+            schedule = byType.get(carType);
+            tariff = schedule == null ? null : schedule.at(instant);
+        }
+        return tariff;
+    }
+
+    private static long baseCents(double ratePerHour) {
+        return Math.round(ratePerHour * 100);
+    }
+
+    private record Schedule(long[] effectiveFrom, Tariff[] tariffs) {
+
+        static Schedule of(List<RateCard> cards) {
+            long[] effectiveFrom = new long[cards.size()];
+            Tariff[] tariffs = new Tariff[cards.size()];
+            int size = 0;
+            for (RateCard card : cards) {
+                long instant = card.getEffectiveFrom().toEpochSecond(ZoneOffset.UTC);
+                if (size == 0 || effectiveFrom[size - 1] != instant) {
+                    size++;
+                }
+                effectiveFrom[size - 1] = instant;
+                tariffs[size - 1] = new Tariff(card.getHourlyCents(), capOrNone(card.getDailyCapCents()),
+                        capOrNone(card.getWeeklyCapCents()), card.getMinimumChargeCents());
+            }
+            return new Schedule(Arrays.copyOf(effectiveFrom, size), Arrays.copyOf(tariffs, size));
+        }
+
+        Tariff at(long instant) {
+            int index = Arrays.binarySearch(effectiveFrom, instant);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < 0 ? null : tariffs[index];
+        }
+
+        private static long capOrNone(Long cap) {
+            return cap == null ? Tariff.NO_CAP : cap;
+        }
+    }
+}
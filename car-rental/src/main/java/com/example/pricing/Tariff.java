@@ -0,0 +1,28 @@
+package com.example.pricing;
+
+/**
+ * The prices of one rate card, in cents. A rental is charged by the hour, but no 24 hours cost more than the daily
+ * cap and no 168 hours more than the weekly cap; the total is at least the minimum charge. Caps are
+ * {@link #NO_CAP} when the card has none.
+ */
+public record Tariff(long hourlyCents, long dailyCapCents, long weeklyCapCents, long minimumChargeCents) {
+    public static final long NO_CAP = Long.MAX_VALUE;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int HOURS_PER_WEEK = 7 * HOURS_PER_DAY;
+
+    /**
+     * An hourly price without caps or minimum, for cars that no rate card covers.
+     */
+    public static Tariff hourly(long hourlyCents) {
+        return new Tariff(hourlyCents, NO_CAP, NO_CAP, 0);
+    }
+
+    public long price(long hours) {
+        long day = Math.min(HOURS_PER_DAY * hourlyCents, dailyCapCents);
+        long week = Math.min(7 * day, weeklyCapCents);
+        long rest = hours % HOURS_PER_WEEK;
+        long lastWeek = Math.min((rest / HOURS_PER_DAY) * day
+                + Math.min((rest % HOURS_PER_DAY) * hourlyCents, dailyCapCents), weeklyCapCents);
+        return Math.max(hours / HOURS_PER_WEEK * week + lastWeek, minimumChargeCents);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.readmodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Cars sorted by id, as an immutable map that is cheap to derive new versions from. The cars are split into chunks
+ * of at most {@value #MAX_CHUNK}; a {@link Builder} copies the list of chunks and each chunk it changes, once per
+ * batch, and shares every other chunk with the table it started from. A batch touching a few cars of a million-car
+ * fleet therefore copies a few thousand references rather than the whole fleet.
+ */
+final class CarTable {
+    static final int MAX_CHUNK = 1024;
+    static final CarTable EMPTY = new CarTable(List.of(), 0);
+
+    private final List<Chunk> chunks;
+    private final int size;
+
+    private CarTable(List<Chunk> chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    CarView get(String id) {
+        int chunk = chunkFor(chunks, id);
+        return chunk < 0 ? null : chunks.get(chunk).get(id);
+    }
+
+    /**
+     * Hands the cars to {@code visitor} in id order until it returns false.
+     */
+    void scan(Predicate<CarView> visitor) {
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                if (!visitor.test(chunk.cars[i])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * The last chunk whose first id is not after {@code id}, or -1 when {@code id} sorts before every chunk.
+     */
+    private static int chunkFor(List<Chunk> chunks, String id) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).ids[0].compareTo(id) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Changes to a table, applied in place to the chunks it has copied. Not thread-safe and not to be used after
+     * {@link #build()}.
+     */
+    static final class Builder {
+        private final List<Chunk> chunks;
+        private final Set<Chunk> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int size;
+
+        private Builder(CarTable table) {
+            this.chunks = new ArrayList<>(table.chunks);
+            this.size = table.size;
+        }
+
+        CarView get(String id) {
+            int chunk = chunkFor(chunks, id);
+            return chunk < 0 ? null : chunks.get(chunk).get(id);
+        }
+
+        void put(CarView car) {
+            if (chunks.isEmpty()) {
+                Chunk chunk = new Chunk(new String[MAX_CHUNK], new CarView[MAX_CHUNK], 0);
+                chunk.insert(0, car);
+                chunks.add(chunk);
+                owned.add(chunk);
+                size++;
+                return;
+            }
+            int index = Math.max(0, chunkFor(chunks, car.id()));
+            Chunk chunk = own(index);
+            int at = Arrays.binarySearch(chunk.ids, 0, chunk.size, car.id());
+            if (at >= 0) {
+                chunk.cars[at] = car;
+                return;
+            }
+            chunk.insert(-at - 1, car);
+            size++;
+            if (chunk.size == MAX_CHUNK) {
+                Chunk upper = chunk.split();
+                chunks.add(index + 1, upper);
+                owned.add(upper);
+            }
+        }
+
+        void remove(String id) {
+            int index = chunkFor(chunks, id);
+            if (index < 0 || chunks.get(index).get(id) == null) {
+                return;
+            }
+            Chunk chunk = own(index);
+            chunk.remove(Arrays.binarySearch(chunk.ids, 0, chunk.size, id));
+            size--;
+            if (chunk.size == 0) {
+                chunks.remove(index);
+            }
+        }
+
+        CarTable build() {
+            return new CarTable(List.copyOf(chunks), size);
+        }
+
+        private Chunk own(int index) {
+            Chunk chunk = chunks.get(index);
+            if (!owned.contains(chunk)) {
+                chunk = chunk.copy();
+                chunks.set(index, chunk);
+                owned.add(chunk);
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Up to {@value #MAX_CHUNK} cars with ascending ids. Only the builder that created or copied a chunk changes it,
+     * and only before the table holding it is published.
+     */
+    private static final class Chunk {
+        private final String[] ids;
+        private final CarView[] cars;
+        private int size;
+
+        private Chunk(String[] ids, CarView[] cars, int size) {
+            this.ids = ids;
+            this.cars = cars;
+            this.size = size;
+        }
+
+        CarView get(String id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            return at >= 0 ? cars[at] : null;
+        }
+
+        Chunk copy() {
+            return new Chunk(Arrays.copyOf(ids, MAX_CHUNK), Arrays.copyOf(cars, MAX_CHUNK), size);
+        }
+
+        void insert(int at, CarView car) {
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(cars, at, cars, at + 1, size - at);
+            ids[at] = car.id();
+            cars[at] = car;
+            size++;
+        }
+
+        void remove(int at) {
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(cars, at + 1, cars, at, size - at - 1);
+            size--;
+            ids[size] = null;
+            cars[size] = null;
+        }
+
+        /**
+         * Moves the upper half of this chunk into a new one.
+         */
+        Chunk split() {
+            int half = size / 2;
+            Chunk upper = new Chunk(new String[MAX_CHUNK], new CarView[MAX_CHUNK], size - half);
+            System.arraycopy(ids, half, upper.ids, 0, upper.size);
+            System.arraycopy(cars, half, upper.cars, 0, upper.size);
+            Arrays.fill(ids, half, size, null);
+            Arrays.fill(cars, half, size, null);
+            size = half;
+            return upper;
+        }
+    }
+}
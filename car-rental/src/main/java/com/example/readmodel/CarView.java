@@ -0,0 +1,131 @@
+package com.example.readmodel;
+
+import com.example.models.Car;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A car as the read model holds it: its details as of row {@code version} and its confirmed bookings, ordered by
+ * start. Immutable; a change makes a new view.
+ * <p>
+ * Each booking carries the version its reservation row had when it was booked. {@code released} remembers the
+ * bookings released since the view was loaded, at the reservation version of the release, until their window has
+ * ended, so that a booking change arriving after the release of the same reservation is recognised as stale.
+ */
+public record CarView(String id, long version, String brand, String model, Car.CarType carType,
+                      Car.CarStatus carStatus, double ratePerHour, String branchId, List<Booking> bookings,
+                      @JsonIgnore List<Booking> released) {
+
+    public record Booking(String reservationId, long version, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    public CarView {
+        bookings = List.copyOf(bookings);
+        released = List.copyOf(released);
+    }
+
+    public boolean isBookable() {
+        return carStatus == Car.CarStatus.AVAILABLE || carStatus == Car.CarStatus.RESERVED;
+    }
+
+    /**
+     * Whether no booking overlaps the half-open window {@code [start, end)}. Bookings never overlap each other, so
+     * only the last one starting before {@code end} can.
+     */
+    public boolean isFree(LocalDateTime start, LocalDateTime end) {
+        int low = 0;
+        int high = bookings.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bookings.get(mid).startTime().isBefore(end)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high < 0 || !bookings.get(high).endTime().isAfter(start);
+    }
+
+    CarView withDetails(FleetChange.CarSaved saved) {
+        return new CarView(id, saved.version(), saved.brand(), saved.model(), saved.carType(), saved.carStatus(),
+                saved.ratePerHour(), saved.branchId(), bookings, released);
+    }
+
+    CarView withStatus(long version, Car.CarStatus status) {
+        return new CarView(id, version, brand, model, carType, status, ratePerHour, branchId, bookings, released);
+    }
+
+    /**
+     * This view with {@code booking} added, or replacing the booking of the same reservation; unchanged if the
+     * reservation is already booked or released at a later version.
+     */
+    CarView withBooking(Booking booking) {
+        if (newerThan(bookings, booking) || newerThan(released, booking)) {
+            return this;
+        }
+        List<Booking> updated = new ArrayList<>(bookings.size() + 1);
+        for (Booking existing : bookings) {
+            if (!existing.reservationId().equals(booking.reservationId())) {
+                updated.add(existing);
+            }
+        }
+        int at = 0;
+        while (at < updated.size() && !updated.get(at).startTime().isAfter(booking.startTime())) {
+            at++;
+        }
+        updated.add(at, booking);
+        return new CarView(id, version, brand, model, carType, carStatus, ratePerHour, branchId, updated, released);
+    }
+
+    /**
+     * This view without the booking of {@code release}'s reservation, remembering the release; unchanged if the
+     * reservation is already booked or released at a later version. Releases whose window ended before {@code now}
+     * are forgotten.
+     */
+    CarView withoutBooking(Booking release, LocalDateTime now) {
+        if (newerThan(bookings, release) || newerThan(released, release)) {
+            return this;
+        }
+        List<Booking> updatedBookings = bookings.stream()
+                .filter(booking -> !booking.reservationId().equals(release.reservationId()))
+                .toList();
+        List<Booking> updatedReleased = new ArrayList<>(released.size() + 1);
+        for (Booking existing : released) {
+            if (!existing.reservationId().equals(release.reservationId()) && existing.endTime().isAfter(now)) {
+                updatedReleased.add(existing);
+            }
+        }
+        if (release.endTime().isAfter(now)) {
+            updatedReleased.add(release);
+        }
+        return new CarView(id, version, brand, model, carType, carStatus, ratePerHour, branchId, updatedBookings,
+                updatedReleased);
+    }
+
+    /**
+     * This view without the bookings and releases whose window ended by {@code time}; this very view if none did.
+     */
+    CarView withoutEndedBy(LocalDateTime time) {
+        List<Booking> current = bookings.stream().filter(booking -> booking.endTime().isAfter(time)).toList();
+        List<Booking> recent = released.stream().filter(release -> release.endTime().isAfter(time)).toList();
+        return current.size() == bookings.size() && recent.size() == released.size() ? this
+                : new CarView(id, version, brand, model, carType, carStatus, ratePerHour, branchId, current, recent);
+    }
+
+    static CarView of(FleetChange.CarSaved saved) {
+        return new CarView(saved.id(), saved.version(), saved.brand(), saved.model(), saved.carType(),
+                saved.carStatus(), saved.ratePerHour(), saved.branchId(), List.of(), List.of());
+    }
+
+    private static boolean newerThan(List<Booking> bookings, Booking change) {
+        for (Booking existing : bookings) {
+            if (existing.reservationId().equals(change.reservationId()) && existing.version() > change.version()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
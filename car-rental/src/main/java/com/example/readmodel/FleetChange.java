@@ -0,0 +1,41 @@
+package com.example.readmodel;
+
+import com.example.models.Car;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change to the fleet or its bookings, as published on the {@link FleetChangeStream}. Every change sets
+ * state rather than adjusting it, so replaying one a subscriber already reflects leaves it as it was.
+ * <p>
+ * Changes of separate transactions can reach the subscribers in another order than they committed in, so changes to
+ * a car carry the version the car's row had after the change, and changes to a booking the version its reservation's
+ * row had after the change. A subscriber drops any change older than the version it already holds for that car or
+ * reservation.
+ */
+public sealed interface FleetChange {
+
+    /**
+     * A car was added or its details or status were saved through the entity.
+     */
+    record CarSaved(String id, long version, String brand, String model, Car.CarType carType, Car.CarStatus carStatus,
+                    double ratePerHour, String branchId) implements FleetChange {
+    }
+
+    record CarDeleted(String id) implements FleetChange {
+    }
+
+    /**
+     * A car moved to {@code carStatus} by a statement that bypassed the entity.
+     */
+    record StatusChanged(String carId, long version, Car.CarStatus carStatus) implements FleetChange {
+    }
+
+    record Booked(String carId, String reservationId, long version, LocalDateTime startTime, LocalDateTime endTime)
+            implements FleetChange {
+    }
+
+    record Released(String carId, String reservationId, long version, LocalDateTime startTime, LocalDateTime endTime)
+            implements FleetChange {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.readmodel;
+
+import com.example.models.Car;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts every car inserted, updated or deleted through Hibernate on the {@link FleetChangeStream}: admin edits and
+ * removals, imports, and the car saves of the entity-based booking and cancellation paths. Hibernate calls it only
+ * once the transaction has committed. This is the only Hibernate listener for cars; the read model and the search
+ * index both take their entity changes from the stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetChangeListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private final FleetChangeStream changeStream;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Car.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        saved((String) event.getId(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        saved((String) event.getId(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changeStream.committed(new FleetChange.CarDeleted((String) event.getId()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void saved(String id, EntityPersister persister, Object[] state) {
+        Object version = state[persister.getVersionProperty()];
+        changeStream.committed(new FleetChange.CarSaved(id, version == null ? 0 : (Long) version,
+                (String) state[persister.getPropertyIndex("brand")],
+                (String) state[persister.getPropertyIndex("model")],
+                (Car.CarType) state[persister.getPropertyIndex("carType")],
+                (Car.CarStatus) state[persister.getPropertyIndex("carStatus")],
+                (Double) state[persister.getPropertyIndex("ratePerHour")],
+                (String) state[persister.getPropertyIndex("branchId")]));
+    }
+}
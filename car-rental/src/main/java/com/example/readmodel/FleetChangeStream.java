@@ -0,0 +1,58 @@
+package com.example.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where the write paths report what they changed for the in-memory views of the fleet: the {@link FleetReadModel}
+ * and the search index. Changes emitted inside a transaction are collected and handed to every
+ * {@link FleetChangeSubscriber} together once it commits, in the order they were emitted, and dropped if it rolls
+ * back.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetChangeStream {
+    private final List<FleetChangeSubscriber> subscribers;
+
+    public void emit(FleetChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<FleetChange> changes = (List<FleetChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<FleetChange> collected = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(List.copyOf(collected));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FleetChangeStream.this);
+                }
+            });
+            changes = collected;
+        }
+        changes.add(change);
+    }
+
+    /**
+     * Hands over a change that has already committed, such as one seen by a post-commit listener.
+     */
+    public void committed(FleetChange change) {
+        publish(List.of(change));
+    }
+
+    private void publish(List<FleetChange> changes) {
+        subscribers.forEach(subscriber -> subscriber.accept(changes));
+    }
+}
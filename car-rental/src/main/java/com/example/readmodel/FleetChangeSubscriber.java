@@ -0,0 +1,12 @@
+package com.example.readmodel;
+
+import java.util.List;
+
+/**
+ * Receives the changes on the {@link FleetChangeStream}: the changes of one transaction together, in the order they
+ * were emitted, once it has committed. Called on the committing thread, so it must not block.
+ */
+public interface FleetChangeSubscriber {
+
+    void accept(List<FleetChange> changes);
+}
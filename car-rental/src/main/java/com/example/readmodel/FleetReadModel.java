@@ -0,0 +1,151 @@
+package com.example.readmodel;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory read model of the fleet and its bookings, kept apart from the JPA entities so browsing never takes a
+ * connection or a row lock. Readers take the current {@link FleetSnapshot} without locking; writers never see it.
+ * <p>
+ * Committed changes arrive from {@link FleetChangeStream} and queue up until a single projector thread takes
+ * everything queued, applies it and publishes one new snapshot. Under load that folds many commits into one copy.
+ * The projector starts once {@link FleetReadModelLoader} has loaded the fleet; changes committed meanwhile wait in
+ * the queue and are applied on top, which the set-state, versioned changes make safe. Every
+ * {@code car-rental.readmodel.prune-interval} the projector also drops the bookings that have ended since, so the
+ * model holds current and future bookings only.
+ * <p>
+ * {@code fleet.readmodel.lag} is how long the oldest change not yet visible to readers has been committed, zero
+ * when the model is current; {@code fleet.readmodel.delay} times each batch from commit to publication.
+ */
+@Component
+public class FleetReadModel implements FleetChangeSubscriber, MeterBinder, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(FleetReadModel.class);
+    private final BlockingQueue<Batch> pending = new LinkedBlockingQueue<>();
+    private volatile FleetSnapshot snapshot = FleetSnapshot.EMPTY;
+    private volatile long applyingSince;
+    private volatile boolean pruneDue;
+    private volatile Timer delay;
+    private Thread projector;
+
+    public FleetSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Seconds since the oldest committed change that readers cannot see yet was committed.
+     */
+    public double lagSeconds() {
+        long oldest = applyingSince;
+        Batch waiting = pending.peek();
+        if (waiting != null && (oldest == 0 || waiting.committedAt() - oldest < 0)) {
+            oldest = waiting.committedAt();
+        }
+        return oldest == 0 ? 0 : (System.nanoTime() - oldest) / 1e9;
+    }
+
+    /**
+     * Replaces the model with {@code cars}, then starts applying the changes queued since.
+     */
+    public synchronized void load(Collection<CarView> cars) {
+        snapshot = snapshot.replace(cars, Instant.now());
+        if (projector == null) {
+            projector = new Thread(this::project, "fleet-read-model");
+            projector.setDaemon(true);
+            projector.start();
+        }
+    }
+
+    @Override
+    public void accept(List<FleetChange> changes) {
+        if (!changes.isEmpty()) {
+            pending.add(new Batch(changes, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Has the projector drop the bookings that have ended, after the changes queued so far.
+     */
+    @Scheduled(initialDelayString = "${car-rental.readmodel.prune-interval:PT1H}",
+            fixedDelayString = "${car-rental.readmodel.prune-interval:PT1H}")
+    public void pruneEnded() {
+        pruneDue = true;
+        // An empty batch wakes the projector
+        pending.add(new Batch(List.of(), System.nanoTime()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fleet.readmodel.lag", this, FleetReadModel::lagSeconds)
+                .baseUnit("seconds")
+                .description("Age of the oldest committed change not yet visible in the read model")
+                .register(registry);
+        Gauge.builder("fleet.readmodel.version", this, model -> model.snapshot.version())
+                .register(registry);
+        delay = Timer.builder("fleet.readmodel.delay")
+                .description("Time from commit until a change is visible in the read model")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (projector != null) {
+            projector.interrupt();
+        }
+    }
+
+    private void project() {
+        List<Batch> batches = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batches.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batches);
+            applyingSince = batches.get(0).committedAt();
+            try {
+                List<FleetChange> changes = new ArrayList<>();
+                batches.forEach(batch -> changes.addAll(batch.changes()));
+                if (!changes.isEmpty()) {
+                    snapshot = snapshot.apply(changes, Instant.now());
+                }
+                if (pruneDue) {
+                    pruneDue = false;
+                    snapshot = snapshot.pruneEndedBy(LocalDateTime.now(), Instant.now());
+                }
+                Timer timer = delay;
+                if (timer != null) {
+                    long now = System.nanoTime();
+                    batches.stream()
+                            .filter(batch -> !batch.changes().isEmpty())
+                            .forEach(batch -> timer.record(now - batch.committedAt(), TimeUnit.NANOSECONDS));
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not apply {} change batches to the fleet read model", batches.size(), e);
+            } finally {
+                applyingSince = 0;
+                batches.clear();
+            }
+        }
+    }
+
+    private record Batch(List<FleetChange> changes, long committedAt) {
+    }
+}
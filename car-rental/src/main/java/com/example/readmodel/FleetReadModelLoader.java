@@ -0,0 +1,63 @@
+package com.example.readmodel;
+
+import com.example.models.Car;
+import com.example.models.Reservation;
+import com.example.repository.CarRepository;
+import com.example.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the {@link FleetReadModel} from the cars and the confirmed reservations that have not ended yet once the
+ * application is up. Cars are read in id order and in batches, so the whole fleet is never held as entities at once.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetReadModelLoader {
+    private static final Logger log = LoggerFactory.getLogger(FleetReadModelLoader.class);
+    private static final int BATCH_SIZE = 1000;
+    private final CarRepository carRepository;
+    private final ReservationRepository reservationRepository;
+    private final FleetReadModel readModel;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        Map<String, List<CarView.Booking>> bookings = new HashMap<>();
+        for (ReservationRepository.BookingRow row
+                : reservationRepository.findBookingsEndingAfter(Reservation.ReservationStatus.CONFIRMED,
+                LocalDateTime.now())) {
+            bookings.computeIfAbsent(row.getCarId(), id -> new ArrayList<>())
+                    .add(new CarView.Booking(row.getReservationId(), row.getVersion(), row.getStartTime(),
+                            row.getEndTime()));
+        }
+        bookings.values().forEach(carBookings -> carBookings.sort(Comparator.comparing(CarView.Booking::startTime)));
+
+        List<CarView> cars = new ArrayList<>();
+        String afterId = "";
+        List<Car> batch;
+        do {
+            batch = carRepository.findBatchAfter(afterId, Limit.of(BATCH_SIZE));
+            for (Car car : batch) {
+                cars.add(new CarView(car.getId(), car.getVersion() == null ? 0 : car.getVersion(), car.getBrand(),
+                        car.getModel(), car.getCarType(), car.getCarStatus(), car.getRatePerHour(), car.getBranchId(),
+                        bookings.getOrDefault(car.getId(), List.of()), List.of()));
+            }
+            afterId = batch.isEmpty() ? afterId : batch.get(batch.size() - 1).getId();
+        } while (batch.size() == BATCH_SIZE);
+
+        readModel.load(cars);
+        log.info("Fleet read model loaded with {} cars.", cars.size());
+    }
+}
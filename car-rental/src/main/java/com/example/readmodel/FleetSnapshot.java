@@ -0,0 +1,160 @@
+package com.example.readmodel;
+
+import com.example.dto.FleetViewPage;
+import com.example.models.Car;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * One immutable version of the read model. Everything read from the same snapshot is consistent, and reading takes
+ * no lock; {@link #apply} derives the next version, sharing what the changes leave alone.
+ */
+public final class FleetSnapshot {
+    public static final FleetSnapshot EMPTY = new FleetSnapshot(0, Instant.EPOCH, CarTable.EMPTY);
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final long version;
+    private final Instant asOf;
+    private final CarTable cars;
+
+    private FleetSnapshot(long version, Instant asOf, CarTable cars) {
+        this.version = version;
+        this.asOf = asOf;
+        this.cars = cars;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant asOf() {
+        return asOf;
+    }
+
+    public int size() {
+        return cars.size();
+    }
+
+    public CarView car(String id) {
+        return cars.get(id);
+    }
+
+    /**
+     * Available cars, optionally of one type, in id order.
+     */
+    public FleetViewPage available(Car.CarType carType, int page, int size) {
+        return page(car -> car.carStatus() == Car.CarStatus.AVAILABLE && (carType == null || car.carType() == carType),
+                page, size);
+    }
+
+    /**
+     * Bookable cars, optionally of one type, with no booking overlapping {@code [start, end)}, in id order.
+     */
+    public FleetViewPage free(LocalDateTime start, LocalDateTime end, Car.CarType carType, int page, int size) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Reservation window must have a start before its end");
+        }
+        return page(car -> car.isBookable() && (carType == null || car.carType() == carType) && car.isFree(start, end),
+                page, size);
+    }
+
+    /**
+     * The next version: this one with {@code changes} applied in order, as of {@code asOf}. A change to a car older
+     * than the car's version in this snapshot is skipped, and so is a change to a booking older than its
+     * reservation's version.
+     */
+    FleetSnapshot apply(List<FleetChange> changes, Instant asOf) {
+        CarTable.Builder builder = cars.toBuilder();
+        LocalDateTime now = LocalDateTime.ofInstant(asOf, ZoneId.systemDefault());
+        for (FleetChange change : changes) {
+            apply(builder, change, now);
+        }
+        return new FleetSnapshot(version + 1, asOf, builder.build());
+    }
+
+    /**
+     * The next version, without the bookings that ended by {@code time}; this very snapshot if none did. Only the cars
+     * that had such bookings are copied.
+     */
+    FleetSnapshot pruneEndedBy(LocalDateTime time, Instant asOf) {
+        List<CarView> pruned = new ArrayList<>();
+        cars.scan(car -> {
+            CarView current = car.withoutEndedBy(time);
+            if (current != car) {
+                pruned.add(current);
+            }
+            return true;
+        });
+        if (pruned.isEmpty()) {
+            return this;
+        }
+        CarTable.Builder builder = cars.toBuilder();
+        pruned.forEach(builder::put);
+        return new FleetSnapshot(version + 1, asOf, builder.build());
+    }
+
+    /**
+     * The next version, holding exactly {@code views}.
+     */
+    FleetSnapshot replace(Collection<CarView> views, Instant asOf) {
+        CarTable.Builder builder = CarTable.EMPTY.toBuilder();
+        views.forEach(builder::put);
+        return new FleetSnapshot(version + 1, asOf, builder.build());
+    }
+
+    private FleetViewPage page(Predicate<CarView> filter, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must not be negative and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<CarView> matches = new ArrayList<>(size + 1);
+        long[] skip = {(long) page * size};
+        cars.scan(car -> {
+            if (filter.test(car)) {
+                if (skip[0] > 0) {
+                    skip[0]--;
+                } else {
+                    matches.add(car);
+                }
+            }
+            return matches.size() <= size;
+        });
+        boolean hasNext = matches.size() > size;
+        return new FleetViewPage(version, asOf, hasNext ? matches.subList(0, size) : matches, hasNext);
+    }
+
+    private static void apply(CarTable.Builder cars, FleetChange change, LocalDateTime now) {
+        if (change instanceof FleetChange.CarSaved saved) {
+            CarView current = cars.get(saved.id());
+            if (current == null) {
+                cars.put(CarView.of(saved));
+            } else if (current.version() <= saved.version()) {
+                cars.put(current.withDetails(saved));
+            }
+        } else if (change instanceof FleetChange.CarDeleted deleted) {
+            cars.remove(deleted.id());
+        } else if (change instanceof FleetChange.StatusChanged statusChanged) {
+            CarView current = cars.get(statusChanged.carId());
+            if (current != null && current.version() <= statusChanged.version()) {
+                cars.put(current.withStatus(statusChanged.version(), statusChanged.carStatus()));
+            }
+        } else if (change instanceof FleetChange.Booked booked) {
+            CarView current = cars.get(booked.carId());
+            if (current != null) {
+                cars.put(current.withBooking(new CarView.Booking(booked.reservationId(), booked.version(),
+                        booked.startTime(), booked.endTime())));
+            }
+        } else if (change instanceof FleetChange.Released released) {
+            CarView current = cars.get(released.carId());
+            if (current != null) {
+                cars.put(current.withoutBooking(new CarView.Booking(released.reservationId(), released.version(),
+                        released.startTime(), released.endTime()), now));
+            }
+        }
+    }
+}
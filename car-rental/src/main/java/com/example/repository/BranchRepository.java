@@ -0,0 +1,9 @@
+package com.example.repository;
+
+import com.example.models.Branch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BranchRepository extends JpaRepository<Branch, String> {
+}
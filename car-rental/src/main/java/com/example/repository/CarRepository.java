@@ -1,11 +1,146 @@
 package com.example.repository;
 
 import com.example.models.Car;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
-public interface CarRepository extends JpaRepository<Car, String> {
+public interface CarRepository extends JpaRepository<Car, String>, CarRepositoryCustom {
+    String CLAIM_QUERY_SPACE = "car_claims";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Car> findByCarStatus(Car.CarStatus carStatus, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Car> findByCarStatusAndCarType(Car.CarStatus carStatus, Car.CarType carType, Pageable pageable);
+
+    Slice<Car> findByCarStatusIn(Collection<Car.CarStatus> carStatuses, Pageable pageable);
+
+    /**
+     * Claims the car for a booking: flips it to RESERVED and bumps its version with one guarded UPDATE, provided the
+     * car is still bookable. Returns the rate, type, status and version the car was claimed from, or empty when the
+     * statement changed no row because the car is missing or not bookable. The row stays write-locked until the
+     * transaction ends, so concurrent bookings of the same car queue behind this one.
+     */
+    default Optional<CarRate> claimForBooking(String id) {
+        List<CarRate> claimed = claimBookable(id);
+        if (claimed.isEmpty()) {
+            return Optional.empty();
+        }
+        invalidateCached(List.of(id));
+        return Optional.of(claimed.get(0));
+    }
+
+    // The UPDATE is read through H2's OLD TABLE, which returns the rows it changed as they were before it. So the one
+    // statement both decides the claim, by returning a row or none, and tells the caller what it claimed. Declared
+    // transactional because, as a query, it would otherwise inherit the repository's read-only default.
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CLAIM_QUERY_SPACE))
+    @Query(value = "select id as \"id\", rate_per_hour as \"ratePerHour\", car_status as \"carStatus\", "
+            + "car_type as \"carType\", version as \"version\" from old table (update cars "
+            + "set car_status = 'RESERVED', version = version + 1 "
+            + "where id = :id and car_status in ('AVAILABLE', 'RESERVED'))", nativeQuery = true)
+    List<CarRate> claimBookable(@Param("id") String id);
+
+    /**
+     * Batch counterpart of {@link #claimForBooking}, in two steps. This one write-locks the bookable cars among
+     * {@code ids} in id order, so overlapping batches cannot deadlock, and returns the rate, type and status of every
+     * locked car; ids missing from the result are unknown or not bookable. The cars stay as they are until
+     * {@link #markAllReserved} is called with the ones that actually got a booking.
+     */
+    default Map<String, CarRate> lockAllForBooking(Collection<String> ids) {
+        Map<String, CarRate> locked = new LinkedHashMap<>();
+        lockBookable(ids).forEach(car -> locked.put(car.getId(), car));
+        return locked;
+    }
+
+    /**
+     * Flips cars locked by {@link #lockAllForBooking} to RESERVED and bumps their versions.
+     */
+    default void markAllReserved(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            markReserved(ids);
+            invalidateCached(ids);
+        }
+    }
+
+    @Query(value = "select id as \"id\", rate_per_hour as \"ratePerHour\", car_status as \"carStatus\", "
+            + "car_type as \"carType\", version as \"version\" from cars where id in (:ids) "
+            + "and car_status in ('AVAILABLE', 'RESERVED') order by id for update", nativeQuery = true)
+    List<CarRate> lockBookable(@Param("ids") Collection<String> ids);
+
+    // Native so it runs as written: Hibernate re-translates an HQL bulk update on every execution, which costs more
+    // than the statement itself on this path. The query space names no mapped table, so Hibernate leaves the
+    // second-level cache alone and invalidateCached evicts just the claimed cars.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CLAIM_QUERY_SPACE))
+    @Query(value = "update cars set car_status = 'RESERVED', version = version + 1 where id in (:ids)",
+            nativeQuery = true)
+    int markReserved(@Param("ids") Collection<String> ids);
+
+    @Query("select c.id as id, c.ratePerHour as ratePerHour, c.carStatus as carStatus, c.carType as carType, "
+            + "c.version as version from Car c where c.id in :ids")
+    List<CarRate> findCarRates(@Param("ids") Collection<String> ids);
+
+    @Query("select c from Car c order by c.ratePerHour, c.id")
+    List<Car> findFirstPage(Limit limit);
+
+    // For bulk reads of the whole fleet, which would only churn the second-level cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select c from Car c where c.id > :afterId order by c.id")
+    List<Car> findBatchAfter(@Param("afterId") String afterId, Limit limit);
+
+    @Query("select c from Car c where c.ratePerHour >= :rate and (c.ratePerHour > :rate or c.id > :id) "
+            + "order by c.ratePerHour, c.id")
+    List<Car> findPageAfter(@Param("rate") double rate, @Param("id") String id, Limit limit);
+
+    /**
+     * Cars per status and type, straight from the table; the fleet counters are checked against it.
+     */
+    @Query("select c.carStatus as carStatus, c.carType as carType, count(c) as cars from Car c "
+            + "group by c.carStatus, c.carType")
+    List<FleetCount> countFleet();
+
+    interface CarRate {
+        String getId();
+
+        double getRatePerHour();
+
+        Car.CarStatus getCarStatus();
+
+        Car.CarType getCarType();
+
+        /**
+         * The row version when it was read; a claim through {@link #claimBookable} or {@link #markReserved} moves it
+         * on by one.
+         */
+        long getVersion();
+    }
+
+    interface FleetCount {
+        Car.CarStatus getCarStatus();
+
+        Car.CarType getCarType();
+
+        long getCars();
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.repository;
+
+import com.example.models.Car;
+
+import java.util.Collection;
+
+public interface CarRepositoryCustom {
+
+    /**
+     * Bumps the car's version when the surrounding transaction commits, even if none of its columns changed.
+     * Every booking and cancellation calls this so that two transactions writing reservations for the same car
+     * cannot both commit: the loser fails with an optimistic locking exception and can be retried.
+     */
+    void forceVersionIncrement(Car car);
+
+    /**
+     * Keeps the second-level cache honest after a native statement changed the given cars. Their cache entries
+     * are locked until the transaction completes, and cached car queries are invalidated. Only these entries are
+     * touched; Hibernate on its own would drop every cached car.
+     */
+    void invalidateCached(Collection<String> ids);
+}
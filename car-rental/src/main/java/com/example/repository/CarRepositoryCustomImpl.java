@@ -0,0 +1,49 @@
+package com.example.repository;
+
+import com.example.models.Car;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CarRepositoryCustomImpl implements CarRepositoryCustom {
+    private static final String[] CAR_QUERY_SPACES = {"cars"};
+    private final EntityManager entityManager;
+
+    @Override
+    public void forceVersionIncrement(Car car) {
+        entityManager.lock(car, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        // The forced increment is written at commit, after Hibernate has already put the car's state in the cache.
+        invalidateCached(List.of(car.getId()));
+    }
+
+    @Override
+    public void invalidateCached(Collection<String> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Car.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess != null) {
+            // The same soft locks Hibernate takes around an entity update: readers miss until we complete.
+            for (String id : ids) {
+                Object key = cacheAccess.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+                SoftLock lock = cacheAccess.lockItem(session, key, null);
+                session.getActionQueue().registerProcess((success, s) -> cacheAccess.unlockItem(s, key, lock));
+            }
+        }
+        if (factory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+            timestamps.preInvalidate(CAR_QUERY_SPACES, session);
+            session.getActionQueue().registerProcess((success, s) -> timestamps.invalidate(CAR_QUERY_SPACES, s));
+        }
+    }
+}
@@ -1,9 +1,37 @@
 package com.example.repository;
 
 import com.example.models.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, String> {
-}
\ No newline at end of file
+
+    /**
+     * Moves the customer's active-reservation count by {@code delta} in place. The row is locked until the
+     * transaction ends, and the change commits or rolls back together with the reservation it counts.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "update users set active_reservations = active_reservations + :delta where id = :id",
+            nativeQuery = true)
+    int adjustActiveReservations(@Param("id") String id, @Param("delta") int delta);
+
+    /**
+     * Recounts the confirmed reservations of every customer whose column disagrees with the reservations table,
+     * and returns how many customers were corrected.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "update users u set active_reservations = (select count(*) from reservations r "
+            + "where r.customer_id = u.id and r.status = 'CONFIRMED') "
+            + "where u.user_type = 'CUSTOMER' and coalesce(u.active_reservations, -1) <> (select count(*) "
+            + "from reservations r where r.customer_id = u.id and r.status = 'CONFIRMED')", nativeQuery = true)
+    int reconcileActiveReservations();
+}
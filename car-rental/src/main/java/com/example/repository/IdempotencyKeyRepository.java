@@ -0,0 +1,91 @@
+package com.example.repository;
+
+import com.example.models.IdempotencyKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Each statement but {@link #markApplied} runs in its own transaction, so a claim that loses the race for a key fails
+ * on the primary key without rolling anything else back. The query space keeps Hibernate from clearing the
+ * second-level cache on these native statements.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Inserts an unfinished row for the key; fails with a duplicate-key error if the key is taken.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "insert into idempotency_keys (idempotency_key, fingerprint, claimed_at, expires_at) "
+            + "values (:key, :fingerprint, :claimedAt, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                    @Param("claimedAt") LocalDateTime claimedAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Deletes the key if it has expired, or if its request was claimed before {@code abandonedBefore} and never
+     * finished nor applied, e.g. because the instance running it stopped before reaching the database.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "delete from idempotency_keys where idempotency_key = :key and (expires_at <= :now "
+            + "or (status is null and applied_at is null and claimed_at < :abandonedBefore))", nativeQuery = true)
+    int deleteIfStale(@Param("key") String key, @Param("now") LocalDateTime now,
+                      @Param("abandonedBefore") LocalDateTime abandonedBefore);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "update idempotency_keys set status = :status, content_type = :contentType, "
+            + "response_body = :body, expires_at = :expiresAt where idempotency_key = :key "
+            + "and fingerprint = :fingerprint", nativeQuery = true)
+    int complete(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Called from inside the transaction that makes the request's changes, so the mark commits or rolls back with
+     * them.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "update idempotency_keys set applied_at = :appliedAt where idempotency_key = :key "
+            + "and status is null", nativeQuery = true)
+    int markApplied(@Param("key") String key, @Param("appliedAt") LocalDateTime appliedAt);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "delete from idempotency_keys where idempotency_key = :key and status is null "
+            + "and applied_at is null", nativeQuery = true)
+    int deleteUnapplied(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "delete from idempotency_keys where expires_at <= :now", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Deletes up to {@code count} finished keys, oldest claim first. Unfinished keys are left alone, since their
+     * requests may still be running or may have been applied.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "delete from idempotency_keys where idempotency_key in (select idempotency_key "
+            + "from idempotency_keys where status is not null order by claimed_at limit :count)", nativeQuery = true)
+    int deleteOldestCompleted(@Param("count") long count);
+}
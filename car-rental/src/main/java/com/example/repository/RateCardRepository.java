@@ -0,0 +1,15 @@
+package com.example.repository;
+
+import com.example.models.RateCard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RateCardRepository extends JpaRepository<RateCard, String> {
+
+    @Query("select r from RateCard r order by r.effectiveFrom, r.id")
+    List<RateCard> findAllInEffectOrder();
+}
@@ -1,13 +1,128 @@
 package com.example.repository;
 
-import com.example.models.Car;
+import com.example.dto.ReservationSummary;
 import com.example.models.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, String> {
-    List<Reservation> findByCustomerId(String customerId);
+    /**
+     * Head of every listing query: a {@link ReservationSummary} per row, with the customer name and car model
+     * joined in. Left joins keep reservations whose customer or car is gone.
+     */
+    String SUMMARY = "select new com.example.dto.ReservationSummary(r.reservationId, cu.name, c.model, "
+            + "r.startTime, r.endTime, r.status, r.totalCostCents / 100.0) "
+            + "from Reservation r left join r.customer cu left join r.car c ";
+
+    // Entity lookups leave car and customer as lazy references; callers here only read the foreign keys.
     List<Reservation> findByCarId(String carId);
     List<Reservation> findByStatus(Reservation.ReservationStatus status);
+
+    /**
+     * Forward-only, read-only cursor over reservations for exports. Must be consumed inside a transaction
+     * and closed afterwards. Null filters are ignored; the window keeps reservations overlapping [from, to).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select r from Reservation r left join fetch r.car left join fetch r.customer "
+            + "where (:status is null or r.status = :status) "
+            + "and (cast(:from as LocalDateTime) is null or r.endTime > :from) "
+            + "and (cast(:to as LocalDateTime) is null or r.startTime < :to)")
+    Stream<Reservation> streamForExport(@Param("status") Reservation.ReservationStatus status,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    /**
+     * Whether the car has a confirmed reservation overlapping [start, end). Seeks idx_reservations_car_window.
+     */
+    default boolean existsConfirmedOverlap(String carId, LocalDateTime start, LocalDateTime end) {
+        return existsOverlap(carId, Reservation.ReservationStatus.CONFIRMED, start, end);
+    }
+
+    @Query("select case when count(r) > 0 then true else false end from Reservation r "
+            + "where r.car.id = :carId and r.status = :status and r.startTime < :end and r.endTime > :start")
+    boolean existsOverlap(@Param("carId") String carId,
+                          @Param("status") Reservation.ReservationStatus status,
+                          @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end);
+
+    /**
+     * Confirmed windows of the given cars overlapping [from, to), read in one query for a whole batch of bookings.
+     */
+    default List<BookedWindow> findConfirmedWindows(Collection<String> carIds, LocalDateTime from, LocalDateTime to) {
+        return findWindows(carIds, Reservation.ReservationStatus.CONFIRMED, from, to);
+    }
+
+    @Query("select r.car.id as carId, r.startTime as startTime, r.endTime as endTime from Reservation r "
+            + "where r.car.id in :carIds and r.status = :status and r.startTime < :to and r.endTime > :from")
+    List<BookedWindow> findWindows(@Param("carIds") Collection<String> carIds,
+                                   @Param("status") Reservation.ReservationStatus status,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Query(SUMMARY + "where cu.id = :customerId order by r.startTime, r.reservationId")
+    List<ReservationSummary> findSummariesByCustomerId(@Param("customerId") String customerId);
+
+    @Query(SUMMARY + "where r.status = :status and r.startTime < :to and r.endTime > :from "
+            + "order by r.startTime, r.reservationId")
+    List<ReservationSummary> findOverlapping(@Param("status") Reservation.ReservationStatus status,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             Limit limit);
+
+    @Query(SUMMARY + "where r.status = :status and r.endTime >= :from and r.endTime < :to order by r.endTime")
+    List<ReservationSummary> findEndingBetween(@Param("status") Reservation.ReservationStatus status,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               Limit limit);
+
+    @Query(SUMMARY + "order by r.startTime, r.reservationId")
+    List<ReservationSummary> findFirstPage(Limit limit);
+
+    @Query(SUMMARY + "where r.startTime >= :start and (r.startTime > :start or r.reservationId > :id) "
+            + "order by r.startTime, r.reservationId")
+    List<ReservationSummary> findPageAfter(@Param("start") LocalDateTime start, @Param("id") String id, Limit limit);
+
+    /**
+     * Every reservation in {@code status} with its car and a valid window that has not ended by {@code after},
+     * without loading the entities.
+     */
+    @Query("select r.reservationId as reservationId, r.car.id as carId, r.startTime as startTime, "
+            + "r.endTime as endTime, r.version as version from Reservation r where r.status = :status "
+            + "and r.startTime < r.endTime and r.endTime > :after")
+    List<BookingRow> findBookingsEndingAfter(@Param("status") Reservation.ReservationStatus status,
+                                             @Param("after") LocalDateTime after);
+
+    interface BookingRow {
+        String getReservationId();
+
+        String getCarId();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+
+        long getVersion();
+    }
+
+    interface BookedWindow {
+        String getCarId();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+    }
 }
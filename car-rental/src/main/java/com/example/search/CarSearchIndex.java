@@ -0,0 +1,531 @@
+package com.example.search;
+
+import com.example.dto.CarSearchQuery;
+import com.example.dto.CarSearchResult;
+import com.example.dto.NearbyCar;
+import com.example.dto.NearbyCarQuery;
+import com.example.dto.Suggestion;
+import com.example.location.BranchGrid;
+import com.example.models.Car;
+import com.example.readmodel.FleetChange;
+import com.example.readmodel.FleetChangeStream;
+import com.example.readmodel.FleetChangeSubscriber;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory faceted search over the fleet: brand, model, type, status and hourly rate band, plus prefix
+ * autocomplete on brand and model and the nearest cars to a point.
+ * <p>
+ * Every car gets a dense document number, and every field value a {@link Postings} list of the documents that have
+ * it. A query ORs the postings of the values asked for within each field into a bitmap and ANDs the fields together;
+ * facet counts intersect each value's postings with the bitmap of every filter but its own field. Nothing is
+ * scanned per car, so a query over a million cars costs a few passes over 16K words. Cars are also listed per
+ * branch, so a nearby search walks the branches a {@link BranchGrid} finds, nearest first, and takes each one's cars
+ * that pass the type and status filters until it has enough.
+ * <p>
+ * Committed changes arrive from the {@link FleetChangeStream}, the same ones the fleet read model gets, and a change
+ * older than the version indexed for its car is skipped. {@link CarSearchIndexLoader} fills the index at startup.
+ * Searches share a read lock and changes take the write lock, which is not held across any I/O.
+ */
+@Component
+public class CarSearchIndex implements FleetChangeSubscriber {
+    public static final String BRAND = "brand";
+    public static final String CAR_TYPE = "carType";
+    public static final String CAR_STATUS = "carStatus";
+    public static final String RATE_BAND = "rateBand";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BRAND_FACETS = 20;
+    private static final int BRAND_FIELD = 0;
+    private static final int MODEL_FIELD = 1;
+    private static final int TYPE_FIELD = 2;
+    private static final int STATUS_FIELD = 3;
+    private static final int BAND_FIELD = 4;
+
+    public enum TextField {
+        BRAND,
+        MODEL
+    }
+
+    private final double[] bandEdges;
+    private final String[] bandLabels;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> documents = new HashMap<>();
+    private final NavigableMap<String, Term> brands = new TreeMap<>();
+    private final NavigableMap<String, Term> models = new TreeMap<>();
+    private final Postings[] byType = postings(Car.CarType.values().length);
+    private final Postings[] byStatus = postings(Car.CarStatus.values().length);
+    private final Postings[] byBand;
+    private final Map<String, Postings> byBranch = new HashMap<>();
+    private Doc[] docs = new Doc[1024];
+    private long[] live = new long[16];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int universe;
+
+    /**
+     * @param bandEdges ascending hourly rates at which a new band starts; {@code 25,50,100} makes the bands
+     *                  {@code 0-25}, {@code 25-50}, {@code 50-100} and {@code 100+}
+     */
+    public CarSearchIndex(@Value("${car-rental.search.rate-bands:25,50,100}") double[] bandEdges) {
+        for (int i = 1; i < bandEdges.length; i++) {
+            if (bandEdges[i] <= bandEdges[i - 1]) {
+                throw new IllegalArgumentException("Rate band edges must be ascending");
+            }
+        }
+        this.bandEdges = bandEdges.clone();
+        this.bandLabels = new String[bandEdges.length + 1];
+        for (int i = 0; i <= bandEdges.length; i++) {
+            String from = i == 0 ? "0" : format(bandEdges[i - 1]);
+            bandLabels[i] = i == bandEdges.length ? from + "+" : from + "-" + format(bandEdges[i]);
+        }
+        this.byBand = postings(bandLabels.length);
+    }
+
+    public void put(Car car) {
+        put(car.getId(), car.getBrand(), car.getModel(), car.getCarType(), car.getCarStatus(), car.getRatePerHour(),
+                car.getBranchId(), car.getVersion() == null ? 0 : car.getVersion());
+    }
+
+    /**
+     * Adds a car, or replaces everything indexed for it unless what is indexed is of a later {@code version}.
+     */
+    public void put(String id, String brand, String model, Car.CarType carType, Car.CarStatus carStatus,
+                    double ratePerHour, String branchId, long version) {
+        lock.writeLock().lock();
+        try {
+            putLocked(id, brand, model, carType, carStatus, ratePerHour, branchId, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the committed changes of one transaction under a single write lock. Changes older than the version
+     * indexed for their car are skipped; booking changes do not concern the index.
+     */
+    @Override
+    public void accept(List<FleetChange> changes) {
+        lock.writeLock().lock();
+        try {
+            for (FleetChange change : changes) {
+                if (change instanceof FleetChange.CarSaved saved) {
+                    putLocked(saved.id(), saved.brand(), saved.model(), saved.carType(), saved.carStatus(),
+                            saved.ratePerHour(), saved.branchId(), saved.version());
+                } else if (change instanceof FleetChange.CarDeleted deleted) {
+                    removeLocked(deleted.id());
+                } else if (change instanceof FleetChange.StatusChanged statusChanged) {
+                    statusChangedLocked(statusChanged.carId(), statusChanged.carStatus(), statusChanged.version());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            brands.clear();
+            models.clear();
+            Arrays.setAll(byType, i -> new Postings());
+            Arrays.setAll(byStatus, i -> new Postings());
+            Arrays.setAll(byBand, i -> new Postings());
+            byBranch.clear();
+            Arrays.fill(docs, null);
+            Arrays.fill(live, 0);
+            freeCount = 0;
+            universe = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the cars matching {@code query}, in index order, with the match count and facet counts. Brand
+     * counts are limited to the {@value #MAX_BRAND_FACETS} largest.
+     */
+    public CarSearchResult search(CarSearchQuery query) {
+        if (query.page() < 0 || query.size() < 1 || query.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must not be negative and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        int[] bands = new int[query.rateBands().size()];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = Arrays.asList(bandLabels).indexOf(query.rateBands().get(i));
+            if (bands[i] < 0) {
+                throw new IllegalArgumentException("Unknown rate band: " + query.rateBands().get(i));
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            int words = (universe + 63) >>> 6;
+            long[][] filters = new long[5][];
+            filters[BRAND_FIELD] = termFilter(brands, query.brands(), words);
+            filters[MODEL_FIELD] = termFilter(models, query.models(), words);
+            filters[TYPE_FIELD] = filter(byType, query.carTypes().stream().mapToInt(Enum::ordinal).toArray(), words);
+            filters[STATUS_FIELD] = filter(byStatus, query.carStatuses().stream().mapToInt(Enum::ordinal).toArray(),
+                    words);
+            filters[BAND_FIELD] = filter(byBand, bands, words);
+
+            long[] matches = intersect(filters, -1, words);
+            long total = 0;
+            for (long word : matches) {
+                total += Long.bitCount(word);
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(BRAND, brandFacet(intersect(filters, BRAND_FIELD, words)));
+            facets.put(CAR_TYPE, facet(byType, Car.CarType.values(), intersect(filters, TYPE_FIELD, words)));
+            facets.put(CAR_STATUS, facet(byStatus, Car.CarStatus.values(), intersect(filters, STATUS_FIELD, words)));
+            facets.put(RATE_BAND, facet(byBand, bandLabels, intersect(filters, BAND_FIELD, words)));
+            return new CarSearchResult(total, page(matches, query.page(), query.size()), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} brands or models starting with {@code prefix}, ignoring case, most common first.
+     */
+    public List<Suggestion> suggest(TextField field, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String key = prefix == null ? "" : normalize(prefix);
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, Term> terms = field == TextField.BRAND ? brands : models;
+            return terms.subMap(key, true, key + Character.MAX_VALUE, false).values().stream()
+                    .sorted(Comparator.comparingInt((Term term) -> term.postings().size()).reversed()
+                            .thenComparing(Term::key))
+                    .limit(limit)
+                    .map(term -> new Suggestion(term.value(), term.postings().size()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code query.limit()} cars kept within the query's radius, nearest branch first and in index order within
+     * a branch, that pass its type and status filters.
+     */
+    public List<NearbyCar> nearest(NearbyCarQuery query, BranchGrid grid) {
+        if (query.limit() < 1 || query.limit() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<BranchGrid.Match> branches = grid.within(query.latitude(), query.longitude(), query.radiusKm());
+        List<NearbyCar> cars = new ArrayList<>();
+        if (branches.isEmpty()) {
+            return cars;
+        }
+        lock.readLock().lock();
+        try {
+            int words = (universe + 63) >>> 6;
+            long[][] filters = {
+                    filter(byType, query.carTypes().stream().mapToInt(Enum::ordinal).toArray(), words),
+                    filter(byStatus, query.carStatuses().stream().mapToInt(Enum::ordinal).toArray(), words)
+            };
+            long[] matches = intersect(filters, -1, words);
+            int[] found = new int[query.limit()];
+            int count = 0;
+            for (BranchGrid.Match branch : branches) {
+                Postings postings = byBranch.get(branch.branchId());
+                if (postings == null) {
+                    continue;
+                }
+                int from = count;
+                count = postings.collectIn(matches, found, count);
+                for (int i = from; i < count; i++) {
+                    Doc value = docs[found[i]];
+                    cars.add(new NearbyCar(value.id(), value.brand() == null ? null : value.brand().value(),
+                            value.model() == null ? null : value.model().value(), value.carType(), value.carStatus(),
+                            value.ratePerHour(), branch.branchId(), branch.name(), branch.distanceKm()));
+                }
+                if (count == found.length) {
+                    break;
+                }
+            }
+            return cars;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putLocked(String id, String brand, String model, Car.CarType carType, Car.CarStatus carStatus,
+                           double ratePerHour, String branchId, long version) {
+        Integer existing = documents.get(id);
+        int doc;
+        if (existing != null) {
+            if (docs[existing].version() > version) {
+                return;
+            }
+            doc = existing;
+            unindex(doc);
+        } else {
+            doc = allocate();
+            documents.put(id, doc);
+        }
+        index(doc, new Doc(id, version, term(brands, brand), term(models, model), carType, carStatus, ratePerHour,
+                band(ratePerHour), branchId));
+    }
+
+    private void removeLocked(String id) {
+        Integer doc = documents.remove(id);
+        if (doc != null) {
+            unindex(doc);
+            docs[doc] = null;
+            live[doc >>> 6] &= ~(1L << doc);
+            if (freeCount == freeDocs.length) {
+                freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+            }
+            freeDocs[freeCount++] = doc;
+        }
+    }
+
+    private void statusChangedLocked(String id, Car.CarStatus carStatus, long version) {
+        Integer doc = documents.get(id);
+        if (doc != null && docs[doc].version() <= version) {
+            // Only the status postings move; unindexing the whole document would drop a brand or model term that
+            // this car alone has
+            Doc old = docs[doc];
+            if (old.carStatus() != null) {
+                byStatus[old.carStatus().ordinal()].remove(doc);
+            }
+            if (carStatus != null) {
+                byStatus[carStatus.ordinal()].add(doc, universe);
+            }
+            docs[doc] = new Doc(old.id(), version, old.brand(), old.model(), old.carType(), carStatus,
+                    old.ratePerHour(), old.band(), old.branchId());
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        int doc = universe++;
+        if (doc == docs.length) {
+            docs = Arrays.copyOf(docs, doc * 2);
+        }
+        if (doc >>> 6 == live.length) {
+            live = Arrays.copyOf(live, live.length * 2);
+        }
+        return doc;
+    }
+
+    private void index(int doc, Doc value) {
+        docs[doc] = value;
+        live[doc >>> 6] |= 1L << doc;
+        if (value.brand() != null) {
+            value.brand().postings().add(doc, universe);
+        }
+        if (value.model() != null) {
+            value.model().postings().add(doc, universe);
+        }
+        if (value.carType() != null) {
+            byType[value.carType().ordinal()].add(doc, universe);
+        }
+        if (value.carStatus() != null) {
+            byStatus[value.carStatus().ordinal()].add(doc, universe);
+        }
+        byBand[value.band()].add(doc, universe);
+        if (value.branchId() != null) {
+            byBranch.computeIfAbsent(value.branchId(), branch -> new Postings()).add(doc, universe);
+        }
+    }
+
+    private void unindex(int doc) {
+        Doc value = docs[doc];
+        release(brands, value.brand(), doc);
+        release(models, value.model(), doc);
+        if (value.carType() != null) {
+            byType[value.carType().ordinal()].remove(doc);
+        }
+        if (value.carStatus() != null) {
+            byStatus[value.carStatus().ordinal()].remove(doc);
+        }
+        byBand[value.band()].remove(doc);
+        Postings branch = value.branchId() == null ? null : byBranch.get(value.branchId());
+        if (branch != null) {
+            branch.remove(doc);
+            if (branch.size() == 0) {
+                byBranch.remove(value.branchId());
+            }
+        }
+    }
+
+    private static Term term(NavigableMap<String, Term> terms, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return terms.computeIfAbsent(normalize(value), key -> new Term(key, value.trim(), new Postings()));
+    }
+
+    private static void release(NavigableMap<String, Term> terms, Term term, int doc) {
+        if (term != null) {
+            term.postings().remove(doc);
+            if (term.postings().size() == 0) {
+                terms.remove(term.key());
+            }
+        }
+    }
+
+    private int band(double ratePerHour) {
+        int band = 0;
+        while (band < bandEdges.length && ratePerHour >= bandEdges[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private static long[] termFilter(NavigableMap<String, Term> terms, List<String> values, int words) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        long[] mask = new long[words];
+        for (String value : values) {
+            Term term = value == null ? null : terms.get(normalize(value));
+            if (term != null) {
+                term.postings().orInto(mask);
+            }
+        }
+        return mask;
+    }
+
+    private static long[] filter(Postings[] postings, int[] values, int words) {
+        if (values.length == 0) {
+            return null;
+        }
+        long[] mask = new long[words];
+        for (int value : values) {
+            postings[value].orInto(mask);
+        }
+        return mask;
+    }
+
+    /**
+     * The live documents passing every filter except {@code skip}'s; the live bitmap itself when nothing filters.
+     */
+    private long[] intersect(long[][] filters, int skip, int words) {
+        long[] result = null;
+        for (int field = 0; field < filters.length; field++) {
+            if (field == skip || filters[field] == null) {
+                continue;
+            }
+            long[] filter = filters[field];
+            if (result == null) {
+                result = Arrays.copyOf(live, words);
+            }
+            for (int i = 0; i < words; i++) {
+                result[i] &= filter[i];
+            }
+        }
+        return result == null ? live : result;
+    }
+
+    private Map<String, Integer> brandFacet(long[] mask) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (Term term : brands.values()) {
+            int count = term.postings().countIn(mask);
+            if (count > 0) {
+                counts.add(Map.entry(term.value(), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        counts.stream().limit(MAX_BRAND_FACETS).forEach(entry -> facet.put(entry.getKey(), entry.getValue()));
+        return facet;
+    }
+
+    private static Map<String, Integer> facet(Postings[] postings, Object[] values, long[] mask) {
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            facet.put(values[i].toString(), postings[i].countIn(mask));
+        }
+        return facet;
+    }
+
+    private List<CarSearchResult.Hit> page(long[] matches, int page, int size) {
+        List<CarSearchResult.Hit> hits = new ArrayList<>(size);
+        long skip = (long) page * size;
+        for (int i = 0; i < matches.length && hits.size() < size; i++) {
+            long word = matches[i];
+            int bits = Long.bitCount(word);
+            if (skip >= bits) {
+                skip -= bits;
+                continue;
+            }
+            while (word != 0 && hits.size() < size) {
+                int doc = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                Doc value = docs[doc];
+                hits.add(new CarSearchResult.Hit(value.id(), value.brand() == null ? null : value.brand().value(),
+                        value.model() == null ? null : value.model().value(), value.carType(), value.carStatus(),
+                        value.ratePerHour(), bandLabels[value.band()]));
+            }
+        }
+        return hits;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String format(double rate) {
+        return BigDecimal.valueOf(rate).stripTrailingZeros().toPlainString();
+    }
+
+    private static Postings[] postings(int values) {
+        Postings[] postings = new Postings[values];
+        Arrays.setAll(postings, i -> new Postings());
+        return postings;
+    }
+
+    /**
+     * A brand or model: its lower-case key, the spelling it was first indexed with, and its cars.
+     */
+    private record Term(String key, String value, Postings postings) {
+    }
+
+    private record Doc(String id, long version, Term brand, Term model, Car.CarType carType, Car.CarStatus carStatus,
+                       double ratePerHour, int band, String branchId) {
+    }
+}
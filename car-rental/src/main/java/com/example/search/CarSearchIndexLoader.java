@@ -0,0 +1,39 @@
+package com.example.search;
+
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the {@link CarSearchIndex} from the cars table once the application is up, in id order and in batches, so
+ * the whole fleet is never held as entities at once.
+ */
+@Component
+@RequiredArgsConstructor
+public class CarSearchIndexLoader {
+    private static final Logger log = LoggerFactory.getLogger(CarSearchIndexLoader.class);
+    private static final int BATCH_SIZE = 1000;
+    private final CarRepository carRepository;
+    private final CarSearchIndex index;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        index.clear();
+        String afterId = "";
+        List<Car> batch;
+        do {
+            batch = carRepository.findBatchAfter(afterId, Limit.of(BATCH_SIZE));
+            batch.forEach(index::put);
+            afterId = batch.isEmpty() ? afterId : batch.get(batch.size() - 1).getId();
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Search index loaded with {} cars.", index.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.search;
+
+import java.util.Arrays;
+
+/**
+ * The documents holding one field value. Kept as a sorted array while the value is rare and switched to a bitmap
+ * once it holds more than one document per 64 in the index; from then on a bitmap scan is cheaper than looking up
+ * each document, and it takes no more memory than the array would.
+ */
+final class Postings {
+    private static final int MIN_BITMAP_SIZE = 64;
+
+    private int[] docs = new int[4];
+    private long[] words;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param universe one past the highest document in the index, which sets the size a bitmap would have
+     */
+    void add(int doc, int universe) {
+        if (words != null) {
+            ensureWords(doc);
+            long bit = 1L << doc;
+            if ((words[doc >>> 6] & bit) == 0) {
+                words[doc >>> 6] |= bit;
+                size++;
+            }
+            return;
+        }
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+        }
+        System.arraycopy(docs, index, docs, index + 1, size - index);
+        docs[index] = doc;
+        size++;
+        if (size > Math.max(MIN_BITMAP_SIZE, universe >>> 6)) {
+            toBitmap();
+        }
+    }
+
+    void remove(int doc) {
+        if (words != null) {
+            long bit = 1L << doc;
+            if (doc >>> 6 < words.length && (words[doc >>> 6] & bit) != 0) {
+                words[doc >>> 6] &= ~bit;
+                size--;
+            }
+            return;
+        }
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index >= 0) {
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Sets the bits of this value's documents in {@code mask}.
+     */
+    void orInto(long[] mask) {
+        if (words != null) {
+            for (int i = 0, n = Math.min(words.length, mask.length); i < n; i++) {
+                mask[i] |= words[i];
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                mask[docs[i] >>> 6] |= 1L << docs[i];
+            }
+        }
+    }
+
+    /**
+     * Number of this value's documents whose bit is set in {@code mask}.
+     */
+    int countIn(long[] mask) {
+        int count = 0;
+        if (words != null) {
+            for (int i = 0, n = Math.min(words.length, mask.length); i < n; i++) {
+                count += Long.bitCount(words[i] & mask[i]);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                count += (int) (mask[docs[i] >>> 6] >>> docs[i]) & 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Appends this value's documents whose bit is set in {@code mask} to {@code out}, in document order, from
+     * {@code count} until {@code out} is full; returns the new count.
+     */
+    int collectIn(long[] mask, int[] out, int count) {
+        if (words != null) {
+            for (int i = 0, n = Math.min(words.length, mask.length); i < n && count < out.length; i++) {
+                long word = words[i] & mask[i];
+                while (word != 0 && count < out.length) {
+                    out[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+        } else {
+            for (int i = 0; i < size && count < out.length; i++) {
+                if ((mask[docs[i] >>> 6] & 1L << docs[i]) != 0) {
+                    out[count++] = docs[i];
+                }
+            }
+        }
+        return count;
+    }
+
+    private void toBitmap() {
+        words = new long[(docs[size - 1] >>> 6) + 1];
+        for (int i = 0; i < size; i++) {
+            words[docs[i] >>> 6] |= 1L << docs[i];
+        }
+        docs = null;
+    }
+
+    private void ensureWords(int doc) {
+        if (doc >>> 6 >= words.length) {
+            words = Arrays.copyOf(words, Math.max((doc >>> 6) + 1, words.length * 2));
+        }
+    }
+}
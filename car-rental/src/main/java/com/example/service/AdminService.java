@@ -1,9 +1,12 @@
 package com.example.service;
 
+import com.example.dto.CursorPage;
+import com.example.dto.FleetStatus;
+import com.example.dto.ReservationSummary;
 import com.example.models.Car;
 import com.example.models.Customer;
-import com.example.models.Reservation;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -11,15 +14,32 @@ public interface AdminService {
 
     void addCar(Car car);
 
+    /**
+     * Removes the car, failing with a conflict if it changed since {@code car.version} was read. Without a version
+     * the current row is removed.
+     */
     void removeCar(Car car);
 
+    /**
+     * Saves the car, failing with a conflict if it changed since {@code car.version} was read. Without a version the
+     * fields are copied onto the current row, and a missing status or branch leaves the current one.
+     */
     void updateCarDetails(Car car);
 
-    List<Car> viewAllCars();
+    /**
+     * Cars per status and type, read from the live fleet counters rather than the cars table.
+     */
+    FleetStatus viewFleetStatus();
 
-    List<Reservation> viewAllReservations();
+    CursorPage<Car> viewCars(String cursor, int size);
 
-    void makeReservationForCustomer(Customer customer, Car car, String startTime, String endTime);
+    CursorPage<ReservationSummary> viewReservations(String cursor, int size);
+
+    List<ReservationSummary> viewReservationsOverlapping(LocalDateTime from, LocalDateTime to, int size);
+
+    List<ReservationSummary> viewReservationsEndingWithin(Duration within, int size);
+
+    void makeReservationForCustomer(Customer customer, Car car, LocalDateTime startTime, LocalDateTime endTime);
 
     void cancelReservation(String reservationId);
 }
@@ -0,0 +1,20 @@
+package com.example.service;
+
+import com.example.models.Branch;
+
+import java.util.List;
+
+public interface BranchService {
+
+    /**
+     * Adds a branch, or moves or renames an existing one; location searches see it once the transaction commits.
+     */
+    Branch saveBranch(Branch branch);
+
+    List<Branch> viewBranches();
+
+    /**
+     * Rebuilds the branch grid from the table, picking up branches saved through other instances.
+     */
+    void reloadBranches();
+}
@@ -0,0 +1,16 @@
+package com.example.service;
+
+import com.example.dto.CarImportFormat;
+import com.example.dto.CarImportSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CarImportService {
+
+    /**
+     * Reads cars from {@code in} and upserts them by id. Invalid rows are skipped and reported in the summary
+     * instead of failing the import.
+     */
+    CarImportSummary importCars(CarImportFormat format, InputStream in) throws IOException;
+}
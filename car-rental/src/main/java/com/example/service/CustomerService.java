@@ -1,16 +1,23 @@
 package com.example.service;
 
+import com.example.dto.BulkReservationRequest;
+import com.example.dto.BulkReservationResult;
 import com.example.models.Car;
-import com.example.models.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CustomerService {
 
-    List<Car> viewAvailableCars();
+    Slice<Car> viewAvailableCars(Car.CarType carType, Pageable pageable);
 
-    void makeReservation(Customer customer, Car car, String  startTime, String endTime);
+    Slice<Car> viewFreeCars(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
+
+    String reserve(String customerId, String carId, LocalDateTime startTime, LocalDateTime endTime);
+
+    List<BulkReservationResult> reserveAll(String customerId, List<BulkReservationRequest.Item> items);
 
     void cancelReservation(String reservationId);
 
@@ -0,0 +1,28 @@
+package com.example.service;
+
+import com.example.dto.Quote;
+import com.example.dto.QuoteRequest;
+import com.example.models.RateCard;
+
+import java.util.List;
+
+public interface PricingService {
+
+    /**
+     * Adds a rate card; it prices new reservations from its {@code effectiveFrom} once the transaction commits.
+     */
+    RateCard addRateCard(RateCard rateCard);
+
+    List<RateCard> viewRateCards();
+
+    /**
+     * Prices every item against the same rate cards. Invalid items and unknown cars are answered on their own
+     * instead of failing the request.
+     */
+    List<Quote> quote(List<QuoteRequest.Item> items);
+
+    /**
+     * Recompiles the rate cards from the table, picking up cards added through other instances.
+     */
+    void reloadRateCards();
+}
@@ -0,0 +1,16 @@
+package com.example.service;
+
+import com.example.dto.ReservationExportFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ReservationExportService {
+
+    /**
+     * Writes every matching reservation to {@code out} as one JSON document per line.
+     *
+     * @return the number of reservations written
+     */
+    long exportReservations(ReservationExportFilter filter, OutputStream out) throws IOException;
+}
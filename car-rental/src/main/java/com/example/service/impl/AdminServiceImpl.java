@@ -1,29 +1,55 @@
 package com.example.service.impl;
 
+import com.example.availability.CarAvailabilityIndex;
+import com.example.concurrency.TransactionHooks;
+import com.example.dto.CursorPage;
+import com.example.dto.FleetStatus;
+import com.example.dto.KeysetCursor;
+import com.example.dto.ReservationSummary;
+import com.example.exception.CarNotFoundException;
+import com.example.exception.CarUnavailableException;
+import com.example.fleet.FleetCounters;
+import com.example.metrics.MetricsConfiguration;
+import com.example.metrics.ReservationMetrics;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.models.Reservation;
+import com.example.pricing.PricingEngine;
+import com.example.readmodel.FleetChange;
+import com.example.readmodel.FleetChangeStream;
 import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.ReservationRepository;
 import com.example.service.AdminService;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Transactional
 public class AdminServiceImpl implements AdminService {
     private static final Logger log = LoggerFactory.getLogger(AdminServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 100;
     private final ReservationRepository reservationRepository;
     private final CarRepository carRepository;
     private final CustomerRepository customerRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final FleetCounters fleetCounters;
+    private final ReservationMetrics reservationMetrics;
+    private final PricingEngine pricingEngine;
+    private final FleetChangeStream changeStream;
 
     @Override
     public void addCar(Car car) {
@@ -42,71 +68,126 @@ public class AdminServiceImpl implements AdminService {
             throw new IllegalStateException("Cannot remove car with active reservations");
         }
 
-        carRepository.delete(car);
+        carRepository.delete(car.getVersion() == null ? current(car.getId()) : car);
+        // A delete that fails at commit must leave the car bookable
+        String carId = car.getId();
+        TransactionHooks.afterCommit(() -> availabilityIndex.evict(carId));
         log.info("Car {} removed successfully: " , car.getModel());
     }
 
     @Override
     public void updateCarDetails(Car car) {
+        if (car.getVersion() == null) {
+            // Clients that predate versioning send no version: apply their fields to the current row
+            Car current = current(car.getId());
+            current.setModel(car.getModel());
+            current.setBrand(car.getBrand());
+            current.setRatePerHour(car.getRatePerHour());
+            current.setCarType(car.getCarType());
+            if (car.getBranchId() != null) {
+                current.setBranchId(car.getBranchId());
+            }
+            if (car.getCarStatus() != null) {
+                current.setCarStatus(car.getCarStatus());
+            }
+            car = current;
+        }
         carRepository.save(car);
         log.info("Car details updated successfully for {}: " , car.getModel());
     }
 
     @Override
-    public List<Car> viewAllCars() {
-        List<Car> allCars = carRepository.findAll();
+    public FleetStatus viewFleetStatus() {
+        return fleetCounters.snapshot();
+    }
 
-        if (allCars.isEmpty()) {
-            log.info("No cars in the system.");
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Car> viewCars(String cursor, int size) {
+        Limit limit = Limit.of(pageSize(size) + 1);
+        List<Car> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = carRepository.findFirstPage(limit);
         } else {
-            allCars.forEach(car ->
-                    log.info(String.format("ID: %s | Model: %s | Type: %s | Status: %s | Rate: $%s/hour",
-                            car.getId(), car.getModel(), car.getCarType(),
-                            car.getCarStatus(), car.getRatePerHour()))
-            );
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = carRepository.findPageAfter(parseRate(position.sortKey()), position.id(), limit);
         }
-        return allCars;
+        CursorPage<Car> page = CursorPage.of(rows, pageSize(size),
+                car -> new KeysetCursor(Double.toString(car.getRatePerHour()), car.getId()));
+        log.info("Listed {} cars.", page.items().size());
+        return page;
     }
 
     @Override
-    public List<Reservation> viewAllReservations() {
-        List<Reservation> allReservations = reservationRepository.findAll();
-
-        if (allReservations.isEmpty()) {
-            log.info("No reservations in the system.");
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationSummary> viewReservations(String cursor, int size) {
+        Limit limit = Limit.of(pageSize(size) + 1);
+        List<ReservationSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reservationRepository.findFirstPage(limit);
         } else {
-            allReservations.forEach(res ->
-                    log.info(String.format("ID: %s | Customer: %s | Car: %s | Status: %s | Cost: $%s",
-                            res.getReservationId(), res.getCustomer().getName(),
-                            res.getCar().getModel(), res.getStatus(), res.getTotalCost()))
-            );
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = reservationRepository.findPageAfter(parseTime(position.sortKey()), parseReservationId(position.id()),
+                    limit);
         }
-        return allReservations;
+        CursorPage<ReservationSummary> page = CursorPage.of(rows, pageSize(size),
+                res -> new KeysetCursor(res.startTime().toString(), res.reservationId()));
+        log.info("Listed {} reservations.", page.items().size());
+        return page;
     }
 
     @Override
-    public void makeReservationForCustomer(Customer customer, Car car, String startTime, String endTime) {
-        if (car.getCarStatus() != Car.CarStatus.AVAILABLE) {
-            System.out.println("Error: Car is not available for reservation.");
-            return;
+    @Transactional(readOnly = true)
+    public List<ReservationSummary> viewReservationsOverlapping(LocalDateTime from, LocalDateTime to, int size) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
         }
+        return reservationRepository.findOverlapping(Reservation.ReservationStatus.CONFIRMED, from, to,
+                Limit.of(pageSize(size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationSummary> viewReservationsEndingWithin(Duration within, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        return reservationRepository.findEndingBetween(Reservation.ReservationStatus.CONFIRMED, now, now.plus(within),
+                Limit.of(pageSize(size)));
+    }
 
+    @Override
+    public void makeReservationForCustomer(Customer customer, Car car, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!car.isBookable()) {
+            reservationMetrics.conflict("admin", ReservationMetrics.Conflict.UNAVAILABLE);
+            throw new CarUnavailableException("Car " + car.getId() + " is not available for reservation");
+        }
+        if (!availabilityIndex.isFree(car.getId(), startTime, endTime)
+                || reservationRepository.existsConfirmedOverlap(car.getId(), startTime, endTime)) {
+            reservationMetrics.conflict("admin", ReservationMetrics.Conflict.OVERLAP);
+            throw new CarUnavailableException("Car " + car.getId() + " is already booked between " + startTime
+                    + " and " + endTime);
+        }
+
+        carRepository.forceVersionIncrement(car);
         Reservation reservation = new Reservation();
         reservation.setCar(car);
-        reservation.setCustomer(customer);
+        reservation.setCustomer(customerRepository.getReferenceById(customer.getId()));
         reservation.setStartTime(startTime);
         reservation.setEndTime(endTime);
         reservation.setStatus(Reservation.ReservationStatus.PENDING);
 
-        reservation.calculateTotalCost();
+        reservation.setTotalCostCents(pricingEngine.quote(car, startTime, endTime));
         reservation.confirm();
 
         reservationRepository.save(reservation);
-        customer.addReservation(reservation);
-        customerRepository.save(customer);
+        customerRepository.adjustActiveReservations(customer.getId(), 1);
+        availabilityIndex.book(car.getId(), reservation.getReservationId(), startTime, endTime);
+        changeStream.emit(new FleetChange.Booked(car.getId(), reservation.getReservationId(), reservation.getVersion(),
+                startTime, endTime));
         carRepository.save(car);
+        reservationMetrics.booked("admin", 1);
 
-        System.out.println("Admin reservation created! ID: " + reservation.getReservationId());
+        log.info("Admin reservation created for customer {}. Reservation ID: {}", customer.getId(),
+                reservation.getReservationId());
     }
 
     @Override
@@ -114,10 +195,71 @@ public class AdminServiceImpl implements AdminService {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
+        carRepository.forceVersionIncrement(reservation.getCar());
+        boolean wasActive = reservation.getStatus() == Reservation.ReservationStatus.CONFIRMED;
         reservation.cancel();
+        releaseBooking(reservation);
         reservationRepository.save(reservation);
+        if (wasActive && reservation.getCustomer() != null) {
+            customerRepository.adjustActiveReservations(reservation.getCustomer().getId(), -1);
+        }
         carRepository.save(reservation.getCar());
+        reservationMetrics.cancelled("admin");
+
+        log.info("Reservation with ID: {} has been cancelled by an admin.", reservationId);
+    }
+
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private Car current(String carId) {
+        if (carId == null) {
+            throw new IllegalArgumentException("Car id is required");
+        }
+        return carRepository.findById(carId)
+                .orElseThrow(() -> new CarNotFoundException("Car not found with ID: " + carId));
+    }
 
-        System.out.println("Admin cancelled reservation: " + reservationId);
+    private static double parseRate(String sortKey) {
+        try {
+            return Double.parseDouble(sortKey);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static LocalDateTime parseTime(String sortKey) {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String parseReservationId(String id) {
+        try {
+            return UUID.fromString(id).toString();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private void releaseBooking(Reservation reservation) {
+        Car car = reservation.getCar();
+        if (reservation.getStartTime() == null || reservation.getEndTime() == null) {
+            return;
+        }
+        availabilityIndex.release(car.getId(), reservation.getReservationId(),
+                reservation.getStartTime(), reservation.getEndTime());
+        // The cancellation bumps the reservation's version when it is flushed
+        changeStream.emit(new FleetChange.Released(car.getId(), reservation.getReservationId(),
+                reservation.getVersion() + 1, reservation.getStartTime(), reservation.getEndTime()));
+        if (availabilityIndex.hasBookingsEndingAfter(car.getId(), LocalDateTime.now())) {
+            car.reserve();
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.example.service.impl;
+
+import com.example.concurrency.TransactionHooks;
+import com.example.location.BranchGrid;
+import com.example.location.BranchLocator;
+import com.example.metrics.MetricsConfiguration;
+import com.example.models.Branch;
+import com.example.repository.BranchRepository;
+import com.example.service.BranchService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+@RequiredArgsConstructor
+@Transactional
+public class BranchServiceImpl implements BranchService {
+    private static final Logger log = LoggerFactory.getLogger(BranchServiceImpl.class);
+    private final BranchRepository branchRepository;
+    private final BranchLocator branchLocator;
+
+    @Override
+    public Branch saveBranch(Branch branch) {
+        if (branch.getId() == null || branch.getId().isBlank()) {
+            throw new IllegalArgumentException("A branch needs an id");
+        }
+        BranchGrid.checkCoordinates(branch.getLatitude(), branch.getLongitude());
+        Branch saved = branchRepository.save(branch);
+        BranchGrid grid = branchLocator.compile(branchRepository.findAll());
+        TransactionHooks.afterCommit(() -> branchLocator.install(grid));
+        log.info("Branch {} saved at {}, {}.", saved.getId(), saved.getLatitude(), saved.getLongitude());
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Branch> viewBranches() {
+        return branchRepository.findAll(Sort.by("id"));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${car-rental.branches.refresh-interval:PT1M}",
+            fixedDelayString = "${car-rental.branches.refresh-interval:PT1M}")
+    public void reloadBranches() {
+        BranchGrid grid = branchLocator.compile(branchRepository.findAll());
+        branchLocator.install(grid);
+        log.debug("Branch grid built from {} branches.", grid.size());
+    }
+}
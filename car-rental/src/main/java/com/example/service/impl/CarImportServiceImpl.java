@@ -0,0 +1,250 @@
+package com.example.service.impl;
+
+import com.example.dto.CarImportFormat;
+import com.example.dto.CarImportSummary;
+import com.example.metrics.MetricsConfiguration;
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import com.example.service.CarImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a fleet file into the cars table. Rows are read one line at a time and upserted in batches of
+ * {@value #BATCH_SIZE}; the persistence context is flushed and cleared after each batch, so memory stays flat
+ * however long the file is. New cars default to AVAILABLE. Existing cars get their details updated but keep their
+ * status, which belongs to the booking flow.
+ */
+@Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+@RequiredArgsConstructor
+@Transactional
+public class CarImportServiceImpl implements CarImportService {
+    private static final Logger log = LoggerFactory.getLogger(CarImportServiceImpl.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+    private static final List<String> REQUIRED_COLUMNS = List.of("id", "model", "brand", "ratePerHour", "carType");
+    private final CarRepository carRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public CarImportSummary importCars(CarImportFormat format, InputStream in) throws IOException {
+        Progress progress = new Progress();
+        Map<String, Car> batch = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == CarImportFormat.CSV && columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            Car car;
+            try {
+                Row row = format == CarImportFormat.CSV ? csvRow(columns, line) : objectMapper.readValue(line, Row.class);
+                car = toCar(row);
+            } catch (JsonProcessingException e) {
+                progress.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                progress.reject(lineNumber, e.getMessage());
+                continue;
+            }
+            // A repeated id must see the earlier row as existing, so write out what came before it first.
+            if (batch.size() == BATCH_SIZE || batch.containsKey(car.getId())) {
+                upsert(batch, progress);
+            }
+            batch.put(car.getId(), car);
+        }
+        upsert(batch, progress);
+
+        log.info("Imported cars: {} created, {} updated, {} rejected.",
+                progress.created, progress.updated, progress.rejected);
+        return new CarImportSummary(progress.created, progress.updated, progress.rejected, progress.rejectedRows);
+    }
+
+    private void upsert(Map<String, Car> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Car> existing = carRepository.findAllById(batch.keySet()).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        batch.forEach((id, imported) -> {
+            Car current = existing.get(id);
+            if (current == null) {
+                if (imported.getCarStatus() == null) {
+                    imported.setCarStatus(Car.CarStatus.AVAILABLE);
+                }
+                // persist, not save: the id is assigned, so save would merge and select each car again.
+                entityManager.persist(imported);
+                progress.created++;
+            } else {
+                current.setModel(imported.getModel());
+                current.setBrand(imported.getBrand());
+                current.setRatePerHour(imported.getRatePerHour());
+                current.setCarType(imported.getCarType());
+                if (imported.getBranchId() != null) {
+                    current.setBranchId(imported.getBranchId());
+                }
+                progress.updated++;
+            }
+        });
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+
+    private static Row csvRow(Map<String, Integer> columns, String line) {
+        List<String> fields = splitCsv(line);
+        Function<String, String> field = name -> {
+            Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+            return index == null || index >= fields.size() ? null : fields.get(index).trim();
+        };
+        return new Row(field.apply("id"), field.apply("model"), field.apply("brand"), field.apply("ratePerHour"),
+                field.apply("carType"), field.apply("carStatus"), field.apply("branchId"));
+    }
+
+    /**
+     * Splits one CSV record. Fields may be quoted, with {@code ""} standing for a quote; records spanning
+     * several lines are not supported.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Car toCar(Row row) {
+        if (row == null) {
+            throw new IllegalArgumentException("Expected a car object");
+        }
+        Car car = new Car();
+        car.setId(required(row.id(), "id"));
+        car.setModel(required(row.model(), "model"));
+        car.setBrand(required(row.brand(), "brand"));
+        car.setRatePerHour(parseRate(required(row.ratePerHour(), "ratePerHour")));
+        car.setCarType(parseEnum(Car.CarType.class, required(row.carType(), "carType"), "carType"));
+        if (row.carStatus() != null && !row.carStatus().isBlank()) {
+            car.setCarStatus(parseEnum(Car.CarStatus.class, row.carStatus(), "carStatus"));
+        }
+        if (row.branchId() != null && !row.branchId().isBlank()) {
+            car.setBranchId(row.branchId().trim());
+        }
+        return car;
+    }
+
+    private static String required(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value.trim();
+    }
+
+    private static double parseRate(String value) {
+        double rate;
+        try {
+            rate = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ratePerHour must be a number, got: " + value);
+        }
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("ratePerHour must be positive, got: " + value);
+        }
+        return rate;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + name + ": " + value);
+        }
+    }
+
+    /**
+     * One imported car as read from either format, before validation. NDJSON numbers bind to the string fields too.
+     */
+    record Row(String id, String model, String brand, String ratePerHour, String carType, String carStatus,
+               String branchId) {
+    }
+
+    private static final class Progress {
+        private long created;
+        private long updated;
+        private long rejected;
+        private final List<CarImportSummary.RejectedRow> rejectedRows = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejectedRows.size() < MAX_REPORTED_REJECTIONS) {
+                rejectedRows.add(new CarImportSummary.RejectedRow(line, reason));
+            }
+        }
+    }
+}
@@ -1,72 +1,261 @@
 package com.example.service.impl;
 
+import com.example.availability.CarAvailabilityIndex;
+import com.example.dto.BulkReservationRequest;
+import com.example.dto.BulkReservationResult;
+import com.example.dto.ReservationSummary;
+import com.example.exception.CarUnavailableException;
+import com.example.exception.CustomerNotFoundException;
+import com.example.fleet.FleetCounters;
+import com.example.metrics.MetricsConfiguration;
+import com.example.metrics.ReservationMetrics;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.models.Reservation;
+import com.example.pricing.PricingEngine;
+import com.example.pricing.RateTable;
+import com.example.readmodel.FleetChange;
+import com.example.readmodel.FleetChangeStream;
 import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.ReservationRepository;
 import com.example.service.CustomerService;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Transactional
 public class CustomerServiceImpl implements CustomerService {
     private static final Logger log = LoggerFactory.getLogger(CustomerServiceImpl.class);
+    private static final List<Car.CarStatus> BOOKABLE_STATUSES = List.of(Car.CarStatus.AVAILABLE, Car.CarStatus.RESERVED);
+    private static final int MAX_BULK_ITEMS = 500;
     private final ReservationRepository reservationRepository;
     private final CarRepository carRepository;
     private final CustomerRepository customerRepository;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final FleetCounters fleetCounters;
+    private final ReservationMetrics reservationMetrics;
+    private final PricingEngine pricingEngine;
+    private final FleetChangeStream changeStream;
 
     @Override
-    public List<Car> viewAvailableCars() {
-        List<Car> availableCars=
-                carRepository.findAll().stream().filter(car -> car.getCarStatus() == Car.CarStatus.AVAILABLE).toList();
-        if (availableCars.isEmpty()) {
+    @Transactional(readOnly = true)
+    public Slice<Car> viewAvailableCars(Car.CarType carType, Pageable pageable) {
+        Slice<Car> availableCars = carType == null
+                ? carRepository.findByCarStatus(Car.CarStatus.AVAILABLE, pageable)
+                : carRepository.findByCarStatusAndCarType(Car.CarStatus.AVAILABLE, carType, pageable);
+        if (!availableCars.hasContent()) {
             log.info("No cars currently available.");
         } else {
-            availableCars.forEach(car ->
-                    log.info("Available cars are:"+ String.format("ID: %s | Model: %s | Type: %s | Rate: $%s/hour",
-                            car.getId(), car.getModel(), car.getCarType(), car.getRatePerHour()))
-            );
+            log.info("Returning {} available cars (page {}).", availableCars.getNumberOfElements(), pageable.getPageNumber());
         }
         return availableCars;
     }
 
+    /**
+     * Pages through the bookable cars in the requested order and keeps those the index shows free for the window.
+     * Cars are read a page-sized slice at a time until the page is full, so a page is only short when it is the last
+     * one; skipping to page n scans the cars of the pages before it as well.
+     */
     @Override
-    public void makeReservation(Customer customer, Car car, String startTime, String endTime) {
-        if (car.getCarStatus() != Car.CarStatus.AVAILABLE) {
-            log.info("Car with ID: {} is not available for reservation.", car.getId());
-            return;
+    @Transactional(readOnly = true)
+    public Slice<Car> viewFreeCars(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable) {
+        long skip = pageable.getOffset();
+        List<Car> freeCars = new ArrayList<>(pageable.getPageSize());
+        boolean hasNext = false;
+        Slice<Car> bookableCars;
+        int slice = 0;
+        do {
+            bookableCars = carRepository.findByCarStatusIn(BOOKABLE_STATUSES,
+                    PageRequest.of(slice++, pageable.getPageSize(), pageable.getSort()));
+            Map<String, Car> candidates = bookableCars.stream()
+                    .collect(Collectors.toMap(Car::getId, car -> car, (a, b) -> a, LinkedHashMap::new));
+            for (String carId : availabilityIndex.freeCars(candidates.keySet(), startTime, endTime)) {
+                if (skip > 0) {
+                    skip--;
+                } else if (freeCars.size() < pageable.getPageSize()) {
+                    freeCars.add(candidates.get(carId));
+                } else {
+                    hasNext = true;
+                    break;
+                }
+            }
+        } while (!hasNext && bookableCars.hasNext());
+        log.info("{} cars free between {} and {} (page {}).", freeCars.size(), startTime, endTime, pageable.getPageNumber());
+        return new SliceImpl<>(freeCars, pageable, hasNext);
+    }
+
+    /**
+     * Booking fast path. Instead of loading the car and customer and saving both back, it claims the car with one
+     * conditional UPDATE and inserts the reservation against entity references. The claim comes before the
+     * overlap check on purpose: it write-locks the car row, so a concurrent booking of the same car waits for this
+     * transaction and its own overlap check then sees our reservation. Any refusal after the claim throws, which rolls
+     * the claim back.
+     */
+    @Override
+    public String reserve(String customerId, String carId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException("Customer not found");
+        }
+        if (!availabilityIndex.isFree(carId, startTime, endTime)) {
+            reservationMetrics.conflict("claim", ReservationMetrics.Conflict.OVERLAP);
+            throw new CarUnavailableException("Car " + carId + " is already booked between " + startTime + " and " + endTime);
+        }
+        CarRepository.CarRate car = carRepository.claimForBooking(carId).orElseThrow(() -> {
+            reservationMetrics.conflict("claim", ReservationMetrics.Conflict.UNAVAILABLE);
+            return new CarUnavailableException("Car " + carId + " is not available for reservation");
+        });
+        if (reservationRepository.existsConfirmedOverlap(carId, startTime, endTime)) {
+            reservationMetrics.conflict("claim", ReservationMetrics.Conflict.OVERLAP);
+            throw new CarUnavailableException("Car " + carId + " is already booked between " + startTime + " and " + endTime);
         }
 
         Reservation reservation = new Reservation();
-        reservation.setCar(car);
-        reservation.setCustomer(customer);
+        reservation.setCar(carRepository.getReferenceById(carId));
+        reservation.setCustomer(customerRepository.getReferenceById(customerId));
         reservation.setStartTime(startTime);
         reservation.setEndTime(endTime);
-        reservation.setStatus(Reservation.ReservationStatus.PENDING);
-        reservation.calculateTotalCost();
-        reservation.confirm();
+        // The claim already moved the car to RESERVED, so skip confirm() and its car.reserve() round trip.
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        reservation.setTotalCostCents(pricingEngine.quote(carId, car.getCarType(), car.getRatePerHour(),
+                startTime, endTime));
 
         reservationRepository.save(reservation);
+        customerRepository.adjustActiveReservations(customerId, 1);
+        fleetCounters.recordStatusChange(car.getCarStatus(), Car.CarStatus.RESERVED, 1);
+        availabilityIndex.book(carId, reservation.getReservationId(), startTime, endTime);
+        changeStream.emit(new FleetChange.StatusChanged(carId, car.getVersion() + 1, Car.CarStatus.RESERVED));
+        changeStream.emit(new FleetChange.Booked(carId, reservation.getReservationId(), reservation.getVersion(),
+                startTime, endTime));
+        reservationMetrics.booked("claim", 1);
+
+        log.info("Reservation successful! Reservation ID: {}", reservation.getReservationId());
+        return reservation.getReservationId();
+    }
 
-        customer.addReservation(reservation);
-        customerRepository.save(customer);
+    /**
+     * Books a batch for one customer in a single transaction, answering every item on its own. Items with an invalid
+     * window are rejected; items whose car cannot be claimed, or whose window is taken by an existing booking or by an
+     * earlier item of the batch, come back as conflicts. The remaining items are inserted together, which Hibernate
+     * sends as JDBC batches. All cars of the batch are locked up front in id order and stay locked until commit, so
+     * the overlap checks hold for the whole batch; only the cars left with a confirmed item are then marked RESERVED.
+     */
+    @Override
+    public List<BulkReservationResult> reserveAll(String customerId, List<BulkReservationRequest.Item> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("A bulk reservation needs at least one item");
+        }
+        if (items.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("A bulk reservation takes at most " + MAX_BULK_ITEMS + " items");
+        }
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException("Customer not found");
+        }
 
-        carRepository.save(car);
+        BulkReservationResult[] results = new BulkReservationResult[items.size()];
+        Map<String, List<Integer>> itemsByCar = new TreeMap<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (int i = 0; i < items.size(); i++) {
+            BulkReservationRequest.Item item = items.get(i);
+            String problem = validate(item);
+            if (problem != null) {
+                results[i] = BulkReservationResult.rejected(i, item == null ? null : item.carId(), problem);
+                continue;
+            }
+            itemsByCar.computeIfAbsent(item.carId(), id -> new ArrayList<>()).add(i);
+            from = item.startTime().isBefore(from) ? item.startTime() : from;
+            to = item.endTime().isAfter(to) ? item.endTime() : to;
+        }
 
+        Map<String, CarRepository.CarRate> locked = itemsByCar.isEmpty() ? Map.of()
+                : carRepository.lockAllForBooking(itemsByCar.keySet());
+        Map<String, List<Window>> taken = locked.isEmpty() ? new HashMap<>()
+                : reservationRepository.findConfirmedWindows(locked.keySet(), from, to).stream()
+                .collect(Collectors.groupingBy(ReservationRepository.BookedWindow::getCarId, HashMap::new,
+                        Collectors.mapping(w -> new Window(w.getStartTime(), w.getEndTime()), Collectors.toList())));
 
-        log.info("Reservation successful! Reservation ID: {}", reservation.getReservationId());
+        Customer customer = customerRepository.getReferenceById(customerId);
+        RateTable rateTable = pricingEngine.rateTable();
+        Map<Integer, Reservation> accepted = new LinkedHashMap<>();
+        itemsByCar.forEach((carId, indexes) -> {
+            CarRepository.CarRate lock = locked.get(carId);
+            Car car = lock == null ? null : carRepository.getReferenceById(carId);
+            List<Window> carWindows = taken.computeIfAbsent(carId, id -> new ArrayList<>());
+            for (int i : indexes) {
+                BulkReservationRequest.Item item = items.get(i);
+                Window window = new Window(item.startTime(), item.endTime());
+                if (lock == null) {
+                    reservationMetrics.conflict("bulk", ReservationMetrics.Conflict.UNAVAILABLE);
+                    results[i] = BulkReservationResult.conflict(i, carId,
+                            "Car " + carId + " is not available for reservation");
+                } else if (!availabilityIndex.isFree(carId, window.start(), window.end())
+                        || carWindows.stream().anyMatch(window::overlaps)) {
+                    reservationMetrics.conflict("bulk", ReservationMetrics.Conflict.OVERLAP);
+                    results[i] = BulkReservationResult.conflict(i, carId,
+                            "Car " + carId + " is already booked between " + window.start() + " and " + window.end());
+                } else {
+                    carWindows.add(window);
+                    Reservation reservation = new Reservation();
+                    reservation.setCar(car);
+                    reservation.setCustomer(customer);
+                    reservation.setStartTime(window.start());
+                    reservation.setEndTime(window.end());
+                    reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+                    reservation.setTotalCostCents(rateTable.price(carId, lock.getCarType(), lock.getRatePerHour(),
+                            window.start(), window.end()));
+                    accepted.put(i, reservation);
+                }
+            }
+        });
+
+        reservationRepository.saveAll(accepted.values());
+        if (!accepted.isEmpty()) {
+            customerRepository.adjustActiveReservations(customerId, accepted.size());
+        }
+        Set<String> booked = new LinkedHashSet<>();
+        accepted.values().forEach(reservation -> booked.add(reservation.getCar().getId()));
+        carRepository.markAllReserved(booked);
+        fleetCounters.recordStatusChange(Car.CarStatus.AVAILABLE, Car.CarStatus.RESERVED, booked.stream()
+                .filter(carId -> locked.get(carId).getCarStatus() == Car.CarStatus.AVAILABLE)
+                .count());
+        booked.forEach(carId -> changeStream.emit(new FleetChange.StatusChanged(carId,
+                locked.get(carId).getVersion() + 1, Car.CarStatus.RESERVED)));
+        accepted.forEach((i, reservation) -> {
+            availabilityIndex.book(reservation.getCar().getId(), reservation.getReservationId(),
+                    reservation.getStartTime(), reservation.getEndTime());
+            changeStream.emit(new FleetChange.Booked(reservation.getCar().getId(), reservation.getReservationId(),
+                    reservation.getVersion(), reservation.getStartTime(), reservation.getEndTime()));
+            results[i] = BulkReservationResult.confirmed(i, reservation.getCar().getId(), reservation.getReservationId());
+        });
+        reservationMetrics.booked("bulk", accepted.size());
+
+        log.info("Bulk reservation for customer {}: {} of {} items confirmed.", customerId, accepted.size(), items.size());
+        return Arrays.asList(results);
     }
 
     @Override
@@ -74,21 +263,59 @@ public class CustomerServiceImpl implements CustomerService {
         var reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
+        carRepository.forceVersionIncrement(reservation.getCar());
+        boolean wasActive = reservation.getStatus() == Reservation.ReservationStatus.CONFIRMED;
         reservation.cancel();
+        releaseBooking(reservation);
         reservationRepository.save(reservation);
+        if (wasActive && reservation.getCustomer() != null) {
+            customerRepository.adjustActiveReservations(reservation.getCustomer().getId(), -1);
+        }
 
         carRepository.save(reservation.getCar());
-        customerRepository.save(reservation.getCustomer());
+        reservationMetrics.cancelled("customer");
         log.info("Reservation with ID: {} has been cancelled.", reservationId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public void viewMyReservations(String customerId) {
-        List<Reservation> reservations = reservationRepository.findByCustomerId(customerId);
+        List<ReservationSummary> reservations = reservationRepository.findSummariesByCustomerId(customerId);
         reservations.forEach(reservation ->
                     log.info(String.format("ID: %s | Car: %s | Start: %s | End: %s | Status: %s | Cost: $%s",
-                            reservation.getReservationId(), reservation.getCar().getModel(), reservation.getStartTime(),
-                            reservation.getEndTime(), reservation.getStatus(), reservation.getTotalCost()))
+                            reservation.reservationId(), reservation.carModel(), reservation.startTime(),
+                            reservation.endTime(), reservation.status(), reservation.totalCost()))
             );
     }
+
+    private static String validate(BulkReservationRequest.Item item) {
+        if (item == null || item.carId() == null) {
+            return "Each item needs a carId";
+        }
+        if (item.startTime() == null || item.endTime() == null || !item.startTime().isBefore(item.endTime())) {
+            return "Reservation window must have a start before its end";
+        }
+        return null;
+    }
+
+    private record Window(LocalDateTime start, LocalDateTime end) {
+        boolean overlaps(Window other) {
+            return start.isBefore(other.end) && other.start.isBefore(end);
+        }
+    }
+
+    private void releaseBooking(Reservation reservation) {
+        Car car = reservation.getCar();
+        if (reservation.getStartTime() == null || reservation.getEndTime() == null) {
+            return;
+        }
+        availabilityIndex.release(car.getId(), reservation.getReservationId(),
+                reservation.getStartTime(), reservation.getEndTime());
+        // The cancellation bumps the reservation's version when it is flushed
+        changeStream.emit(new FleetChange.Released(car.getId(), reservation.getReservationId(),
+                reservation.getVersion() + 1, reservation.getStartTime(), reservation.getEndTime()));
+        if (availabilityIndex.hasBookingsEndingAfter(car.getId(), LocalDateTime.now())) {
+            car.reserve();
+        }
+    }
 }
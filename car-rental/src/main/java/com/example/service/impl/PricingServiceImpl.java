@@ -0,0 +1,145 @@
+package com.example.service.impl;
+
+import com.example.concurrency.TransactionHooks;
+import com.example.dto.Quote;
+import com.example.dto.QuoteRequest;
+import com.example.metrics.MetricsConfiguration;
+import com.example.models.RateCard;
+import com.example.pricing.PricingEngine;
+import com.example.pricing.RateTable;
+import com.example.repository.CarRepository;
+import com.example.repository.RateCardRepository;
+import com.example.service.PricingService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Rate card administration and quotes. Quotes are priced from one {@link RateTable} snapshot, with a single query
+ * for the cars involved; large requests are priced in parallel on the common fork-join pool, smaller ones on the
+ * request thread, where the hand-off would cost more than the pricing.
+ */
+@Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+@RequiredArgsConstructor
+@Transactional
+public class PricingServiceImpl implements PricingService {
+    private static final Logger log = LoggerFactory.getLogger(PricingServiceImpl.class);
+    private static final int MAX_QUOTE_ITEMS = 1000;
+    private static final int PARALLEL_THRESHOLD = 256;
+    private final RateCardRepository rateCardRepository;
+    private final CarRepository carRepository;
+    private final PricingEngine pricingEngine;
+
+    @Override
+    public RateCard addRateCard(RateCard rateCard) {
+        validate(rateCard);
+        rateCard.setId(null);
+        RateCard saved = rateCardRepository.save(rateCard);
+        RateTable rateTable = RateTable.compile(rateCardRepository.findAllInEffectOrder());
+        TransactionHooks.afterCommit(() -> pricingEngine.install(rateTable));
+        log.info("Rate card {} added for {}, effective from {}.", saved.getId(),
+                saved.getCarId() != null ? "car " + saved.getCarId() : saved.getCarType(), saved.getEffectiveFrom());
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RateCard> viewRateCards() {
+        return rateCardRepository.findAllInEffectOrder();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Quote> quote(List<QuoteRequest.Item> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("A quote needs at least one item");
+        }
+        if (items.size() > MAX_QUOTE_ITEMS) {
+            throw new IllegalArgumentException("A quote takes at most " + MAX_QUOTE_ITEMS + " items");
+        }
+        Set<String> carIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(QuoteRequest.Item::carId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<String, CarRepository.CarRate> cars = carIds.isEmpty() ? Map.of()
+                : carRepository.findCarRates(carIds).stream()
+                .collect(Collectors.toMap(CarRepository.CarRate::getId, Function.identity()));
+
+        RateTable rateTable = pricingEngine.rateTable();
+        Quote[] quotes = new Quote[items.size()];
+        IntStream indexes = IntStream.range(0, items.size());
+        if (items.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> quotes[i] = quote(i, items.get(i), cars, rateTable));
+        return Arrays.asList(quotes);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${car-rental.pricing.refresh-interval:PT1M}",
+            fixedDelayString = "${car-rental.pricing.refresh-interval:PT1M}")
+    public void reloadRateCards() {
+        RateTable rateTable = RateTable.compile(rateCardRepository.findAllInEffectOrder());
+        pricingEngine.install(rateTable);
+        log.debug("Rate table compiled from {} rate cards.", rateTable.size());
+    }
+
+    private static Quote quote(int index, QuoteRequest.Item item, Map<String, CarRepository.CarRate> cars,
+                               RateTable rateTable) {
+        if (item == null || item.carId() == null || item.startTime() == null || item.endTime() == null) {
+            return Quote.rejected(index, item == null ? null : item.carId(),
+                    "carId, startTime and endTime are required");
+        }
+        if (!item.startTime().isBefore(item.endTime())) {
+            return Quote.rejected(index, item.carId(), "startTime must be before endTime");
+        }
+        CarRepository.CarRate car = cars.get(item.carId());
+        if (car == null) {
+            return Quote.rejected(index, item.carId(), "Car " + item.carId() + " not found");
+        }
+        return Quote.priced(index, item.carId(), rateTable.price(car.getId(), car.getCarType(), car.getRatePerHour(),
+                item.startTime(), item.endTime()));
+    }
+
+    private void validate(RateCard rateCard) {
+        if ((rateCard.getCarType() == null) == (rateCard.getCarId() == null)) {
+            throw new IllegalArgumentException("A rate card applies to either a carType or a carId");
+        }
+        if (rateCard.getEffectiveFrom() == null) {
+            throw new IllegalArgumentException("effectiveFrom is required");
+        }
+        if (rateCard.getHourlyCents() <= 0) {
+            throw new IllegalArgumentException("hourlyCents must be positive");
+        }
+        if (isNotPositive(rateCard.getDailyCapCents()) || isNotPositive(rateCard.getWeeklyCapCents())
+                || rateCard.getMinimumChargeCents() < 0) {
+            throw new IllegalArgumentException("Caps must be positive and the minimum charge must not be negative");
+        }
+        if (rateCard.getCarId() != null && !carRepository.existsById(rateCard.getCarId())) {
+            throw new IllegalArgumentException("Car " + rateCard.getCarId() + " not found");
+        }
+    }
+
+    private static boolean isNotPositive(Long cents) {
+        return cents != null && cents <= 0;
+    }
+}
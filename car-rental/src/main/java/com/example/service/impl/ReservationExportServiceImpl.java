@@ -0,0 +1,62 @@
+package com.example.service.impl;
+
+import com.example.dto.ReservationExportFilter;
+import com.example.metrics.MetricsConfiguration;
+import com.example.models.Reservation;
+import com.example.repository.ReservationRepository;
+import com.example.service.ReservationExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Timed(MetricsConfiguration.SERVICE_TIMER)
+@RequiredArgsConstructor
+@Transactional
+public class ReservationExportServiceImpl implements ReservationExportService {
+    private static final Logger log = LoggerFactory.getLogger(ReservationExportServiceImpl.class);
+    private static final int BATCH_SIZE = 500;
+    private final ReservationRepository reservationRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportReservations(ReservationExportFilter filter, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<Reservation> reservations = reservationRepository.streamForExport(
+                filter.status(), filter.from(), filter.to());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+            Iterator<Reservation> rows = reservations.iterator();
+            while (rows.hasNext()) {
+                writer.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                if (++written % BATCH_SIZE == 0) {
+                    // Detach what was written so the persistence context stays at one batch of rows.
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        log.info("Exported {} reservations.", written);
+        return written;
+    }
+}
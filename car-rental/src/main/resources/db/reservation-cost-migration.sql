@@ -0,0 +1,12 @@
+-- Migration of reservations.total_cost (DOUBLE, currency units) to total_cost_cents (BIGINT, cents).
+--
+-- The schema is created by Hibernate (ddl-auto) in development, so this script only matters for
+-- databases that already hold reservations. The old version writes only total_cost and the new one
+-- only total_cost_cents, so the two cannot run side by side: run the script in a maintenance window,
+-- before deploying the new application version. Costs are rounded half up to the cent, which is what
+-- the old version showed.
+
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS total_cost_cents BIGINT;
+UPDATE reservations SET total_cost_cents = CAST(ROUND(total_cost * 100) AS BIGINT) WHERE total_cost_cents IS NULL;
+ALTER TABLE reservations ALTER COLUMN total_cost_cents SET NOT NULL;
+ALTER TABLE reservations DROP COLUMN total_cost;
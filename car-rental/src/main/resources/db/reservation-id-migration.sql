@@ -0,0 +1,17 @@
+-- Migration of reservations.reservation_id from VARCHAR (UUID text) to the native UUID type.
+--
+-- The schema is created by Hibernate (ddl-auto) in development, so this script only matters for
+-- databases that already hold reservations. Existing random (version 4) ids convert as they are and
+-- keep their text form, so ids already handed to clients stay valid; new ids are time-ordered
+-- (version 7). The conversion rewrites the table and its indexes, so run it in a maintenance window,
+-- before deploying the new application version.
+
+-- Check first: this must return 0, otherwise fix the listed ids by hand before converting.
+SELECT reservation_id FROM reservations
+ WHERE NOT REGEXP_LIKE(reservation_id, '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$');
+
+ALTER TABLE reservations ALTER COLUMN reservation_id SET DATA TYPE UUID;
+
+-- Rebuild the secondary index that carries the id, so it picks up the 16-byte keys.
+DROP INDEX IF EXISTS idx_reservations_start_id;
+CREATE INDEX idx_reservations_start_id ON reservations (start_time, reservation_id);
@@ -0,0 +1,37 @@
+-- Online migration of reservations.start_time / end_time from VARCHAR (ISO-8601 text) to TIMESTAMP.
+--
+-- The schema is created by Hibernate (ddl-auto) in development, so this script only matters for
+-- databases that already hold reservations in the old text columns. Run the phases in order:
+--   1. prepare, while the old version is live; then roll out the new version, which reads and
+--      writes the text columns through H2's conversions;
+--   2. check, once no old version is left;
+--   3. convert, as one cutover.
+-- The columns keep their names throughout. H2 rewrites the table for any ALTER that adds, drops or
+-- retypes a column, so converting in place costs no more than filling and swapping in new columns,
+-- and there is no moment at which a statement of either version finds a column missing and no second
+-- copy of the times that could fall behind.
+
+-- Phase 1: prepare. The trigger stores every time written from now on in the old version's ISO-8601
+-- form, whichever version writes it, so that old instances can read the new version's rows during the
+-- rollout. The trigger class is not part of the application; it lives in the test sources, where
+-- ReservationTimesMigrationTest runs it, and must be put on the database's classpath for the rollout.
+CREATE TRIGGER IF NOT EXISTS reservations_times_format BEFORE INSERT, UPDATE ON reservations
+    FOR EACH ROW CALL "com.example.data.ReservationTimesTrigger";
+
+-- Phase 2: check. Must return 0, otherwise fix the listed rows by hand; the conversion would fail on them.
+SELECT reservation_id, start_time, end_time FROM reservations
+ WHERE (start_time IS NOT NULL AND NOT REGEXP_LIKE(start_time, '^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}(:\d{2}(\.\d+)?)?$'))
+    OR (end_time IS NOT NULL AND NOT REGEXP_LIKE(end_time, '^\d{4}-\d{2}-\d{2}T\d{2}:\d{2}(:\d{2}(\.\d+)?)?$'));
+
+-- Phase 3: convert, as one cutover. Exclusive mode pauses the other connections' statements until it
+-- is switched off, so the application waits out the table rewrite instead of failing; each ALTER is
+-- atomic and leaves the column in place under its name. H2 refuses new connections meanwhile, so keep
+-- the pool's minimum-idle at its maximum-pool-size for the cutover.
+SET EXCLUSIVE 1;
+DROP TRIGGER IF EXISTS reservations_times_format;
+ALTER TABLE reservations ALTER COLUMN start_time SET DATA TYPE TIMESTAMP;
+ALTER TABLE reservations ALTER COLUMN end_time SET DATA TYPE TIMESTAMP;
+CREATE INDEX IF NOT EXISTS idx_reservations_car_window ON reservations (car_id, start_time, end_time);
+CREATE INDEX IF NOT EXISTS idx_reservations_start_id ON reservations (start_time, reservation_id);
+CREATE INDEX IF NOT EXISTS idx_reservations_end ON reservations (end_time);
+SET EXCLUSIVE 0;
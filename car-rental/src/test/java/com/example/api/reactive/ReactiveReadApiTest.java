@@ -0,0 +1,97 @@
+package com.example.api.reactive;
+
+import com.example.dto.KeysetCursor;
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveReadApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    // The in-memory database is shared with the other test contexts, whose fleet counters would see these as drift
+    @AfterEach
+    void tearDown() {
+        carRepository.deleteAllById(List.of("reactive-1", "reactive-2", "reactive-3", "reactive-4", "reactive-5"));
+    }
+
+    @Test
+    @DisplayName("Should stream available cars written through JPA as NDJSON")
+    void testAvailableCars() {
+        // Given
+        carRepository.saveAll(List.of(
+                new Car("reactive-1", "Ranger", "Ford", Car.CarStatus.AVAILABLE, 41.0, Car.CarType.TRUCK),
+                new Car("reactive-2", "Tundra", "Toyota", Car.CarStatus.MAINTENANCE, 42.0, Car.CarType.TRUCK)));
+
+        // When
+        List<Car> cars = webTestClient.get()
+                .uri("/reactive/api/customer/cars/available?type=TRUCK&size=100")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Car.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Then
+        assertTrue(cars.stream().anyMatch(car -> car.getId().equals("reactive-1") && car.getRatePerHour() == 41.0));
+        assertTrue(cars.stream().noneMatch(car -> car.getId().equals("reactive-2")));
+        assertTrue(cars.stream().allMatch(car -> car.getCarType() == Car.CarType.TRUCK));
+    }
+
+    @Test
+    @DisplayName("Should continue the admin car listing from an MVC cursor in rate and id order")
+    void testAdminCarsFromCursor() {
+        // Given
+        carRepository.saveAll(List.of(
+                new Car("reactive-3", "Model 3", "Tesla", Car.CarStatus.AVAILABLE, 9001.0, Car.CarType.SEDAN),
+                new Car("reactive-4", "Model Y", "Tesla", Car.CarStatus.RENTED, 9001.0, Car.CarType.SUV),
+                new Car("reactive-5", "Model X", "Tesla", Car.CarStatus.AVAILABLE, 9002.0, Car.CarType.SUV)));
+        String cursor = new KeysetCursor("9001.0", "reactive-3").encode();
+
+        // When
+        List<Car> cars = webTestClient.get()
+                .uri("/reactive/api/admin/cars?cursor=" + cursor + "&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Car.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(List.of("reactive-4", "reactive-5"), cars.stream().map(Car::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should answer invalid parameters with a bad request")
+    void testInvalidParameters() {
+        webTestClient.get().uri("/reactive/api/admin/cars?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Invalid cursor");
+
+        webTestClient.get().uri("/reactive/api/customer/cars/available?type=BOAT")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Unknown car type: BOAT");
+    }
+}
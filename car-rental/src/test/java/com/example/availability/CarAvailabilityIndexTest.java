@@ -0,0 +1,150 @@
+package com.example.availability;
+
+import com.example.exception.CarUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CarAvailabilityIndexTest {
+
+    private CarAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarAvailabilityIndex();
+        index.book("car1", "res1", at("2023-10-01T10:00:00"), at("2023-10-01T12:00:00"));
+        index.book("car1", "res2", at("2023-10-03T10:00:00"), at("2023-10-05T10:00:00"));
+    }
+
+    @Test
+    @DisplayName("Should treat windows as half-open")
+    void testIsFree_AdjacentWindows() {
+        assertTrue(index.isFree("car1", at("2023-10-01T12:00:00"), at("2023-10-03T10:00:00")));
+        assertTrue(index.isFree("car1", at("2023-10-01T08:00:00"), at("2023-10-01T10:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should detect every kind of overlap")
+    void testIsFree_Overlaps() {
+        assertFalse(index.isFree("car1", at("2023-10-01T11:00:00"), at("2023-10-01T13:00:00")));
+        assertFalse(index.isFree("car1", at("2023-10-01T09:00:00"), at("2023-10-01T11:00:00")));
+        assertFalse(index.isFree("car1", at("2023-10-04T00:00:00"), at("2023-10-04T01:00:00")));
+        assertFalse(index.isFree("car1", at("2023-09-30T00:00:00"), at("2023-10-06T00:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should consider unknown cars free")
+    void testIsFree_UnknownCar() {
+        assertTrue(index.isFree("car2", at("2023-10-01T10:00:00"), at("2023-10-01T12:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should reject a booking that overlaps an existing one")
+    void testBook_Overlap() {
+        assertThrows(CarUnavailableException.class,
+                () -> index.book("car1", "res3", at("2023-10-04T10:00:00"), at("2023-10-06T10:00:00")));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should reject empty or inverted windows")
+    void testBook_InvalidWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> index.book("car1", "res3", at("2023-10-08T10:00:00"), at("2023-10-08T10:00:00")));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.isFree("car1", at("2023-10-08T10:00:00"), at("2023-10-07T10:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should free a window once its reservation is released")
+    void testRelease() {
+        index.release("car1", "res2", at("2023-10-03T10:00:00"), at("2023-10-05T10:00:00"));
+
+        assertTrue(index.isFree("car1", at("2023-10-03T10:00:00"), at("2023-10-05T10:00:00")));
+        assertTrue(index.hasBookingsEndingAfter("car1", at("2023-10-01T11:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should not count bookings that have ended")
+    void testHasBookingsEndingAfter() {
+        assertTrue(index.hasBookingsEndingAfter("car1", at("2023-10-04T00:00:00")));
+        assertFalse(index.hasBookingsEndingAfter("car1", at("2023-10-05T10:00:00")));
+        assertFalse(index.hasBookingsEndingAfter("car2", at("2023-10-01T00:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should keep persisted bookings that share a start apart")
+    void testLoad_SameStart() {
+        // When
+        boolean first = index.load("car2", "res3", at("2023-10-01T10:00:00"), at("2023-10-01T11:00:00"));
+        boolean second = index.load("car2", "res4", at("2023-10-01T10:00:00"), at("2023-10-01T14:00:00"));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(4, index.size());
+        assertFalse(index.isFree("car2", at("2023-10-01T12:00:00"), at("2023-10-01T13:00:00")));
+        index.release("car2", "res4", at("2023-10-01T10:00:00"), at("2023-10-01T14:00:00"));
+        assertTrue(index.isFree("car2", at("2023-10-01T12:00:00"), at("2023-10-01T13:00:00")));
+        assertFalse(index.isFree("car2", at("2023-10-01T10:30:00"), at("2023-10-01T13:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should see a persisted booking that spans a later, shorter one")
+    void testLoad_Contained() {
+        // When
+        boolean outer = index.load("car2", "res3", at("2023-10-01T00:00:00"), at("2023-10-05T00:00:00"));
+        boolean inner = index.load("car2", "res4", at("2023-10-01T10:00:00"), at("2023-10-01T20:00:00"));
+
+        // Then
+        assertTrue(outer);
+        assertFalse(inner);
+        assertFalse(index.isFree("car2", at("2023-10-03T00:00:00"), at("2023-10-03T01:00:00")));
+        assertThrows(CarUnavailableException.class,
+                () -> index.book("car2", "res5", at("2023-10-03T00:00:00"), at("2023-10-03T01:00:00")));
+        assertTrue(index.hasBookingsEndingAfter("car2", at("2023-10-02T00:00:00")));
+        index.release("car2", "res3", at("2023-10-01T00:00:00"), at("2023-10-05T00:00:00"));
+        assertTrue(index.isFree("car2", at("2023-10-03T00:00:00"), at("2023-10-03T01:00:00")));
+        assertFalse(index.isFree("car2", at("2023-10-01T12:00:00"), at("2023-10-01T13:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should drop bookings that have ended when pruned")
+    void testPruneEndedBy() {
+        // When
+        long pruned = index.pruneEndedBy(at("2023-10-02T00:00:00"));
+
+        // Then
+        assertEquals(1, pruned);
+        assertEquals(1, index.size());
+        assertFalse(index.isFree("car1", at("2023-10-04T00:00:00"), at("2023-10-04T01:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should ignore a release for a different reservation at the same start")
+    void testRelease_DifferentReservation() {
+        index.release("car1", "other", at("2023-10-03T10:00:00"), at("2023-10-05T10:00:00"));
+
+        assertFalse(index.isFree("car1", at("2023-10-03T10:00:00"), at("2023-10-05T10:00:00")));
+    }
+
+    @Test
+    @DisplayName("Should list only the free cars among the candidates")
+    void testFreeCars() {
+        List<String> free = index.freeCars(List.of("car1", "car2"), at("2023-10-04T10:00:00"), at("2023-10-04T11:00:00"));
+
+        assertEquals(List.of("car2"), free);
+    }
+
+    private static LocalDateTime at(String time) {
+        return LocalDateTime.parse(time);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConflictRetryPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryPolicy = new ConflictRetryPolicy(meterRegistry, 3, Duration.ZERO, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should retry a conflicting write until it succeeds")
+    void testExecute_RetriesUntilSuccess() {
+        // Given - two conflicts before the write goes through
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String result = retryPolicy.execute("booking", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Car", "car1");
+            }
+            return "done";
+        });
+
+        // Then
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("write.conflict.retries", "operation", "booking").count());
+        assertEquals(0.0, meterRegistry.counter("write.conflict.aborts", "operation", "booking").count());
+    }
+
+    @Test
+    @DisplayName("Should give up and rethrow after the last attempt")
+    void testExecute_AbortsAfterMaxAttempts() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> retryPolicy.run("booking", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Car", "car1");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("write.conflict.retries", "operation", "booking").count());
+        assertEquals(1.0, meterRegistry.counter("write.conflict.aborts", "operation", "booking").count());
+    }
+
+    @Test
+    @DisplayName("Should not retry failures that are not concurrency conflicts")
+    void testExecute_DoesNotRetryOtherFailures() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> retryPolicy.run("booking", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Car is not available");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should keep jittered backoff within the capped exponential ceiling")
+    void testBackoffMillis_BoundedByCeiling() {
+        // Given
+        ConflictRetryPolicy policy = new ConflictRetryPolicy(meterRegistry, 5,
+                Duration.ofMillis(10), Duration.ofMillis(50));
+
+        // When & Then
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(policy.backoffMillis(1) <= 10);
+            assertTrue(policy.backoffMillis(2) <= 20);
+            assertTrue(policy.backoffMillis(4) <= 50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid configuration")
+    void testConstructor_InvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConflictRetryPolicy(meterRegistry, 0, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConflictRetryPolicy(meterRegistry, 3, Duration.ofMillis(100), Duration.ofMillis(10)));
+    }
+}
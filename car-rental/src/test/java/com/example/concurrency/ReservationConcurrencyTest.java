@@ -0,0 +1,211 @@
+package com.example.concurrency;
+
+import com.example.dto.BulkReservationRequest;
+import com.example.models.Car;
+import com.example.models.Reservation;
+import com.example.repository.CarRepository;
+import com.example.repository.ReservationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Races real requests for one car against the in-memory H2 database, through the controllers, the conflict retry
+ * policy and the services, so the claim's guarded update, the bulk path's row locks and the admin path's forced
+ * version increment are exercised the way production runs them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReservationConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final LocalDateTime START = LocalDateTime.parse("2032-05-01T10:00:00");
+    private static final LocalDateTime END = LocalDateTime.parse("2032-05-01T14:00:00");
+    private static final List<String> CARS = List.of("race-1", "race-2", "race-3");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    // The in-memory database is shared with the other test contexts, whose fleet counters would see these as drift.
+    // Each test races for its own car, since the availability index still holds the windows deleted here.
+    @AfterEach
+    void tearDown() {
+        for (String carId : CARS) {
+            reservationRepository.deleteAll(reservationRepository.findByCarId(carId));
+        }
+        carRepository.deleteAllById(CARS);
+    }
+
+    @Test
+    @DisplayName("Should commit exactly one of many concurrent bookings of the same car and window")
+    void testConcurrentReservationsOfSameWindow() throws Exception {
+        // Given
+        carRepository.save(new Car("race-1", "Model 3", "Tesla", Car.CarStatus.AVAILABLE, 40.0, Car.CarType.SEDAN));
+        String body = objectMapper.writeValueAsString(Map.of(
+                "customer", Map.of("id", "customer1"),
+                "car", Map.of("id", "race-1"),
+                "startTime", START,
+                "endTime", END));
+
+        // When
+        List<MockHttpServletResponse> responses = race(i -> post("/api/customer/reservation")
+                .with(user("customer").roles("CUSTOMER"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+
+        // Then - one booking wins, every other request is told the car is taken
+        assertEquals(1, count(responses, 200));
+        assertEquals(THREADS - 1, count(responses, 409));
+        assertLosersAnswered(responses, "race-1");
+        assertEquals(1, confirmed("race-1").size());
+        assertEquals(Car.CarStatus.RESERVED, carRepository.findById("race-1").orElseThrow().getCarStatus());
+    }
+
+    @Test
+    @DisplayName("Should confirm the window for exactly one of many concurrent bulk bookings")
+    void testConcurrentBulkReservationsOfSameWindow() throws Exception {
+        // Given
+        carRepository.save(new Car("race-2", "Model 3", "Tesla", Car.CarStatus.AVAILABLE, 40.0, Car.CarType.SEDAN));
+        String body = objectMapper.writeValueAsString(new BulkReservationRequest("customer1",
+                List.of(new BulkReservationRequest.Item("race-2", START, END))));
+
+        // When
+        List<MockHttpServletResponse> responses = race(i -> post("/api/customer/reservations/bulk")
+                .with(user("customer").roles("CUSTOMER"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+
+        // Then - the batches answer per item, so only the item outcomes tell the winner apart
+        int winners = 0;
+        for (MockHttpServletResponse response : responses) {
+            if (response.getStatus() == 200) {
+                winners += response.getContentAsString().contains("\"CONFIRMED\"") ? 1 : 0;
+            } else {
+                assertLoserAnswered(response, "race-2");
+            }
+        }
+        assertEquals(1, winners);
+        assertEquals(1, confirmed("race-2").size());
+    }
+
+    @Test
+    @DisplayName("Should retry admin bookings that lose the car's version race until each one commits or gives up")
+    void testConcurrentAdminReservationsOfDisjointWindows() throws Exception {
+        // Given - every request books its own hour, so only the forced version increment makes them collide
+        carRepository.save(new Car("race-3", "Model 3", "Tesla", Car.CarStatus.AVAILABLE, 40.0, Car.CarType.SEDAN));
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bodies.add(objectMapper.writeValueAsString(Map.of(
+                    "car", Map.of("id", "race-3"),
+                    "startTime", START.plusHours(i),
+                    "endTime", START.plusHours(i + 1))));
+        }
+
+        // When
+        List<MockHttpServletResponse> responses = race(i -> post("/api/admin/reservation/customer1")
+                .with(user("admin").roles("ADMIN"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bodies.get(i)));
+
+        // Then - a request either committed, possibly after retries, or gave up with a hint to come back later
+        int committed = count(responses, 200);
+        assertTrue(committed >= 1);
+        for (MockHttpServletResponse response : responses) {
+            if (response.getStatus() != 200) {
+                assertEquals(409, response.getStatus());
+                assertEquals("1", response.getHeader("Retry-After"));
+            }
+        }
+        assertEquals(committed, confirmed("race-3").size());
+    }
+
+    private List<MockHttpServletResponse> race(IntFunction<RequestBuilder> request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                RequestBuilder builder = request.apply(i);
+                Callable<MockHttpServletResponse> call = () -> {
+                    start.await();
+                    return mockMvc.perform(builder).andReturn().getResponse();
+                };
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+            List<MockHttpServletResponse> responses = new ArrayList<>();
+            for (Future<MockHttpServletResponse> future : futures) {
+                responses.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Reservation> confirmed(String carId) {
+        return reservationRepository.findByCarId(carId).stream()
+                .filter(reservation -> reservation.getStatus() == Reservation.ReservationStatus.CONFIRMED)
+                .toList();
+    }
+
+    private static int count(List<MockHttpServletResponse> responses, int status) {
+        return (int) responses.stream().filter(response -> response.getStatus() == status).count();
+    }
+
+    private static void assertLosersAnswered(List<MockHttpServletResponse> responses, String carId) throws Exception {
+        for (MockHttpServletResponse response : responses) {
+            if (response.getStatus() != 200) {
+                assertLoserAnswered(response, carId);
+            }
+        }
+    }
+
+    // Either the car was already taken, or the request kept losing the race and is told when to come back
+    private static void assertLoserAnswered(MockHttpServletResponse response, String carId) throws Exception {
+        assertEquals(409, response.getStatus());
+        String body = response.getContentAsString();
+        if (response.getHeader("Retry-After") == null) {
+            assertTrue(body.contains("Car " + carId), body);
+        } else {
+            assertEquals("1", response.getHeader("Retry-After"));
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.example.controller;
 
+import com.example.dto.CarImportFormat;
+import com.example.dto.CarImportSummary;
+import com.example.dto.CursorPage;
+import com.example.dto.FleetStatus;
+import com.example.dto.ReservationExportFilter;
+import com.example.dto.ReservationSummary;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.models.Reservation;
+import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.service.AdminService;
+import com.example.service.CarImportService;
+import com.example.service.ReservationExportService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -18,7 +29,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +44,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -37,12 +53,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -58,12 +76,23 @@ class AdminControllerTest {
     @MockBean
     private CustomerRepository customerRepository;
 
-    private ObjectMapper objectMapper = new ObjectMapper();
+    @MockBean
+    private CarRepository carRepository;
+
+    @MockBean
+    private ReservationExportService reservationExportService;
+
+    @MockBean
+    private CarImportService carImportService;
+
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     @BeforeEach
     void setUp() {
         // Reset all mocks before each test to ensure clean state
-        reset(adminService, customerRepository);
+        reset(adminService, customerRepository, carRepository, reservationExportService);
     }
 
     @Test
@@ -104,17 +133,37 @@ class AdminControllerTest {
         car2.setId("CAR2");
         car2.setBrand("Honda");
 
-        when(adminService.viewAllCars()).thenReturn(List.of(car1, car2));
+        when(adminService.viewCars("abc", 2)).thenReturn(new CursorPage<>(List.of(car1, car2), "next"));
 
         // When & Then
         mockMvc.perform(get("/api/admin/cars")
+                        .param("cursor", "abc")
+                        .param("size", "2")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
 
         // Verify service interaction
-        verify(adminService, times(1)).viewAllCars();
+        verify(adminService, times(1)).viewCars("abc", 2);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetFleetStatus() throws Exception {
+        // Given
+        when(adminService.viewFleetStatus()).thenReturn(new FleetStatus(
+                Map.of(Car.CarStatus.AVAILABLE, 7L, Car.CarStatus.RESERVED, 3L), Map.of(Car.CarType.SUV, 10L), 10L));
+
+        // When & Then
+        mockMvc.perform(get("/api/admin/fleet"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byStatus.AVAILABLE").value(7))
+                .andExpect(jsonPath("$.byType.SUV").value(10))
+                .andExpect(jsonPath("$.total").value(10));
+
+        verify(adminService, times(1)).viewFleetStatus();
     }
 
     @Test
@@ -170,15 +219,24 @@ class AdminControllerTest {
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void testGetAllReservations_Success() throws Exception {
+        // Given
+        ReservationSummary reservation = new ReservationSummary("res1", "John Doe", "Camry",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-01T12:00:00"),
+                Reservation.ReservationStatus.CONFIRMED, 50.0);
+        when(adminService.viewReservations(null, 50)).thenReturn(new CursorPage<>(List.of(reservation), null));
+
         // When & Then
         mockMvc.perform(get("/api/admin/reservations")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Reservations displayed in console"));
+                .andExpect(jsonPath("$.items[0].reservationId").value("res1"))
+                .andExpect(jsonPath("$.items[0].customerName").value("John Doe"))
+                .andExpect(jsonPath("$.items[0].carModel").value("Camry"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
 
         // Verify service interaction
-        verify(adminService, times(1)).viewAllReservations();
+        verify(adminService, times(1)).viewReservations(null, 50);
     }
 
     @Test
@@ -187,20 +245,25 @@ class AdminControllerTest {
         // Given - Setup test data
         String customerId = "customer1";
         String carId = "cc1a35f3-c00f-4262-b85a-9fb72f77041a";
-        String startTime = "2024-01-20T10:00:00";
-        String endTime = "2024-01-20T18:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2024-01-20T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2024-01-20T18:00:00");
 
         Customer customer = new Customer();
         customer.setId(customerId);
         customer.setName("John Doe");
         customer.setEmail("john@example.com");
 
+        Car car = new Car();
+        car.setId(carId);
+        car.setCarStatus(Car.CarStatus.AVAILABLE);
+
         // Mock repository response
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(carRepository.findById(carId)).thenReturn(Optional.of(car));
 
         // Mock service method
         doNothing().when(adminService).makeReservationForCustomer(
-                any(Customer.class), any(Car.class), anyString(), anyString());
+                any(Customer.class), any(Car.class), any(LocalDateTime.class), any(LocalDateTime.class));
 
         // Create request body
         Reservation request = new Reservation();
@@ -226,12 +289,13 @@ class AdminControllerTest {
 
         // Verify repository interaction
         verify(customerRepository, times(1)).findById(customerId);
+        verify(carRepository, times(1)).findById(carId);
 
         // Verify service was called with correct parameters
         ArgumentCaptor<Customer> customerCaptor = ArgumentCaptor.forClass(Customer.class);
         ArgumentCaptor<Car> carCaptor = ArgumentCaptor.forClass(Car.class);
-        ArgumentCaptor<String> startCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> endCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> startCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> endCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
 
         verify(adminService, times(1)).makeReservationForCustomer(
                 customerCaptor.capture(),
@@ -345,6 +409,81 @@ class AdminControllerTest {
 
         verify(adminService, times(1)).cancelReservation(reservationId);
     }
-}
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testExportReservations_StreamsNdjson() throws Exception {
+        // Given
+        when(reservationExportService.exportReservations(any(ReservationExportFilter.class), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(1);
+                    out.write("{\"reservationId\":\"res1\"}\n{\"reservationId\":\"res2\"}\n".getBytes());
+                    return 2L;
+                });
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/admin/reservations/export")
+                        .param("status", "CONFIRMED")
+                        .param("from", "2023-10-01T00:00:00")
+                        .param("to", "2023-11-01T00:00:00")
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"reservationId\":\"res1\"}\n{\"reservationId\":\"res2\"}\n"));
+
+        ArgumentCaptor<ReservationExportFilter> filterCaptor = ArgumentCaptor.forClass(ReservationExportFilter.class);
+        verify(reservationExportService, times(1)).exportReservations(filterCaptor.capture(), any(OutputStream.class));
+        assertEquals(ReservationExportFilter.of(Reservation.ReservationStatus.CONFIRMED,
+                "2023-10-01T00:00:00", "2023-11-01T00:00:00"), filterCaptor.getValue());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testExportReservations_InvalidWindow() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/reservations/export")
+                        .param("from", "2023-11-01T00:00:00")
+                        .param("to", "2023-10-01T00:00:00")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(reservationExportService, never()).exportReservations(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testImportCars_Csv() throws Exception {
+        // Given
+        when(carImportService.importCars(eq(CarImportFormat.CSV), any(InputStream.class)))
+                .thenReturn(new CarImportSummary(2, 0, 1, List.of(new CarImportSummary.RejectedRow(3, "Unknown carType: BOAT"))));
+
+        // When & Then
+        mockMvc.perform(post("/api/admin/cars/import")
+                        .with(csrf())
+                        .contentType("text/csv")
+                        .content("id,model,brand,ratePerHour,carType\ncar7,A4,Audi,40,SEDAN\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(3));
 
+        verify(carImportService, times(1)).importCars(eq(CarImportFormat.CSV), any(InputStream.class));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testImportCars_UnsupportedContentType() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/admin/cars/import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().is5xxServerError());
+
+        verify(carImportService, never()).importCars(any(), any());
+    }
+}
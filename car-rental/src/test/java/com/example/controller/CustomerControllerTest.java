@@ -1,5 +1,10 @@
 package com.example.controller;
 
+import com.example.dto.BulkReservationRequest;
+import com.example.dto.BulkReservationResult;
+import com.example.dto.QuoteRequest;
+import com.example.exception.CarUnavailableException;
+import com.example.exception.CustomerNotFoundException;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.models.Reservation;
@@ -7,6 +12,8 @@ import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.service.CustomerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -14,12 +21,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -38,6 +50,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -56,7 +70,9 @@ public class CustomerControllerTest {
     @MockBean
     private CarRepository carRepository;
 
-    private ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     private Reservation testReservation;
 
     @BeforeEach
@@ -77,8 +93,8 @@ public class CustomerControllerTest {
         car.setModel("Toyota Camry");
         testReservation.setCar(car);
 
-        testReservation.setStartTime("2023-10-01T10:00:00");
-        testReservation.setEndTime("2023-10-05T10:00:00");
+        testReservation.setStartTime(LocalDateTime.parse("2023-10-01T10:00:00"));
+        testReservation.setEndTime(LocalDateTime.parse("2023-10-05T10:00:00"));
     }
 
     @Test
@@ -92,32 +108,37 @@ public class CustomerControllerTest {
                 .andExpect(status().isOk());
 
         // Verify service interaction
-        verify(customerService, times(1)).viewAvailableCars();
+        verify(customerService, times(1)).viewAvailableCars(eq(null), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser(username = "customer", roles = {"CUSTOMER"})
+    void testViewAvailableCars_PageParameters() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/customer/cars/available")
+                        .param("type", "SUV")
+                        .param("page", "2")
+                        .param("size", "500")
+                        .param("sort", "ratePerHour,asc")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // Verify the page request is passed through and capped
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(customerService, times(1)).viewAvailableCars(eq(Car.CarType.SUV), pageableCaptor.capture());
+        assertEquals(2, pageableCaptor.getValue().getPageNumber());
+        assertEquals(100, pageableCaptor.getValue().getPageSize());
+        assertEquals(Sort.Direction.ASC, pageableCaptor.getValue().getSort().getOrderFor("ratePerHour").getDirection());
     }
 
 
     @Test
     @WithMockUser(username = "customer", roles = {"CUSTOMER"})
     void testMakeReservation() throws Exception {
-        // Given - Setup mock data
-        Customer foundCustomer = new Customer();
-        foundCustomer.setId("customer1");
-        foundCustomer.setName("John Doe");
-        foundCustomer.setEmail("john@example.com");
-
-        Car foundCar = new Car();
-        foundCar.setId("car1");
-        foundCar.setModel("Toyota Camry");
-        foundCar.setBrand("Toyota");
-
-        // Mock repository calls
-        when(customerRepository.findById("customer1")).thenReturn(Optional.of(foundCustomer));
-        when(carRepository.findById("car1")).thenReturn(Optional.of(foundCar));
-
-        // Mock service method to not throw exception
-        doNothing().when(customerService).makeReservation(
-                any(Customer.class), any(Car.class), anyString(), anyString()
-        );
+        // Given
+        when(customerService.reserve(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn("RES123");
 
         // When & Then
         mockMvc.perform(post("/api/customer/reservation")
@@ -127,36 +148,19 @@ public class CustomerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Reservation created successfully"));
 
-        // Verify interactions with ArgumentCaptor for better verification
-        verify(customerRepository, times(1)).findById("customer1");
-        verify(carRepository, times(1)).findById("car1");
-
-        ArgumentCaptor<Customer> customerCaptor = ArgumentCaptor.forClass(Customer.class);
-        ArgumentCaptor<Car> carCaptor = ArgumentCaptor.forClass(Car.class);
-        ArgumentCaptor<String> startTimeCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> endTimeCaptor = ArgumentCaptor.forClass(String.class);
-
-        verify(customerService, times(1)).makeReservation(
-                customerCaptor.capture(), carCaptor.capture(),
-                startTimeCaptor.capture(), endTimeCaptor.capture()
-        );
-
-        // Assert captured values
-        assertEquals("customer1", customerCaptor.getValue().getId());
-        assertEquals("car1", carCaptor.getValue().getId());
-        assertEquals("2023-10-01T10:00:00", startTimeCaptor.getValue());
-        assertEquals("2023-10-05T10:00:00", endTimeCaptor.getValue());
+        // Verify the fast path was called with the ids from the request, without loading entities
+        verify(customerService, times(1)).reserve("customer1", "car1",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-05T10:00:00"));
+        verify(customerRepository, never()).findById(anyString());
+        verify(carRepository, never()).findById(anyString());
     }
 
     @Test
     @WithMockUser(username = "customer", roles = {"CUSTOMER"})
     void testMakeReservation_shouldReturnErrorWhenCustomerNotFound() throws Exception {
-        // Given - Mock customer not found, but car exists
-        when(customerRepository.findById(anyString())).thenReturn(Optional.empty());
-
-        Car foundCar = new Car();
-        foundCar.setId("car1");
-        when(carRepository.findById("car1")).thenReturn(Optional.of(foundCar));
+        // Given - Service rejects an unknown customer
+        when(customerService.reserve(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(new CustomerNotFoundException("Customer not found"));
 
         // When & Then - Expect error due to customer not found
         MvcResult result = mockMvc.perform(post("/api/customer/reservation")
@@ -168,61 +172,88 @@ public class CustomerControllerTest {
 
         // Verify error message contains expected text (works for both JSON and plain text)
         String responseBody = result.getResponse().getContentAsString();
-        assertTrue(responseBody.contains("Customer not found") ||
-                responseBody.contains("not found") ||
-                responseBody.contains("\"message\""));
+        assertTrue(responseBody.contains("Customer not found"));
 
-        // Verify repository was called but service was not
-        verify(customerRepository, times(1)).findById("customer1");
-        verify(customerService, never()).makeReservation(any(), any(), any(), any());
+        // Verify the service was called once and not retried
+        verify(customerService, times(1)).reserve(any(), any(), any(), any());
     }
 
     @Test
     @WithMockUser(username = "customer", roles = {"CUSTOMER"})
-    void testMakeReservation_shouldReturnErrorWhenCarNotFound() throws Exception {
-        // Given - Customer exists, but car not found
-        Customer foundCustomer = new Customer();
-        foundCustomer.setId("customer1");
-        when(customerRepository.findById("customer1")).thenReturn(Optional.of(foundCustomer));
+    void testMakeReservation_shouldReturnConflictWhenCarCannotBeClaimed() throws Exception {
+        // Given - Car missing or no longer bookable
+        when(customerService.reserve(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(new CarUnavailableException("Car car1 is not available for reservation"));
 
-        when(carRepository.findById(anyString())).thenReturn(Optional.empty());
+        // When & Then
+        MvcResult result = mockMvc.perform(post("/api/customer/reservation")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testReservation)))
+                .andExpect(status().isConflict())
+                .andReturn();
 
-        // When & Then - Expect error due to car not found
+        // Verify error message
+        String responseBody = result.getResponse().getContentAsString();
+        assertTrue(responseBody.contains("not available"));
+        verify(customerService, times(1)).reserve(any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "customer", roles = {"CUSTOMER"})
+    void testMakeReservation_shouldReturnErrorWhenCarNotFound() throws Exception {
+        // Given - Customer exists, but the claim finds no car with that id
+        testReservation.getCar().setId("ghost");
+        when(customerService.reserve("customer1", "ghost", testReservation.getStartTime(), testReservation.getEndTime()))
+                .thenThrow(new CarUnavailableException("Car ghost is not available for reservation"));
+
+        // When & Then - an unknown car is answered like any other car that cannot be booked
         MvcResult result = mockMvc.perform(post("/api/customer/reservation")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testReservation)))
-                .andExpect(status().is5xxServerError()) // RuntimeException causes 500
+                .andExpect(status().isConflict())
+                .andExpect(header().doesNotExist("Retry-After"))
                 .andReturn();
 
-        // Verify error message contains expected text
+        // Verify error message names the car
         String responseBody = result.getResponse().getContentAsString();
-        assertTrue(responseBody.contains("Car not found") ||
-                responseBody.contains("not found") ||
-                responseBody.contains("\"message\""));
-
-        // Verify repository interactions
-        verify(customerRepository, times(1)).findById("customer1");
-        verify(carRepository, times(1)).findById("car1");
-        verify(customerService, never()).makeReservation(any(), any(), any(), any());
+        assertTrue(responseBody.contains("Car ghost"));
+        verify(carRepository, never()).findById(anyString());
     }
 
     @Test
     @WithMockUser(username = "customer", roles = {"CUSTOMER"})
-    void testMakeReservation_shouldReturnErrorWhenServiceThrowsException() throws Exception {
-        // Given - Both repositories return objects, but service throws exception
-        Customer foundCustomer = new Customer();
-        foundCustomer.setId("customer1");
-        Car foundCar = new Car();
-        foundCar.setId("car1");
+    void testMakeBulkReservation_ReturnsPerItemResults() throws Exception {
+        // Given - one item confirmed, one in conflict
+        BulkReservationRequest request = new BulkReservationRequest("customer1", List.of(
+                new BulkReservationRequest.Item("car1", LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-01T12:00:00")),
+                new BulkReservationRequest.Item("car2", LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-01T12:00:00"))));
+        when(customerService.reserveAll(eq("customer1"), any())).thenReturn(List.of(
+                BulkReservationResult.confirmed(0, "car1", "RES1"),
+                BulkReservationResult.conflict(1, "car2", "Car car2 is not available for reservation")));
+
+        // When & Then - a partial failure still answers 200 with one result per item
+        MvcResult result = mockMvc.perform(post("/api/customer/reservations/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
 
-        when(customerRepository.findById("customer1")).thenReturn(Optional.of(foundCustomer));
-        when(carRepository.findById("car1")).thenReturn(Optional.of(foundCar));
+        String responseBody = result.getResponse().getContentAsString();
+        assertTrue(responseBody.contains("\"outcome\":\"CONFIRMED\""));
+        assertTrue(responseBody.contains("\"outcome\":\"CONFLICT\""));
+        verify(customerService, times(1)).reserveAll("customer1", request.items());
+    }
 
-        // Service throws exception
-        doThrow(new RuntimeException("Car not available for reservation"))
+    @Test
+    @WithMockUser(username = "customer", roles = {"CUSTOMER"})
+    void testMakeReservation_shouldReturnErrorWhenServiceThrowsException() throws Exception {
+        // Given - Service throws exception
+        doThrow(new RuntimeException("Database error"))
                 .when(customerService)
-                .makeReservation(any(Customer.class), any(Car.class), anyString(), anyString());
+                .reserve(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
 
         // When & Then
         MvcResult result = mockMvc.perform(post("/api/customer/reservation")
@@ -234,13 +265,9 @@ public class CustomerControllerTest {
 
         // Verify error message
         String responseBody = result.getResponse().getContentAsString();
-        assertTrue(responseBody.contains("not available") ||
-                responseBody.contains("Car not available"));
+        assertTrue(responseBody.contains("Database error"));
 
-        // Verify all components were called
-        verify(customerRepository, times(1)).findById("customer1");
-        verify(carRepository, times(1)).findById("car1");
-        verify(customerService, times(1)).makeReservation(any(), any(), any(), any());
+        verify(customerService, times(1)).reserve(any(), any(), any(), any());
     }
 
     @Test
@@ -285,6 +312,42 @@ public class CustomerControllerTest {
         verify(customerService, times(1)).cancelReservation(reservationId);
     }
 
+    @Test
+    @WithMockUser(username = "customer", roles = {"CUSTOMER"})
+    void testCancelReservation_RetriesConflictsThenReturnsConflict() throws Exception {
+        // Given - every attempt loses the optimistic-locking race
+        String reservationId = "res123";
+        doThrow(new ObjectOptimisticLockingFailureException(Reservation.class, reservationId))
+                .when(customerService).cancelReservation(reservationId);
+
+        // When & Then
+        mockMvc.perform(delete("/api/customer/reservation/{id}", reservationId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+
+        // Verify the configured number of attempts was made
+        verify(customerService, times(5)).cancelReservation(reservationId);
+    }
+
+    @Test
+    @WithMockUser(username = "customer", roles = {"CUSTOMER"})
+    void testCancelReservation_LockTimeoutReturnsRetryableConflict() throws Exception {
+        // Given - every attempt times out waiting for the row lock
+        String reservationId = "res123";
+        doThrow(new CannotAcquireLockException("Timeout trying to lock table"))
+                .when(customerService).cancelReservation(reservationId);
+
+        // When & Then
+        mockMvc.perform(delete("/api/customer/reservation/{id}", reservationId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(customerService, times(5)).cancelReservation(reservationId);
+    }
+
     @Test
     @WithMockUser(username = "customer", roles = {"CUSTOMER"})
     void testViewMyReservation() throws Exception {
@@ -335,8 +398,8 @@ public class CustomerControllerTest {
         Car car = new Car();
         car.setId("car1");
         invalidReservation.setCar(car);
-        invalidReservation.setStartTime("2023-10-01T10:00:00");
-        invalidReservation.setEndTime("2023-10-05T10:00:00");
+        invalidReservation.setStartTime(LocalDateTime.parse("2023-10-01T10:00:00"));
+        invalidReservation.setEndTime(LocalDateTime.parse("2023-10-05T10:00:00"));
         // Missing customer
 
         // When & Then - Should handle null customer gracefully
@@ -347,6 +410,53 @@ public class CustomerControllerTest {
                 .andExpect(status().is5xxServerError()); // NullPointerException or similar
 
         // Verify repositories were not called properly due to null customer
-        verify(customerService, never()).makeReservation(any(), any(), any(), any());
+        verify(customerService, never()).reserve(any(), any(), any(), any());
+    }
+
+    @Test
+    void testQuote() throws Exception {
+        // Given
+        LocalDateTime start = LocalDateTime.parse("2030-10-01T10:00:00");
+        when(carRepository.findCarRates(any())).thenReturn(List.of(carRate("car1", 50.0, Car.CarType.SEDAN)));
+        QuoteRequest request = new QuoteRequest(List.of(
+                new QuoteRequest.Item("car1", start, start.plusHours(4)),
+                new QuoteRequest.Item("car2", start, start.plusHours(4))));
+
+        // When & Then
+        mockMvc.perform(post("/api/customer/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].totalCostCents").value(20000))
+                .andExpect(jsonPath("$[1].reason").value("Car car2 not found"));
+    }
+
+    private static CarRepository.CarRate carRate(String id, double ratePerHour, Car.CarType carType) {
+        return new CarRepository.CarRate() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public double getRatePerHour() {
+                return ratePerHour;
+            }
+
+            @Override
+            public Car.CarStatus getCarStatus() {
+                return Car.CarStatus.AVAILABLE;
+            }
+
+            @Override
+            public Car.CarType getCarType() {
+                return carType;
+            }
+
+            @Override
+            public long getVersion() {
+                return 0;
+            }
+        };
     }
 }
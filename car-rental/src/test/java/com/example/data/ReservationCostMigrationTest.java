@@ -0,0 +1,99 @@
+package com.example.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReservationCostMigrationTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:cost_migration;DB_CLOSE_DELAY=-1", "sa", "");
+        execute("CREATE TABLE reservations (reservation_id VARCHAR(36) PRIMARY KEY, car_id VARCHAR(255), "
+                + "status VARCHAR(20), total_cost DOUBLE NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Should move every cost to whole cents and drop the old column")
+    void testMigration() throws Exception {
+        // Given
+        insert("res1", 120.0);
+        insert("res2", 19.99);
+        insert("res3", 0.125);
+
+        // When
+        for (String sql : script().split(";")) {
+            if (!sql.isBlank()) {
+                execute(sql);
+            }
+        }
+
+        // Then
+        assertEquals(12000, cents("res1"));
+        assertEquals(1999, cents("res2"));
+        assertEquals(13, cents("res3"));
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "RESERVATIONS", "TOTAL_COST")) {
+            assertFalse(columns.next());
+        }
+        assertThrows(SQLException.class, () -> execute("INSERT INTO reservations (reservation_id, car_id, status) "
+                + "VALUES ('res4', 'car1', 'CONFIRMED')"));
+    }
+
+    private void insert(String id, double totalCost) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO reservations "
+                + "(reservation_id, car_id, status, total_cost) VALUES (?, 'car1', 'CONFIRMED', ?)")) {
+            statement.setString(1, id);
+            statement.setDouble(2, totalCost);
+            statement.executeUpdate();
+        }
+    }
+
+    private long cents(String id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT total_cost_cents FROM reservations WHERE reservation_id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getLong(1);
+            }
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * The script without its comment lines.
+     */
+    private static String script() throws IOException {
+        try (InputStream in = ReservationCostMigrationTest.class.getResourceAsStream("/db/reservation-cost-migration.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        }
+    }
+}
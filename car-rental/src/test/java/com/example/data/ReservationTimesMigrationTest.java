@@ -0,0 +1,216 @@
+package com.example.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReservationTimesMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:times_migration;DB_CLOSE_DELAY=-1";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+        execute("CREATE TABLE reservations (reservation_id VARCHAR(36) PRIMARY KEY, car_id VARCHAR(255), "
+                + "status VARCHAR(20), start_time VARCHAR(32), end_time VARCHAR(32))");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Should keep every row's times, whichever version wrote it and whenever")
+    void testMigration() throws Exception {
+        // Given - rows from before the migration
+        writeText("res1", "2024-05-01T10:00", "2024-05-01T12:00");
+        writeText("res2", "2024-05-02T10:00:30", "2024-05-02T12:00");
+        Map<String, List<String>> phases = phases();
+
+        // When - both versions write during the rollout
+        run(phases.get("1"));
+        writeText("res3", "2024-05-03T10:00", "2024-05-03T12:00");
+        writeTyped("res4", LocalDateTime.parse("2024-05-04T10:00"), LocalDateTime.parse("2024-05-04T12:00"));
+        execute("UPDATE reservations SET start_time = '2024-05-01T09:00' WHERE reservation_id = 'res1'");
+
+        // Then - the old version can parse what the new one wrote, and the new one reads either
+        assertEquals("2024-05-04T10:00", readText("res4"));
+        assertEquals(LocalDateTime.parse("2024-05-03T10:00"), readTime("res3"));
+        assertEquals(0, count(phases.get("2").get(0)));
+
+        // When - the cutover converts the columns in place
+        run(phases.get("3"));
+
+        // Then
+        assertEquals("TIMESTAMP", columnType("START_TIME"));
+        assertEquals("TIMESTAMP", columnType("END_TIME"));
+        assertEquals(LocalDateTime.parse("2024-05-01T09:00"), readTime("res1"));
+        assertEquals(LocalDateTime.parse("2024-05-02T10:00:30"), readTime("res2"));
+        assertEquals(LocalDateTime.parse("2024-05-03T10:00"), readTime("res3"));
+        assertEquals(LocalDateTime.parse("2024-05-04T10:00"), readTime("res4"));
+        writeTyped("res5", LocalDateTime.parse("2024-05-05T10:00"), LocalDateTime.parse("2024-05-05T12:00"));
+        assertEquals(LocalDateTime.parse("2024-05-05T10:00"), readTime("res5"));
+    }
+
+    @Test
+    @DisplayName("Should hold other connections' queries until the cutover is done rather than fail them")
+    void testCutoverPausesOtherConnections() throws Exception {
+        // Given
+        writeText("res1", "2024-05-01T10:00", "2024-05-01T12:00");
+        Map<String, List<String>> phases = phases();
+        run(phases.get("1"));
+        List<String> cutover = phases.get("3");
+
+        // When - a pooled connection, opened beforehand, queries the reservation times in the middle of the cutover
+        try (Connection other = DriverManager.getConnection(URL, "sa", "")) {
+            run(cutover.subList(0, 3));
+            CompletableFuture<LocalDateTime> concurrent = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return readTime(other, "res1");
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(concurrent.isDone());
+            run(cutover.subList(3, cutover.size()));
+
+            // Then
+            assertEquals(LocalDateTime.parse("2024-05-01T10:00"), concurrent.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a time that the conversion could not read")
+    void testTriggerRefusesUnreadableTimes() throws Exception {
+        run(phases().get("1"));
+
+        assertThrows(SQLException.class, () -> writeText("res1", "next tuesday", "2024-05-01T12:00"));
+    }
+
+    private void writeText(String id, String start, String end) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO reservations "
+                + "(reservation_id, car_id, status, start_time, end_time) VALUES (?, 'car1', 'CONFIRMED', ?, ?)")) {
+            statement.setString(1, id);
+            statement.setString(2, start);
+            statement.setString(3, end);
+            statement.executeUpdate();
+        }
+    }
+
+    private void writeTyped(String id, LocalDateTime start, LocalDateTime end) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO reservations "
+                + "(reservation_id, car_id, status, start_time, end_time) VALUES (?, 'car1', 'CONFIRMED', ?, ?)")) {
+            statement.setString(1, id);
+            statement.setObject(2, start);
+            statement.setObject(3, end);
+            statement.executeUpdate();
+        }
+    }
+
+    private String readText(String id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT start_time FROM reservations WHERE reservation_id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getString(1);
+            }
+        }
+    }
+
+    private int count(String query) throws SQLException {
+        int rows = 0;
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(query)) {
+            while (result.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private LocalDateTime readTime(String id) throws SQLException {
+        return readTime(connection, id);
+    }
+
+    private static LocalDateTime readTime(Connection connection, String id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT start_time FROM reservations WHERE reservation_id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getObject(1, LocalDateTime.class);
+            }
+        }
+    }
+
+    private String columnType(String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "RESERVATIONS", column)) {
+            columns.next();
+            return columns.getString("TYPE_NAME");
+        }
+    }
+
+    private void run(List<String> statements) throws SQLException {
+        for (String sql : statements) {
+            execute(sql);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * The script's statements, grouped by the "-- Phase N" comment that precedes them.
+     */
+    private static Map<String, List<String>> phases() throws IOException {
+        String script;
+        try (InputStream in = ReservationTimesMigrationTest.class.getResourceAsStream("/db/reservation-times-migration.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Map<String, List<String>> phases = new LinkedHashMap<>();
+        List<String> current = null;
+        StringBuilder statement = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (line.startsWith("-- Phase ")) {
+                current = phases.computeIfAbsent(line.substring(9, line.indexOf(':')), phase -> new ArrayList<>());
+            } else if (current != null && !line.startsWith("--") && !line.isBlank()) {
+                statement.append(line).append('\n');
+                if (line.stripTrailing().endsWith(";")) {
+                    current.add(statement.toString().strip().replaceAll(";$", ""));
+                    statement.setLength(0);
+                }
+            }
+        }
+        return phases;
+    }
+}
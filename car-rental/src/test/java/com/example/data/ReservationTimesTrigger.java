@@ -0,0 +1,60 @@
+package com.example.data;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Keeps the text columns {@code reservations.start_time}/{@code end_time} in the ISO-8601 form the text-column
+ * version of the application parses, while db/reservation-times-migration.sql runs. The timestamp version writes
+ * {@code LocalDateTime}s, which H2 would store as {@code 2024-05-01 10:00:00}; rewritten, every row written by either
+ * version stays readable by both until the columns are converted. Dropped again at the cutover.
+ */
+public class ReservationTimesTrigger implements Trigger {
+    private int startTime = -1;
+    private int endTime = -1;
+
+    @Override
+    public void init(Connection connection, String schemaName, String triggerName, String tableName, boolean before,
+                     int type) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (columns.next()) {
+                int index = columns.getInt("ORDINAL_POSITION") - 1;
+                switch (columns.getString("COLUMN_NAME").toLowerCase(Locale.ROOT)) {
+                    case "start_time" -> startTime = index;
+                    case "end_time" -> endTime = index;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (startTime < 0 || endTime < 0) {
+            throw new SQLException("Table " + tableName + " lacks the reservation time columns");
+        }
+    }
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        newRow[startTime] = normalize(newRow[startTime]);
+        newRow[endTime] = normalize(newRow[endTime]);
+    }
+
+    /**
+     * {@code 2024-05-01T10:00} for the text the old version writes as well as for H2's rendering of the new version's
+     * timestamps; anything else that does not parse is refused, so it cannot fail the conversion later.
+     */
+    static String normalize(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.toString().trim().replace(' ', 'T')).toString();
+        } catch (RuntimeException e) {
+            throw new SQLException("Unreadable reservation time: " + value, e);
+        }
+    }
+}
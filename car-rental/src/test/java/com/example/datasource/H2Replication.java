@@ -0,0 +1,59 @@
+package com.example.datasource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for replication between two H2 databases: {@link #sync()} scripts what has been committed on the primary
+ * and replays it on the replica, replacing whatever the replica held. Between two syncs the replica keeps serving the
+ * older state, which is how a lagging replica looks to the application.
+ */
+class H2Replication {
+    private final DataSource primary;
+    private final String replicaUrl;
+    private final String username;
+    private final String password;
+
+    H2Replication(DataSource primary, String replicaUrl, String username, String password) {
+        this.primary = primary;
+        this.replicaUrl = replicaUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    void sync() {
+        try {
+            List<String> script = script();
+            try (Connection replica = DriverManager.getConnection(replicaUrl, username, password);
+                 Statement statement = replica.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : script) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not replicate " + replicaUrl, e);
+        }
+    }
+
+    private List<String> script() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+            while (rows.next()) {
+                String sql = rows.getString(1);
+                if (!sql.startsWith("--")) {
+                    script.add(sql);
+                }
+            }
+        }
+        return script;
+    }
+}
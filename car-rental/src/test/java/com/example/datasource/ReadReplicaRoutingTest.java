@@ -0,0 +1,161 @@
+package com.example.datasource;
+
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import com.example.service.AdminService;
+import com.example.service.CustomerService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The replica profile gives this class a primary database of its own, so the bookings below stay out of testdb
+@SpringBootTest
+@ActiveProfiles("replica")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${car-rental.read-replica.url}")
+    private String replicaUrl;
+
+    private H2Replication replication;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        replication = new H2Replication(primaryDataSource, replicaUrl, primaryDataSource.getUsername(),
+                primaryDataSource.getPassword());
+        replication.sync();
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should run read-only transactions on the replica pool and the others on the primary")
+    void testRouting() {
+        // When & Then - the connection is held by the transaction while it runs
+        readOnly.executeWithoutResult(status -> {
+            carRepository.findBatchAfter("", Limit.of(1));
+            assertEquals(1, replicaDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals("REPLICA", currentDatabase());
+        });
+        readWrite.executeWithoutResult(status -> {
+            carRepository.findBatchAfter("", Limit.of(1));
+            assertEquals(0, replicaDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertTrue(primaryDataSource.getHikariPoolMXBean().getActiveConnections() >= 1);
+            assertEquals("PRIMARY", currentDatabase());
+        });
+    }
+
+    @Test
+    @DisplayName("Should read what was last replicated in read-only transactions until the replica catches up")
+    void testReplicaLag() {
+        // Given
+        assertEquals(0, countReadOnly("select count(*) from reservations where car_id = 'car3'"));
+
+        // When
+        customerService.reserve("customer1", "car3", LocalDateTime.parse("2031-05-01T10:00:00"),
+                LocalDateTime.parse("2031-05-01T12:00:00"));
+
+        // Then
+        assertEquals(0, countReadOnly("select count(*) from reservations where car_id = 'car3'"));
+        assertEquals(0, countReadOnly("select count(*) from cars where id = 'car3' and car_status = 'RESERVED'"));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from reservations where car_id = 'car3'",
+                Long.class));
+        replication.sync();
+        assertEquals(1, countReadOnly("select count(*) from reservations where car_id = 'car3'"));
+        assertEquals(1, countReadOnly("select count(*) from cars where id = 'car3' and car_status = 'RESERVED'"));
+    }
+
+    @Test
+    @DisplayName("Should serve the admin's reservation listing from the replica")
+    void testServiceListingUsesReplica() {
+        // Given
+        long before = replicaUsage();
+        customerService.reserve("customer1", "car3", LocalDateTime.parse("2031-06-01T10:00:00"),
+                LocalDateTime.parse("2031-06-01T12:00:00"));
+
+        // When
+        int lagging = adminService.viewReservations(null, 10).items().size();
+        replication.sync();
+        int replicated = adminService.viewReservations(null, 10).items().size();
+
+        // Then
+        assertEquals(before + 2, replicaUsage());
+        assertEquals(lagging + 1, replicated);
+    }
+
+    @Test
+    @DisplayName("Should load read-only entities and never flush changes to them")
+    void testReadOnlySession() {
+        // When
+        readOnly.executeWithoutResult(status -> {
+            Car car = entityManager.createQuery("select c from Car c where c.id = 'car1'", Car.class)
+                    .getSingleResult();
+            assertTrue(entityManager.unwrap(Session.class).isReadOnly(car));
+            car.setRatePerHour(999.0);
+        });
+
+        // Then
+        Car reloaded = carRepository.findById("car1").orElseThrow();
+        assertFalse(reloaded.getRatePerHour() == 999.0);
+    }
+
+    private long countReadOnly(String sql) {
+        return readOnly.execute(status -> jdbcTemplate.queryForObject(sql, Long.class));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+    private long replicaUsage() {
+        return meterRegistry.get("hikaricp.connections.usage").tag("pool", ReadReplicaConfiguration.REPLICA_POOL)
+                .timer().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.fleet;
+
+import com.example.models.Car;
+import com.example.models.Customer;
+import com.example.repository.CarRepository;
+import com.example.repository.CustomerRepository;
+import com.example.service.CustomerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class FleetCountersTest {
+
+    @Autowired
+    private FleetCounters fleetCounters;
+
+    @Autowired
+    private FleetCounterAudit fleetCounterAudit;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should count committed car changes and ignore rolled back ones")
+    void testEntityChanges() {
+        // Given
+        long available = fleetCounters.count(Car.CarStatus.AVAILABLE);
+        long maintenance = fleetCounters.count(Car.CarStatus.MAINTENANCE);
+        long trucks = fleetCounters.count(Car.CarType.TRUCK);
+
+        // When - a car is added
+        carRepository.save(new Car("fleet-1", "Hilux", "Toyota", Car.CarStatus.AVAILABLE, 40.0, Car.CarType.TRUCK));
+
+        // Then
+        assertEquals(available + 1, fleetCounters.count(Car.CarStatus.AVAILABLE));
+        assertEquals(trucks + 1, fleetCounters.count(Car.CarType.TRUCK));
+
+        // When - a change is rolled back
+        transactionTemplate.executeWithoutResult(status -> {
+            carRepository.findById("fleet-1").orElseThrow().setCarStatus(Car.CarStatus.MAINTENANCE);
+            carRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        // Then - nothing moved
+        assertEquals(available + 1, fleetCounters.count(Car.CarStatus.AVAILABLE));
+        assertEquals(maintenance, fleetCounters.count(Car.CarStatus.MAINTENANCE));
+
+        // When - the same change commits, then the car is removed
+        transactionTemplate.executeWithoutResult(status ->
+                carRepository.findById("fleet-1").orElseThrow().setCarStatus(Car.CarStatus.MAINTENANCE));
+        assertEquals(available, fleetCounters.count(Car.CarStatus.AVAILABLE));
+        assertEquals(maintenance + 1, fleetCounters.count(Car.CarStatus.MAINTENANCE));
+        carRepository.deleteById("fleet-1");
+
+        // Then
+        assertEquals(maintenance, fleetCounters.count(Car.CarStatus.MAINTENANCE));
+        assertEquals(trucks, fleetCounters.count(Car.CarType.TRUCK));
+    }
+
+    @Test
+    @DisplayName("Should move the fleet and customer counts with fast-path bookings and cancellations")
+    void testBookingAndCancellation() {
+        // Given
+        carRepository.save(new Car("fleet-2", "Octavia", "Skoda", Car.CarStatus.AVAILABLE, 30.0, Car.CarType.SEDAN));
+        customerRepository.save(new Customer("fleet-customer-2", "Ada", "ada@example.com", "555-0102", "DL-2"));
+        long available = fleetCounters.count(Car.CarStatus.AVAILABLE);
+        long reserved = fleetCounters.count(Car.CarStatus.RESERVED);
+        LocalDateTime start = LocalDateTime.parse("2031-03-01T10:00:00");
+
+        // When - two bookings of the same car; only the first changes its status
+        String first = customerService.reserve("fleet-customer-2", "fleet-2", start, start.plusHours(2));
+        customerService.reserve("fleet-customer-2", "fleet-2", start.plusDays(1), start.plusDays(1).plusHours(2));
+
+        // Then
+        assertEquals(available - 1, fleetCounters.count(Car.CarStatus.AVAILABLE));
+        assertEquals(reserved + 1, fleetCounters.count(Car.CarStatus.RESERVED));
+        Customer customer = customerRepository.findById("fleet-customer-2").orElseThrow();
+        assertEquals(2, customer.getActiveReservations());
+        assertTrue(customer.hasActiveReservations());
+
+        // When - one of them is cancelled; the car keeps its other booking
+        customerService.cancelReservation(first);
+
+        // Then
+        assertEquals(reserved + 1, fleetCounters.count(Car.CarStatus.RESERVED));
+        assertEquals(1, customerRepository.findById("fleet-customer-2").orElseThrow().getActiveReservations());
+    }
+
+    @Test
+    @DisplayName("Should repair customer counts at once and fleet drift once two audits agree")
+    void testAuditRepairsDrift() {
+        // Given - both counters drift through writes that bypass the application
+        carRepository.save(new Car("fleet-3", "Transit", "Ford", Car.CarStatus.AVAILABLE, 55.0, Car.CarType.TRUCK));
+        customerRepository.save(new Customer("fleet-customer-3", "Grace", "grace@example.com", "555-0103", "DL-3"));
+        long maintenance = fleetCounters.count(Car.CarStatus.MAINTENANCE);
+        jdbcTemplate.update("update cars set car_status = 'MAINTENANCE' where id = 'fleet-3'");
+        jdbcTemplate.update("update users set active_reservations = 4 where id = 'fleet-customer-3'");
+
+        // When
+        fleetCounterAudit.audit();
+
+        // Then - the customer is fixed, the fleet drift is only noted
+        assertEquals(0, customerRepository.findById("fleet-customer-3").orElseThrow().getActiveReservations());
+        assertFalse(customerRepository.findById("fleet-customer-3").orElseThrow().hasActiveReservations());
+        assertEquals(maintenance, fleetCounters.count(Car.CarStatus.MAINTENANCE));
+
+        // When
+        fleetCounterAudit.audit();
+
+        // Then
+        assertEquals(maintenance + 1, fleetCounters.count(Car.CarStatus.MAINTENANCE));
+    }
+}
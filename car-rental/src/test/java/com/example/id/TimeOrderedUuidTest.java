@@ -0,0 +1,37 @@
+package com.example.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    @DisplayName("Should produce strictly increasing version 7 UUIDs whose text sorts the same way")
+    void testNext_Monotonic() {
+        // Given - more ids than the sequence holds for a single millisecond, plus a clock step backwards
+        long now = System.currentTimeMillis() + 60_000;
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TimeOrderedUuid.next(now));
+        }
+        ids.add(TimeOrderedUuid.next(now - 1_000));
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), current.getMostSignificantBits()) < 0);
+            assertTrue(previous.toString().compareTo(current.toString()) < 0);
+            assertEquals(7, current.version());
+            assertEquals(2, current.variant());
+        }
+        assertEquals(now, ids.get(0).getMostSignificantBits() >>> 16);
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.idempotency;
+
+import com.example.repository.CarRepository;
+import com.example.repository.CustomerRepository;
+import com.example.repository.IdempotencyKeyRepository;
+import com.example.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Same mocks as CustomerControllerTest, so both share one application context
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+    private static final String BOOKING = """
+            {"customer": {"id": "customer1"}, "car": {"id": "car1"},
+             "startTime": "2030-10-01T10:00:00", "endTime": "2030-10-05T10:00:00"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @MockBean
+    private CustomerRepository customerRepository;
+
+    @MockBean
+    private CarRepository carRepository;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        reset(customerService, customerRepository, carRepository);
+        // The store outlives the test methods, so each one gets fresh keys
+        key = UUID.randomUUID().toString();
+    }
+
+    @Test
+    @DisplayName("Should replay a booking retried with the same key without booking again")
+    void testReplayedBooking() throws Exception {
+        // Given
+        MvcResult first = mockMvc.perform(post("/api/customer/reservation")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOKING))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        // When
+        MvcResult retry = mockMvc.perform(post("/api/customer/reservation")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOKING))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        // Then
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        verify(customerService, times(1)).reserve(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse a key reused for a different request")
+    void testKeyReusedForDifferentRequest() throws Exception {
+        // Given
+        mockMvc.perform(post("/api/customer/reservation")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOKING))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(post("/api/customer/reservation")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOKING.replace("car1", "car2")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("This Idempotency-Key was already used for a different request"));
+        verify(customerService, times(1)).reserve(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer a retried cancellation with the original success instead of an error")
+    void testReplayedCancellation() throws Exception {
+        // Given
+        doNothing().doThrow(new IllegalStateException("Reservation already cancelled"))
+                .when(customerService).cancelReservation("reservation1");
+        mockMvc.perform(delete("/api/customer/reservation/reservation1").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(delete("/api/customer/reservation/reservation1").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+        verify(customerService, times(1)).cancelReservation("reservation1");
+    }
+
+    @Test
+    @DisplayName("Should let a key be retried after a server error")
+    void testServerErrorNotKept() throws Exception {
+        // Given
+        doThrow(new RuntimeException("Database unavailable")).doNothing()
+                .when(customerService).cancelReservation("reservation2");
+        mockMvc.perform(delete("/api/customer/reservation/reservation2").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isInternalServerError());
+
+        // When & Then
+        mockMvc.perform(delete("/api/customer/reservation/reservation2").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        verify(customerService, times(2)).cancelReservation("reservation2");
+    }
+
+    @Test
+    @DisplayName("Should keep the key of a request whose changes were applied before it failed")
+    void testAppliedNotReleased() throws Exception {
+        // Given - the cancellation commits, then the request fails before its response is stored
+        doAnswer(invocation -> {
+            transactionTemplate.executeWithoutResult(status -> {
+            });
+            throw new RuntimeException("Connection reset");
+        }).when(customerService).cancelReservation("reservation3");
+        mockMvc.perform(delete("/api/customer/reservation/reservation3").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isInternalServerError());
+
+        // When & Then
+        mockMvc.perform(delete("/api/customer/reservation/reservation3").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isConflict());
+        verify(customerService, times(1)).cancelReservation("reservation3");
+    }
+
+    @Test
+    @DisplayName("Should let a key be retried when the request's transaction rolled back")
+    void testRolledBackNotApplied() throws Exception {
+        // Given - the cancellation's transaction fails, so nothing it wrote commits
+        doAnswer(invocation -> transactionTemplate.execute(status -> {
+            throw new RuntimeException("Constraint violated");
+        })).doNothing().when(customerService).cancelReservation("reservation4");
+        mockMvc.perform(delete("/api/customer/reservation/reservation4").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isInternalServerError());
+
+        // When & Then
+        mockMvc.perform(delete("/api/customer/reservation/reservation4").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isOk());
+        verify(customerService, times(2)).cancelReservation("reservation4");
+    }
+
+    @Test
+    @DisplayName("Should not mark keys from transactions outside a keyed request")
+    void testTransactionOutsideRequestNotApplied() {
+        // Given
+        assertEquals(IdempotencyStore.Claim.Outcome.ACQUIRED, idempotencyStore.claim(key, "fingerprint").outcome());
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+        });
+
+        // Then - the claim was never applied, so releasing it frees the key
+        idempotencyStore.release(key);
+        assertFalse(idempotencyKeyRepository.existsById(key));
+    }
+
+    @Test
+    @DisplayName("Should not hand out an applied key again once its claim has timed out")
+    void testAppliedClaim() {
+        // Given - a claim whose request was applied, but whose instance stopped before storing the response
+        IdempotencyStore stopped = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ofMinutes(5), 100_000, meterRegistry);
+        IdempotencyStore impatient = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ZERO, 100_000, meterRegistry);
+        assertEquals(IdempotencyStore.Claim.Outcome.ACQUIRED, stopped.claim(key, "fingerprint").outcome());
+        stopped.markApplied(key);
+
+        // When & Then
+        assertEquals(IdempotencyStore.Claim.Outcome.IN_PROGRESS, stopped.claim(key, "fingerprint").outcome());
+        assertEquals(IdempotencyStore.Claim.Outcome.APPLIED, impatient.claim(key, "fingerprint").outcome());
+        stopped.release(key);
+        assertEquals(IdempotencyStore.Claim.Outcome.APPLIED, impatient.claim(key, "fingerprint").outcome());
+    }
+
+    @Test
+    @DisplayName("Should replay a booking retried at another instance")
+    void testReplayedAtAnotherInstance() throws Exception {
+        // Given - the first attempt is handled here
+        mockMvc.perform(post("/api/customer/reservation")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BOOKING))
+                .andExpect(status().isOk());
+        IdempotencyStore otherInstance = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ofMinutes(5), 100_000, meterRegistry);
+
+        // When
+        IdempotencyStore.Claim claim = otherInstance.claim(key, "POST /api/customer/reservation "
+                + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(BOOKING.getBytes(StandardCharsets.UTF_8))));
+
+        // Then
+        assertEquals(IdempotencyStore.Claim.Outcome.REPLAY, claim.outcome());
+        assertEquals(200, claim.response().status());
+    }
+
+    @Test
+    @DisplayName("Should let a claim abandoned by a stopped instance be taken over after the claim timeout")
+    void testAbandonedClaim() {
+        // Given - a claim that was never completed nor released
+        IdempotencyStore stopped = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ofMinutes(5), 100_000, meterRegistry);
+        IdempotencyStore impatient = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ZERO, 100_000, meterRegistry);
+        assertEquals(IdempotencyStore.Claim.Outcome.ACQUIRED, stopped.claim(key, "fingerprint").outcome());
+
+        // When & Then
+        assertEquals(IdempotencyStore.Claim.Outcome.IN_PROGRESS, stopped.claim(key, "fingerprint").outcome());
+        assertEquals(IdempotencyStore.Claim.Outcome.ACQUIRED, impatient.claim(key, "fingerprint").outcome());
+    }
+
+    @Test
+    @DisplayName("Should refuse a body over the size limit without claiming the key")
+    void testBodyTooLarge() throws Exception {
+        // Given
+        String oversized = BOOKING.replace("car1", "car1" + " ".repeat(256 * 1024));
+
+        // When & Then
+        mockMvc.perform(post("/api/customer/reservation")
+                        .header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(oversized))
+                .andExpect(status().isPayloadTooLarge());
+        assertFalse(idempotencyKeyRepository.existsById(key));
+        verify(customerService, never()).reserve(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest finished keys beyond the cap and keep unfinished ones")
+    void testEviction() {
+        // Given - an unfinished key, then two finished ones
+        IdempotencyStore store = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ofMinutes(5), 100_000, meterRegistry);
+        String older = key + "-older";
+        String newer = key + "-newer";
+        store.claim(key, "fingerprint");
+        store.claim(older, "fingerprint");
+        store.complete(older, "fingerprint", new IdempotencyStore.StoredResponse(200, null, new byte[0]));
+        store.claim(newer, "fingerprint");
+        store.complete(newer, "fingerprint", new IdempotencyStore.StoredResponse(200, null, new byte[0]));
+        long finished = idempotencyKeyRepository.findAll().stream().filter(k -> k.getStatus() != null).count();
+        IdempotencyStore capped = new IdempotencyStore(idempotencyKeyRepository, Duration.ofHours(24),
+                Duration.ofMinutes(5), idempotencyKeyRepository.count() - finished + 1, meterRegistry);
+
+        // When - every finished key but the newest is over the cap
+        capped.purgeExpired();
+
+        // Then
+        assertTrue(idempotencyKeyRepository.existsById(key));
+        assertFalse(idempotencyKeyRepository.existsById(older));
+        assertTrue(idempotencyKeyRepository.existsById(newer));
+        store.release(key);
+    }
+
+    @Test
+    @DisplayName("Should hand the cached body to a non-blocking reader")
+    void testReadListener() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customer/reservation");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContent(BOOKING.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        // When
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(), (filtered, response) -> {
+            ServletInputStream input = filtered.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        read.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        // Then
+        assertEquals(BOOKING, read.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead[0]);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.location;
+
+import com.example.models.Branch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BranchGridTest {
+
+    private static final List<Branch> BRANCHES = List.of(
+            new Branch("manhattan", "Manhattan", 40.7128, -74.0060),
+            new Branch("jfk", "JFK Airport", 40.6413, -73.7781),
+            new Branch("newark", "Newark Airport", 40.6895, -74.1745),
+            new Branch("boston", "Boston", 42.3601, -71.0589));
+
+    @Test
+    @DisplayName("Should find the branches within the radius, nearest first")
+    void testWithin() {
+        BranchGrid grid = BranchGrid.compile(BRANCHES, 0.5);
+
+        List<BranchGrid.Match> matches = grid.within(40.7580, -73.9855, 30);
+
+        assertEquals(List.of("manhattan", "newark", "jfk"), matches.stream().map(BranchGrid.Match::branchId).toList());
+        assertEquals(5.3, matches.get(0).distanceKm(), 0.1);
+        assertEquals("Manhattan", matches.get(0).name());
+        assertEquals(4, grid.within(40.7580, -73.9855, 400).size());
+        assertTrue(grid.within(0, 0, 1000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find branches across the antimeridian and around a pole")
+    void testWithin_Wraparound() {
+        BranchGrid grid = BranchGrid.compile(List.of(
+                new Branch("suva", "Suva", -18.1248, 178.4501),
+                new Branch("apia", "Apia", -13.8333, -171.7500),
+                new Branch("nord", "Station Nord", 81.6, -16.7),
+                new Branch("alert", "Alert", 82.5018, -62.3481)), 1);
+
+        assertEquals(List.of("suva"), ids(grid.within(-17.0, -179.9, 300)));
+        assertEquals(List.of("alert", "nord"), ids(grid.within(89.9, 0, 1000)));
+    }
+
+    @Test
+    @DisplayName("Should agree with measuring every branch")
+    void testWithin_MatchesScan() {
+        // Given
+        SplittableRandom random = new SplittableRandom(7);
+        List<Branch> branches = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            branches.add(new Branch("b" + i, "Branch " + i, 30 + random.nextDouble() * 20,
+                    -120 + random.nextDouble() * 50));
+        }
+        BranchGrid grid = BranchGrid.compile(branches, 0.25);
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = 30 + random.nextDouble() * 20;
+            double longitude = -120 + random.nextDouble() * 50;
+            double radius = 5 + random.nextDouble() * 200;
+
+            // When
+            List<String> found = ids(grid.within(latitude, longitude, radius));
+
+            // Then
+            List<String> expected = branches.stream()
+                    .filter(b -> BranchGrid.distanceKm(latitude, longitude, b.getLatitude(), b.getLongitude()) <= radius)
+                    .sorted(Comparator.comparingDouble((Branch b) ->
+                            BranchGrid.distanceKm(latitude, longitude, b.getLatitude(), b.getLongitude())))
+                    .map(Branch::getId)
+                    .toList();
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid coordinates and radii")
+    void testWithin_Invalid() {
+        BranchGrid grid = BranchGrid.compile(BRANCHES, 0.5);
+
+        assertThrows(IllegalArgumentException.class, () -> grid.within(91, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> grid.within(0, Double.NaN, 10));
+        assertThrows(IllegalArgumentException.class, () -> grid.within(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.within(0, 0, BranchGrid.MAX_RADIUS_KM + 1));
+        assertThrows(IllegalArgumentException.class, () -> BranchGrid.compile(BRANCHES, 0));
+    }
+
+    private static List<String> ids(List<BranchGrid.Match> matches) {
+        return matches.stream().map(BranchGrid.Match::branchId).toList();
+    }
+}
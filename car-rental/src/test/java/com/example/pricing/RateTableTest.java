@@ -0,0 +1,81 @@
+package com.example.pricing;
+
+import com.example.models.Car;
+import com.example.models.RateCard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateTableTest {
+
+    private RateTable rateTable;
+
+    @BeforeEach
+    void setUp() {
+        rateTable = RateTable.compile(List.of(
+                card("card1", Car.CarType.SEDAN, null, "2024-01-01T00:00:00", 1000, 15000L, 70000L, 3000),
+                card("card2", null, "car9", "2024-03-01T00:00:00", 500, null, null, 0),
+                card("card3", Car.CarType.SEDAN, null, "2024-06-01T00:00:00", 1200, null, null, 0),
+                card("card4", Car.CarType.SEDAN, null, "2024-06-01T00:00:00", 1100, null, null, 0)));
+    }
+
+    @Test
+    @DisplayName("Should charge by the hour up to the daily and weekly caps")
+    void testPrice_Caps() {
+        assertEquals(10_000, price("car1", "2024-02-01T08:00:00", "2024-02-01T18:00:00"));
+        assertEquals(15_000, price("car1", "2024-02-01T00:00:00", "2024-02-01T20:00:00"));
+        assertEquals(17_000, price("car1", "2024-02-01T00:00:00", "2024-02-02T02:00:00"));
+        assertEquals(70_000, price("car1", "2024-02-01T00:00:00", "2024-02-07T23:00:00"));
+        assertEquals(85_000, price("car1", "2024-02-01T00:00:00", "2024-02-09T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Should charge at least the minimum")
+    void testPrice_MinimumCharge() {
+        assertEquals(3_000, price("car1", "2024-02-01T08:00:00", "2024-02-01T10:00:00"));
+        assertEquals(3_000, price("car1", "2024-02-01T08:00:00", "2024-02-01T08:30:00"));
+    }
+
+    @Test
+    @DisplayName("Should price by the card in effect when the rental starts, the last one created winning a tie")
+    void testPrice_EffectiveDates() {
+        assertEquals(20_000, price("car1", "2023-12-31T20:00:00", "2024-01-01T00:00:00"));
+        assertEquals(15_000, price("car1", "2024-05-31T23:00:00", "2024-06-01T23:00:00"));
+        assertEquals(26_400, price("car1", "2024-06-01T00:00:00", "2024-06-02T00:00:00"));
+    }
+
+    @Test
+    @DisplayName("Should prefer a car's own card over its type's")
+    void testPrice_CarCard() {
+        assertEquals(15_000, price("car9", "2024-02-01T00:00:00", "2024-02-02T00:00:00"));
+        assertEquals(12_000, price("car9", "2024-03-01T00:00:00", "2024-03-02T00:00:00"));
+        assertEquals(4, rateTable.size());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the car's hourly rate without a card")
+    void testPrice_NoCard() {
+        assertEquals(20_000, RateTable.EMPTY.price("car1", Car.CarType.SUV, 50.0,
+                at("2024-02-01T10:00:00"), at("2024-02-01T14:00:00")));
+        assertEquals(Tariff.hourly(5000), RateTable.EMPTY.tariff("car1", null, 50.0, at("2024-02-01T10:00:00")));
+    }
+
+    private long price(String carId, String start, String end) {
+        return rateTable.price(carId, Car.CarType.SEDAN, 50.0, at(start), at(end));
+    }
+
+    private static RateCard card(String id, Car.CarType carType, String carId, String effectiveFrom, long hourlyCents,
+                                 Long dailyCapCents, Long weeklyCapCents, long minimumChargeCents) {
+        return new RateCard(id, carType, carId, at(effectiveFrom), hourlyCents, dailyCapCents, weeklyCapCents,
+                minimumChargeCents);
+    }
+
+    private static LocalDateTime at(String dateTime) {
+        return LocalDateTime.parse(dateTime);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.readmodel;
+
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import com.example.repository.ReservationRepository;
+import com.example.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest
+class FleetReadModelTest {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private FleetReadModel readModel;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // The in-memory database is shared with the other test contexts, whose fleet counters would see these as drift
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findByCarId("view-1"));
+        carRepository.deleteAllById(List.of("view-1"));
+    }
+
+    @Test
+    @DisplayName("Should follow cars, bookings and cancellations once they commit")
+    void testModelFollowsCommits() {
+        // Given
+        LocalDateTime start = LocalDateTime.parse("2031-03-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2031-03-01T12:00:00");
+        carRepository.save(new Car("view-1", "Leaf", "Nissan", Car.CarStatus.AVAILABLE, 28.0, Car.CarType.SEDAN));
+        awaitCar(car -> car != null && car.carStatus() == Car.CarStatus.AVAILABLE);
+
+        // When
+        String reservationId = customerService.reserve("customer1", "view-1", start, end);
+
+        // Then
+        CarView booked = awaitCar(car -> car.carStatus() == Car.CarStatus.RESERVED && !car.bookings().isEmpty());
+        assertEquals(List.of(new CarView.Booking(reservationId, 0, start, end)), booked.bookings());
+        assertTrue(readModel.snapshot().free(start, end, Car.CarType.SEDAN, 0, 100).cars().stream()
+                .noneMatch(car -> car.id().equals("view-1")));
+
+        // When
+        customerService.cancelReservation(reservationId);
+
+        // Then
+        awaitCar(car -> car.carStatus() == Car.CarStatus.AVAILABLE && car.bookings().isEmpty());
+        assertNotNull(meterRegistry.find("fleet.readmodel.lag").gauge());
+        assertTrue(meterRegistry.get("fleet.readmodel.delay").timer().count() > 0);
+    }
+
+    private CarView awaitCar(Predicate<CarView> condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            CarView car = readModel.snapshot().car("view-1");
+            if (condition.test(car)) {
+                return car;
+            }
+            Thread.onSpinWait();
+        }
+        fail("Read model did not catch up: " + readModel.snapshot().car("view-1"));
+        return null;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.readmodel;
+
+import com.example.dto.FleetViewPage;
+import com.example.models.Car;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FleetSnapshotTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.parse("2024-05-01T10:00:00");
+    private static final LocalDateTime NOON = LocalDateTime.parse("2024-05-01T12:00:00");
+    private static final LocalDateTime TWO = LocalDateTime.parse("2024-05-01T14:00:00");
+
+    @Test
+    @DisplayName("Should apply car, status and booking changes in order")
+    void testApply() {
+        // Given
+        FleetSnapshot snapshot = FleetSnapshot.EMPTY.apply(List.of(
+                saved("car1", Car.CarStatus.AVAILABLE, Car.CarType.SEDAN),
+                saved("car2", Car.CarStatus.AVAILABLE, Car.CarType.SUV),
+                saved("car3", Car.CarStatus.MAINTENANCE, Car.CarType.SUV)), Instant.now());
+
+        // When
+        FleetSnapshot next = snapshot.apply(List.of(
+                new FleetChange.StatusChanged("car1", 1, Car.CarStatus.RESERVED),
+                new FleetChange.StatusChanged("car9", 1, Car.CarStatus.RESERVED),
+                new FleetChange.Booked("car1", "res1", 0, TEN, NOON),
+                new FleetChange.Booked("car1", "res2", 0, NOON, TWO),
+                new FleetChange.Booked("car9", "res3", 0, TEN, NOON),
+                new FleetChange.Released("car1", "res2", 1, NOON, TWO),
+                new FleetChange.CarDeleted("car3")), Instant.now());
+
+        // Then
+        assertEquals(snapshot.version() + 1, next.version());
+        assertEquals(2, next.size());
+        CarView car1 = next.car("car1");
+        assertEquals(Car.CarStatus.RESERVED, car1.carStatus());
+        assertEquals(List.of(new CarView.Booking("res1", 0, TEN, NOON)), car1.bookings());
+        assertNull(next.car("car3"));
+        assertNull(next.car("car9"));
+
+        // The earlier snapshot is untouched
+        assertEquals(3, snapshot.size());
+        assertEquals(Car.CarStatus.AVAILABLE, snapshot.car("car1").carStatus());
+        assertTrue(snapshot.car("car1").bookings().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave the model unchanged when a change is replayed")
+    void testApply_Replay() {
+        List<FleetChange> changes = List.of(
+                saved("car1", Car.CarStatus.AVAILABLE, Car.CarType.SEDAN),
+                new FleetChange.Booked("car1", "res1", 0, TEN, NOON),
+                new FleetChange.StatusChanged("car1", 1, Car.CarStatus.RESERVED),
+                saved("car1", 1, Car.CarStatus.RESERVED, Car.CarType.SEDAN));
+
+        FleetSnapshot once = FleetSnapshot.EMPTY.apply(changes, Instant.now());
+        FleetSnapshot twice = once.apply(changes, Instant.now());
+
+        assertEquals(once.car("car1"), twice.car("car1"));
+        assertEquals(1, twice.car("car1").bookings().size());
+    }
+
+    @Test
+    @DisplayName("Should skip changes older than the version a car already has")
+    void testApply_OutOfOrder() {
+        // Given - a car at version 2
+        FleetSnapshot snapshot = FleetSnapshot.EMPTY.apply(List.of(
+                saved("car1", 2, Car.CarStatus.RESERVED, Car.CarType.SEDAN)), Instant.now());
+
+        // When - changes committed before version 2 arrive late
+        FleetSnapshot next = snapshot.apply(List.of(
+                new FleetChange.StatusChanged("car1", 1, Car.CarStatus.AVAILABLE),
+                saved("car1", 0, Car.CarStatus.MAINTENANCE, Car.CarType.SUV)), Instant.now());
+
+        // Then
+        assertEquals(snapshot.car("car1"), next.car("car1"));
+
+        // When - a later change arrives
+        FleetSnapshot last = next.apply(List.of(
+                new FleetChange.StatusChanged("car1", 3, Car.CarStatus.AVAILABLE)), Instant.now());
+
+        // Then
+        assertEquals(Car.CarStatus.AVAILABLE, last.car("car1").carStatus());
+        assertEquals(3, last.car("car1").version());
+    }
+
+    @Test
+    @DisplayName("Should skip a booking that arrives after its reservation was released")
+    void testApply_ReleaseBeforeBooking() {
+        // Given - the release of a future booking overtakes the booking itself
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusHours(2);
+        FleetSnapshot snapshot = FleetSnapshot.EMPTY.apply(List.of(
+                saved("car1", Car.CarStatus.AVAILABLE, Car.CarType.SEDAN),
+                new FleetChange.Released("car1", "res1", 1, start, end)), Instant.now());
+
+        // When
+        FleetSnapshot next = snapshot.apply(List.of(
+                new FleetChange.Booked("car1", "res1", 0, start, end)), Instant.now());
+
+        // Then
+        assertTrue(next.car("car1").bookings().isEmpty());
+        assertTrue(next.car("car1").isFree(start, end));
+
+        // When - the release is replayed once the window has ended
+        FleetSnapshot later = next.apply(List.of(new FleetChange.Released("car1", "res1", 1, start, end)),
+                Instant.now().plus(Duration.ofDays(2)));
+
+        // Then - the release is no longer remembered
+        assertTrue(later.car("car1").released().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop ended bookings and copy only the cars that had them")
+    void testPruneEndedBy() {
+        // Given
+        FleetSnapshot snapshot = FleetSnapshot.EMPTY.apply(List.of(
+                saved("car1", Car.CarStatus.RESERVED, Car.CarType.SEDAN),
+                saved("car2", Car.CarStatus.RESERVED, Car.CarType.SEDAN),
+                saved("car3", Car.CarStatus.AVAILABLE, Car.CarType.SEDAN),
+                new FleetChange.Booked("car1", "res1", 0, TEN, NOON),
+                new FleetChange.Booked("car1", "res2", 0, NOON, TWO),
+                new FleetChange.Booked("car2", "res3", 0, NOON, TWO)), Instant.now());
+
+        // When
+        FleetSnapshot pruned = snapshot.pruneEndedBy(NOON, Instant.now());
+
+        // Then
+        assertEquals(snapshot.version() + 1, pruned.version());
+        assertEquals(List.of(new CarView.Booking("res2", 0, NOON, TWO)), pruned.car("car1").bookings());
+        assertSame(snapshot.car("car2"), pruned.car("car2"));
+        assertSame(snapshot.car("car3"), pruned.car("car3"));
+        assertSame(pruned, pruned.pruneEndedBy(NOON, Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Should page available and free cars in id order from one snapshot")
+    void testQueries() {
+        // Given
+        FleetSnapshot snapshot = FleetSnapshot.EMPTY.apply(List.of(
+                saved("car1", Car.CarStatus.AVAILABLE, Car.CarType.SEDAN),
+                saved("car2", Car.CarStatus.RESERVED, Car.CarType.SUV),
+                saved("car3", Car.CarStatus.AVAILABLE, Car.CarType.SUV),
+                saved("car4", Car.CarStatus.RENTED, Car.CarType.SUV),
+                saved("car5", Car.CarStatus.AVAILABLE, Car.CarType.SUV),
+                new FleetChange.Booked("car2", "res1", 0, TEN, NOON),
+                new FleetChange.Booked("car3", "res2", 0, NOON, TWO)), Instant.now());
+
+        // When
+        FleetViewPage first = snapshot.available(null, 0, 2);
+        FleetViewPage second = snapshot.available(null, 1, 2);
+        FleetViewPage suvs = snapshot.available(Car.CarType.SUV, 0, 10);
+        FleetViewPage freeMorning = snapshot.free(TEN, NOON, null, 0, 10);
+        FleetViewPage freeLunch = snapshot.free(LocalDateTime.parse("2024-05-01T11:00:00"),
+                LocalDateTime.parse("2024-05-01T13:00:00"), Car.CarType.SUV, 0, 10);
+
+        // Then
+        assertEquals(List.of("car1", "car3"), ids(first));
+        assertTrue(first.hasNext());
+        assertEquals(List.of("car5"), ids(second));
+        assertFalse(second.hasNext());
+        assertEquals(snapshot.version(), second.version());
+        assertEquals(List.of("car3", "car5"), ids(suvs));
+        // Windows are half-open: car3's booking from noon does not clash with one ending at noon
+        assertEquals(List.of("car1", "car3", "car5"), ids(freeMorning));
+        assertEquals(List.of("car5"), ids(freeLunch));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.free(NOON, TEN, null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.available(null, 0, 101));
+    }
+
+    @Test
+    @DisplayName("Should agree with a sorted map through many inserts and removals, sharing untouched cars")
+    void testLargeFleet() {
+        // Given
+        SplittableRandom random = new SplittableRandom(3);
+        TreeMap<String, Car.CarStatus> expected = new TreeMap<>();
+        List<CarView> initial = new ArrayList<>();
+        for (int i = 0; i < 20_000; i += 2) {
+            String id = String.format("car%06d", i);
+            expected.put(id, Car.CarStatus.AVAILABLE);
+            initial.add(CarView.of(saved(id, Car.CarStatus.AVAILABLE, Car.CarType.SEDAN)));
+        }
+        FleetSnapshot snapshot = FleetSnapshot.EMPTY.replace(initial, Instant.now());
+
+        // When
+        for (int round = 0; round < 50; round++) {
+            List<FleetChange> changes = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String id = String.format("car%06d", random.nextInt(20_000));
+                if (random.nextInt(3) == 0) {
+                    changes.add(new FleetChange.CarDeleted(id));
+                    expected.remove(id);
+                } else {
+                    Car.CarStatus status = Car.CarStatus.values()[random.nextInt(4)];
+                    changes.add(saved(id, status, Car.CarType.SEDAN));
+                    expected.put(id, status);
+                }
+            }
+            FleetSnapshot previous = snapshot;
+            snapshot = snapshot.apply(changes, Instant.now());
+            // Untouched cars are shared with the previous version, not copied
+            if (previous.car("car000000") != null && snapshot.car("car000000") != null
+                    && changes.stream().noneMatch(change -> change.toString().contains("car000000"))) {
+                assertSame(previous.car("car000000"), snapshot.car("car000000"));
+            }
+        }
+        FleetSnapshot last = snapshot;
+
+        // Then
+        assertEquals(expected.size(), last.size());
+        List<String> ids = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            FleetViewPage result = last.free(TEN, NOON, null, page, 100);
+            result.cars().forEach(car -> ids.add(car.id()));
+            if (!result.hasNext()) {
+                break;
+            }
+        }
+        List<String> bookable = expected.entrySet().stream()
+                .filter(entry -> entry.getValue() == Car.CarStatus.AVAILABLE || entry.getValue() == Car.CarStatus.RESERVED)
+                .map(java.util.Map.Entry::getKey)
+                .toList();
+        assertEquals(bookable, ids);
+        expected.forEach((id, status) -> assertEquals(status, last.car(id).carStatus()));
+    }
+
+    private static FleetChange.CarSaved saved(String id, Car.CarStatus status, Car.CarType type) {
+        return saved(id, 0, status, type);
+    }
+
+    private static FleetChange.CarSaved saved(String id, long version, Car.CarStatus status, Car.CarType type) {
+        return new FleetChange.CarSaved(id, version, "Toyota", "Camry", type, status, 30.0, null);
+    }
+
+    private static List<String> ids(FleetViewPage page) {
+        return page.cars().stream().map(CarView::id).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.repository;
+
+import com.example.cache.CarCacheConfiguration;
+import com.example.models.Car;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CarRepositoryCacheTest {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager carCacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Should serve cars from the second-level cache and drop only the claimed car")
+    void testClaimInvalidatesCachedCar() {
+        // Given - two cars, both read once so they sit in the cache
+        carRepository.save(new Car("cache-1", "Golf", "VW", Car.CarStatus.AVAILABLE, 30.0, Car.CarType.SEDAN));
+        carRepository.save(new Car("cache-2", "Polo", "VW", Car.CarStatus.AVAILABLE, 20.0, Car.CarType.SEDAN));
+        entityManagerFactory.getCache().evict(Car.class);
+        carRepository.findById("cache-1");
+        carRepository.findById("cache-2");
+        assertTrue(entityManagerFactory.getCache().contains(Car.class, "cache-1"));
+
+        // When - the native claim changes cache-1 behind Hibernate's back
+        transactionTemplate.executeWithoutResult(status -> assertEquals(Car.CarStatus.AVAILABLE,
+                carRepository.claimForBooking("cache-1").orElseThrow().getCarStatus()));
+
+        // Then - cache-1 is reloaded with its new state, cache-2 was never evicted
+        assertTrue(entityManagerFactory.getCache().contains(Car.class, "cache-2"));
+        Car claimed = carRepository.findById("cache-1").orElseThrow();
+        assertEquals(Car.CarStatus.RESERVED, claimed.getCarStatus());
+        assertEquals(Long.valueOf(1), claimed.getVersion());
+        assertTrue(carCacheManager.getCache(CarCacheConfiguration.CAR_REGION).iterator().hasNext());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.search;
+
+import com.example.dto.CarSearchQuery;
+import com.example.dto.CarSearchResult;
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import com.example.repository.ReservationRepository;
+import com.example.service.CustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class CarSearchIndexSubscriptionTest {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CarSearchIndex searchIndex;
+
+    // The in-memory database is shared with the other test contexts, whose fleet counters would see these as drift
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findByCarId("search-1"));
+        carRepository.deleteAllById(List.of("search-1"));
+    }
+
+    @Test
+    @DisplayName("Should index cars as they are added, changed and removed through JPA")
+    void testIndexFollowsCommits() {
+        // Given
+        carRepository.save(new Car("search-1", "Cybertruck", "Tesla", Car.CarStatus.AVAILABLE, 140.0,
+                Car.CarType.TRUCK));
+        assertEquals(List.of(new CarSearchResult.Hit("search-1", "Tesla", "Cybertruck", Car.CarType.TRUCK,
+                Car.CarStatus.AVAILABLE, 140.0, "100+")), search().cars());
+
+        // When
+        Car car = carRepository.findById("search-1").orElseThrow();
+        car.setCarStatus(Car.CarStatus.MAINTENANCE);
+        carRepository.save(car);
+
+        // Then
+        assertEquals(Car.CarStatus.MAINTENANCE, search().cars().get(0).carStatus());
+        carRepository.deleteById("search-1");
+        assertEquals(0, search().total());
+    }
+
+    @Test
+    @DisplayName("Should index the status set by a booking claim from the change stream")
+    void testIndexFollowsClaims() {
+        // Given
+        carRepository.save(new Car("search-1", "Cybertruck", "Tesla", Car.CarStatus.AVAILABLE, 140.0,
+                Car.CarType.TRUCK));
+
+        // When
+        customerService.reserve("customer1", "search-1", LocalDateTime.parse("2031-04-01T10:00:00"),
+                LocalDateTime.parse("2031-04-01T12:00:00"));
+
+        // Then
+        assertEquals(Car.CarStatus.RESERVED, search().cars().get(0).carStatus());
+    }
+
+    private CarSearchResult search() {
+        return searchIndex.search(new CarSearchQuery(List.of("tesla"), List.of("cybertruck"), null, null, null, 0, 10));
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.search;
+
+import com.example.dto.CarSearchQuery;
+import com.example.dto.CarSearchResult;
+import com.example.dto.NearbyCar;
+import com.example.dto.NearbyCarQuery;
+import com.example.dto.Suggestion;
+import com.example.location.BranchGrid;
+import com.example.models.Branch;
+import com.example.models.Car;
+import com.example.readmodel.FleetChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CarSearchIndexTest {
+
+    private CarSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarSearchIndex(new double[]{25, 50, 100});
+        index.put(new Car("car1", "Camry", "Toyota", Car.CarStatus.AVAILABLE, 30.0, Car.CarType.SEDAN));
+        index.put(new Car("car2", "Corolla", "Toyota", Car.CarStatus.RESERVED, 20.0, Car.CarType.SEDAN));
+        index.put(new Car("car3", "RAV4", "Toyota", Car.CarStatus.AVAILABLE, 45.0, Car.CarType.SUV));
+        index.put(new Car("car4", "CR-V", "Honda", Car.CarStatus.AVAILABLE, 40.0, Car.CarType.SUV));
+        index.put(new Car("car5", "F-150", "Ford", Car.CarStatus.MAINTENANCE, 120.0, Car.CarType.TRUCK));
+    }
+
+    @Test
+    @DisplayName("Should match any listed value within a field and every filtered field")
+    void testSearch_Filters() {
+        CarSearchResult result = index.search(query(List.of("toyota", "FORD"), List.of(), List.of(Car.CarStatus.AVAILABLE),
+                List.of()));
+
+        assertEquals(2, result.total());
+        assertEquals(List.of("car1", "car3"), result.cars().stream().map(CarSearchResult.Hit::id).toList());
+        assertEquals("Toyota", result.cars().get(0).brand());
+        assertEquals("25-50", result.cars().get(0).rateBand());
+    }
+
+    @Test
+    @DisplayName("Should count each facet against every filter but its own")
+    void testSearch_Facets() {
+        CarSearchResult result = index.search(query(List.of("Toyota"), List.of(Car.CarType.SUV), List.of(), List.of()));
+
+        assertEquals(1, result.total());
+        Map<String, Map<String, Integer>> facets = result.facets();
+        // Brands ignore the brand filter, but not the SUV one
+        assertEquals(Map.of("Toyota", 1, "Honda", 1), facets.get(CarSearchIndex.BRAND));
+        assertEquals(List.of("Honda", "Toyota"), List.copyOf(facets.get(CarSearchIndex.BRAND).keySet()));
+        assertEquals(Map.of("SEDAN", 2, "SUV", 1, "TRUCK", 0), facets.get(CarSearchIndex.CAR_TYPE));
+        assertEquals(1, facets.get(CarSearchIndex.CAR_STATUS).get("AVAILABLE"));
+        assertEquals(Map.of("0-25", 0, "25-50", 1, "50-100", 0, "100+", 0), facets.get(CarSearchIndex.RATE_BAND));
+    }
+
+    @Test
+    @DisplayName("Should find nothing for an unknown brand and reject an unknown rate band")
+    void testSearch_UnknownValues() {
+        assertEquals(0, index.search(query(List.of("Tesla"), List.of(), List.of(), List.of())).total());
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search(query(List.of(), List.of(), List.of(), List.of("cheap"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search(new CarSearchQuery(null, null, null, null, null, 0, 101)));
+    }
+
+    @Test
+    @DisplayName("Should suggest brands and models by prefix, most common first")
+    void testSuggest() {
+        assertEquals(List.of(new Suggestion("Toyota", 3)), index.suggest(CarSearchIndex.TextField.BRAND, "to", 10));
+        assertEquals(List.of(new Suggestion("Camry", 1), new Suggestion("Corolla", 1), new Suggestion("CR-V", 1)),
+                index.suggest(CarSearchIndex.TextField.MODEL, "C", 10));
+        assertEquals(3, index.suggest(CarSearchIndex.TextField.BRAND, "", 10).size());
+    }
+
+    @Test
+    @DisplayName("Should skip committed changes older than the indexed version of a car")
+    void testAccept_OutOfOrder() {
+        // Given - car1 saved at version 2
+        index.accept(List.of(new FleetChange.CarSaved("car1", 2, "Toyota", "Camry", Car.CarType.SEDAN,
+                Car.CarStatus.RESERVED, 30.0, null)));
+
+        // When - earlier changes arrive after it
+        index.accept(List.of(new FleetChange.StatusChanged("car1", 1, Car.CarStatus.AVAILABLE),
+                new FleetChange.CarSaved("car1", 0, "Toyota", "Camry", Car.CarType.SEDAN, Car.CarStatus.MAINTENANCE,
+                        30.0, null)));
+
+        // Then
+        CarSearchResult result = index.search(query(List.of(), List.of(), List.of(), List.of()));
+        assertEquals(2, result.facets().get(CarSearchIndex.CAR_STATUS).get("RESERVED"));
+        assertEquals(1, result.facets().get(CarSearchIndex.CAR_STATUS).get("MAINTENANCE"));
+    }
+
+    @Test
+    @DisplayName("Should follow updates, removals and status changes")
+    void testIncrementalUpdates() {
+        // When
+        index.put(new Car("car4", "CR-V", "Honda", Car.CarStatus.AVAILABLE, 60.0, Car.CarType.SUV));
+        index.remove("car5");
+        index.accept(List.of(new FleetChange.StatusChanged("car1", 0, Car.CarStatus.RESERVED),
+                new FleetChange.StatusChanged("car9", 0, Car.CarStatus.RESERVED)));
+        index.put(new Car("car6", "Model 3", "Tesla", Car.CarStatus.AVAILABLE, 90.0, Car.CarType.SEDAN));
+
+        // Then
+        CarSearchResult result = index.search(query(List.of(), List.of(), List.of(), List.of()));
+        assertEquals(5, result.total());
+        assertEquals(Map.of("0-25", 1, "25-50", 2, "50-100", 2, "100+", 0), result.facets().get(CarSearchIndex.RATE_BAND));
+        assertEquals(2, result.facets().get(CarSearchIndex.CAR_STATUS).get("RESERVED"));
+        assertEquals(0, result.facets().get(CarSearchIndex.CAR_STATUS).get("MAINTENANCE"));
+        assertTrue(index.suggest(CarSearchIndex.TextField.BRAND, "fo", 10).isEmpty());
+        assertEquals("car6", index.search(query(List.of("tesla"), List.of(), List.of(), List.of())).cars().get(0).id());
+    }
+
+    @Test
+    @DisplayName("Should page through a large fleet and keep counts right once values turn dense")
+    void testSearch_LargeFleet() {
+        // Given - enough cars per value for the postings to switch to bitmaps
+        index.clear();
+        IntStream.range(0, 10_000).forEach(i -> index.put(new Car("car" + i, "Model " + (i % 7), "Brand " + (i % 3),
+                i % 5 == 0 ? Car.CarStatus.RESERVED : Car.CarStatus.AVAILABLE, i % 150, Car.CarType.values()[i % 3])));
+        IntStream.range(0, 10_000).filter(i -> i % 10 == 0).forEach(i -> index.remove("car" + i));
+
+        // When
+        CarSearchResult first = index.search(new CarSearchQuery(List.of("brand 0"), null, null,
+                List.of(Car.CarStatus.AVAILABLE), null, 0, 100));
+        CarSearchResult last = index.search(new CarSearchQuery(List.of("brand 0"), null, null,
+                List.of(Car.CarStatus.AVAILABLE), null, 26, 100));
+
+        // Then
+        long expected = IntStream.range(0, 10_000).filter(i -> i % 3 == 0 && i % 5 != 0 && i % 10 != 0).count();
+        assertEquals(expected, first.total());
+        assertEquals(100, first.cars().size());
+        assertEquals(expected - 2600, last.cars().size());
+        assertEquals((int) expected, first.facets().get(CarSearchIndex.BRAND).get("Brand 0"));
+        assertEquals(9_000, index.size());
+    }
+
+    @Test
+    @DisplayName("Should list cars of the nearest branches first and apply type and status filters")
+    void testNearest() {
+        // Given - Manhattan is about 5 km from the query point, Newark 17 km and JFK 22 km
+        BranchGrid grid = BranchGrid.compile(List.of(
+                new Branch("manhattan", "Manhattan", 40.7128, -74.0060),
+                new Branch("jfk", "JFK Airport", 40.6413, -73.7781),
+                new Branch("newark", "Newark Airport", 40.6895, -74.1745)), 0.5);
+        index.put("car1", "Toyota", "Camry", Car.CarType.SEDAN, Car.CarStatus.AVAILABLE, 30.0, "jfk", 0);
+        index.put("car2", "Toyota", "Corolla", Car.CarType.SEDAN, Car.CarStatus.RESERVED, 20.0, "manhattan", 0);
+        index.put("car3", "Toyota", "RAV4", Car.CarType.SUV, Car.CarStatus.AVAILABLE, 45.0, "jfk", 0);
+        index.put("car4", "Honda", "CR-V", Car.CarType.SUV, Car.CarStatus.AVAILABLE, 40.0, "newark", 0);
+        index.put("car6", "Honda", "Civic", Car.CarType.SEDAN, Car.CarStatus.AVAILABLE, 35.0, "manhattan", 0);
+
+        // When
+        List<NearbyCar> available = index.nearest(nearby(30, List.of(), 10), grid);
+        List<NearbyCar> suvs = index.nearest(nearby(30, List.of(Car.CarType.SUV), 1), grid);
+        List<NearbyCar> close = index.nearest(nearby(10, List.of(), 10), grid);
+
+        // Then - car5 has no branch and car2 is reserved
+        assertEquals(List.of("car6", "car4", "car1", "car3"), available.stream().map(NearbyCar::id).toList());
+        assertEquals("Manhattan", available.get(0).branchName());
+        assertTrue(available.get(0).distanceKm() < available.get(1).distanceKm());
+        assertEquals(List.of("car4"), suvs.stream().map(NearbyCar::id).toList());
+        assertEquals(List.of("car6"), close.stream().map(NearbyCar::id).toList());
+    }
+
+    @Test
+    @DisplayName("Should follow cars moving between branches and changing status")
+    void testNearest_Updates() {
+        // Given
+        BranchGrid grid = BranchGrid.compile(List.of(
+                new Branch("manhattan", "Manhattan", 40.7128, -74.0060),
+                new Branch("boston", "Boston", 42.3601, -71.0589)), 0.5);
+        index.put("car1", "Toyota", "Camry", Car.CarType.SEDAN, Car.CarStatus.AVAILABLE, 30.0, "manhattan", 0);
+        index.put("car3", "Toyota", "RAV4", Car.CarType.SUV, Car.CarStatus.AVAILABLE, 45.0, "manhattan", 0);
+
+        // When
+        index.put("car1", "Toyota", "Camry", Car.CarType.SEDAN, Car.CarStatus.AVAILABLE, 30.0, "boston", 0);
+        index.accept(List.of(new FleetChange.StatusChanged("car3", 0, Car.CarStatus.RESERVED)));
+
+        // Then
+        assertTrue(index.nearest(nearby(30, List.of(), 10), grid).isEmpty());
+        assertEquals("boston", index.nearest(new NearbyCarQuery(42.36, -71.06, 5, null, null, 10), grid).get(0).branchId());
+        assertThrows(IllegalArgumentException.class, () -> index.nearest(nearby(30, List.of(), 0), grid));
+    }
+
+    private static NearbyCarQuery nearby(double radiusKm, List<Car.CarType> types, int limit) {
+        return new NearbyCarQuery(40.7580, -73.9855, radiusKm, types, List.of(Car.CarStatus.AVAILABLE), limit);
+    }
+
+    private static CarSearchQuery query(List<String> brands, List<Car.CarType> types, List<Car.CarStatus> statuses,
+                                        List<String> rateBands) {
+        return new CarSearchQuery(brands, List.of(), types, statuses, rateBands, 0, 20);
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.service;
 
+import com.example.availability.CarAvailabilityIndex;
+import com.example.dto.CursorPage;
+import com.example.dto.KeysetCursor;
+import com.example.dto.FleetStatus;
+import com.example.dto.ReservationSummary;
+import com.example.exception.CarUnavailableException;
+import com.example.fleet.FleetCounters;
+import com.example.metrics.ReservationMetrics;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.models.Reservation;
+import com.example.pricing.PricingEngine;
+import com.example.readmodel.FleetChangeStream;
+import com.example.readmodel.FleetReadModel;
 import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.ReservationRepository;
 import com.example.service.impl.AdminServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,22 +27,33 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,12 +68,30 @@ class AdminServiceImplTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Spy
+    private CarAvailabilityIndex availabilityIndex = new CarAvailabilityIndex();
+
+    @Spy
+    private FleetCounters fleetCounters = new FleetCounters();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReservationMetrics reservationMetrics = new ReservationMetrics(meterRegistry);
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine();
+
+    @Spy
+    private FleetChangeStream changeStream = new FleetChangeStream(List.of(new FleetReadModel()));
+
     @InjectMocks
     private AdminServiceImpl adminService;
 
     private Car testCar;
     private Customer testCustomer;
     private Reservation testReservation;
+    private ReservationSummary testSummary;
 
     @BeforeEach
     void setUp() {
@@ -60,6 +101,7 @@ class AdminServiceImplTest {
         testCar.setModel("Toyota Camry");
         testCar.setBrand("Toyota");
         testCar.setCarStatus(Car.CarStatus.AVAILABLE);
+        testCar.setVersion(3L);
         testCar.setCarType(Car.CarType.SEDAN);
         testCar.setRatePerHour(50.0);
 
@@ -74,10 +116,14 @@ class AdminServiceImplTest {
         testReservation.setReservationId("res1");
         testReservation.setCustomer(testCustomer);
         testReservation.setCar(testCar);
-        testReservation.setStartTime("2023-10-01T10:00:00");
-        testReservation.setEndTime("2023-10-05T10:00:00");
+        testReservation.setStartTime(LocalDateTime.parse("2023-10-01T10:00:00"));
+        testReservation.setEndTime(LocalDateTime.parse("2023-10-05T10:00:00"));
         testReservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
-        testReservation.setTotalCost(200.0);
+        testReservation.setTotalCostCents(20000);
+
+        testSummary = new ReservationSummary("res1", testCustomer.getName(), testCar.getModel(),
+                testReservation.getStartTime(), testReservation.getEndTime(),
+                Reservation.ReservationStatus.CONFIRMED, 200.0);
     }
 
     @Test
@@ -153,6 +199,41 @@ class AdminServiceImplTest {
         verify(carRepository, times(1)).delete(testCar);
     }
 
+    @Test
+    @DisplayName("Should keep a removed car bookable until the delete commits")
+    void testRemoveCar_EvictsAfterCommit() {
+        // Given
+        LocalDateTime start = LocalDateTime.parse("2023-11-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2023-11-01T12:00:00");
+        availabilityIndex.book("car1", "res9", start, end);
+        when(reservationRepository.findByCarId(testCar.getId())).thenReturn(Collections.emptyList());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            adminService.removeCar(testCar);
+            List<TransactionSynchronization> rollback = TransactionSynchronizationManager.getSynchronizations();
+            rollback.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verify(availabilityIndex, never()).evict("car1");
+            assertFalse(availabilityIndex.isFree("car1", start, end));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            adminService.removeCar(testCar);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(availabilityIndex, times(1)).evict("car1");
+            assertTrue(availabilityIndex.isFree("car1", start, end));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     @DisplayName("Should throw exception when trying to remove car with active reservations")
     void testRemoveCar_ThrowsException_HasActiveReservations() {
@@ -218,8 +299,63 @@ class AdminServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should view all cars when cars exist")
-    void testViewAllCars_Success_CarsExist() {
+    @DisplayName("Should apply an unversioned update to the current row instead of conflicting")
+    void testUpdateCarDetails_WithoutVersion() {
+        // Given - the stored car has been saved before and is reserved
+        Car stored = new Car("car1", "Camry", "Toyota", Car.CarStatus.RESERVED, 25.0, Car.CarType.SEDAN);
+        stored.setVersion(4L);
+        when(carRepository.findById("car1")).thenReturn(Optional.of(stored));
+        Car request = new Car("car1", "Camry XLE", "Toyota", null, 30.0, Car.CarType.SEDAN);
+
+        // When
+        adminService.updateCarDetails(request);
+
+        // Then
+        verify(carRepository).save(stored);
+        assertEquals("Camry XLE", stored.getModel());
+        assertEquals(30.0, stored.getRatePerHour());
+        assertEquals(Car.CarStatus.RESERVED, stored.getCarStatus());
+        assertEquals(Long.valueOf(4), stored.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should remove the current row when the request carries no version")
+    void testRemoveCar_WithoutVersion() {
+        // Given
+        Car stored = new Car("car1", "Camry", "Toyota", Car.CarStatus.AVAILABLE, 25.0, Car.CarType.SEDAN);
+        stored.setVersion(4L);
+        testCar.setVersion(null);
+        when(reservationRepository.findByCarId("car1")).thenReturn(Collections.emptyList());
+        when(carRepository.findById("car1")).thenReturn(Optional.of(stored));
+
+        // When
+        adminService.removeCar(testCar);
+
+        // Then
+        verify(carRepository).delete(stored);
+    }
+
+    @Test
+    @DisplayName("Should answer the fleet dashboard from the counters without querying cars")
+    void testViewFleetStatus() {
+        // Given
+        fleetCounters.reset(Map.of(Car.CarStatus.AVAILABLE, 2L, Car.CarStatus.RESERVED, 1L),
+                Map.of(Car.CarType.SEDAN, 3L));
+
+        // When
+        FleetStatus status = adminService.viewFleetStatus();
+
+        // Then
+        assertEquals(2L, status.byStatus().get(Car.CarStatus.AVAILABLE));
+        assertEquals(0L, status.byStatus().get(Car.CarStatus.MAINTENANCE));
+        assertEquals(3L, status.byType().get(Car.CarType.SEDAN));
+        assertEquals(3L, status.total());
+        verifyNoInteractions(carRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the first page of cars with a cursor when more rows exist")
+    void testViewCars_FirstPage() {
         // Given
         Car car2 = new Car();
         car2.setId("car2");
@@ -228,89 +364,121 @@ class AdminServiceImplTest {
         car2.setCarStatus(Car.CarStatus.RENTED);
         car2.setRatePerHour(45.0);
 
-        List<Car> cars = Arrays.asList(testCar, car2);
-        when(carRepository.findAll()).thenReturn(cars);
+        when(carRepository.findFirstPage(Limit.of(2))).thenReturn(Arrays.asList(car2, testCar));
 
         // When
-        List<Car> result = adminService.viewAllCars();
+        CursorPage<Car> result = adminService.viewCars(null, 1);
 
         // Then
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(testCar, result.get(0));
-        assertEquals(car2, result.get(1));
-        verify(carRepository, times(1)).findAll();
+        assertEquals(List.of(car2), result.items());
+        assertNotNull(result.nextCursor());
+        assertEquals(new KeysetCursor("45.0", "car2"), KeysetCursor.decode(result.nextCursor()));
+        verify(carRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("Should view all cars when no cars exist")
-    void testViewAllCars_Success_NoCarsExist() {
+    @DisplayName("Should seek past the cursor position for the next page of cars")
+    void testViewCars_NextPage() {
         // Given
-        when(carRepository.findAll()).thenReturn(Collections.emptyList());
+        String cursor = new KeysetCursor("45.0", "car2").encode();
+        when(carRepository.findPageAfter(45.0, "car2", Limit.of(51))).thenReturn(List.of(testCar));
 
         // When
-        List<Car> result = adminService.viewAllCars();
+        CursorPage<Car> result = adminService.viewCars(cursor, 50);
 
         // Then
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(carRepository, times(1)).findAll();
+        assertEquals(List.of(testCar), result.items());
+        assertNull(result.nextCursor());
+        verify(carRepository, never()).findFirstPage(any());
+    }
+
+    @Test
+    @DisplayName("Should view cars when no cars exist")
+    void testViewCars_NoCarsExist() {
+        // Given
+        when(carRepository.findFirstPage(Limit.of(51))).thenReturn(Collections.emptyList());
+
+        // When
+        CursorPage<Car> result = adminService.viewCars("", 50);
+
+        // Then
+        assertTrue(result.items().isEmpty());
+        assertNull(result.nextCursor());
     }
 
     @Test
-    @DisplayName("Should view all reservations when reservations exist")
-    void testViewAllReservations_Success_ReservationsExist() {
+    @DisplayName("Should cap the page size and reject invalid cursors")
+    void testViewCars_InvalidInput() {
         // Given
-        Reservation reservation2 = new Reservation();
-        reservation2.setReservationId("res2");
-        reservation2.setCustomer(testCustomer);
-        reservation2.setCar(testCar);
-        reservation2.setStatus(Reservation.ReservationStatus.PENDING);
-        reservation2.setTotalCost(150.0);
+        when(carRepository.findFirstPage(Limit.of(101))).thenReturn(Collections.emptyList());
 
-        List<Reservation> reservations = Arrays.asList(testReservation, reservation2);
-        when(reservationRepository.findAll()).thenReturn(reservations);
+        // When & Then
+        adminService.viewCars(null, 10_000);
+        verify(carRepository, times(1)).findFirstPage(Limit.of(101));
+        assertThrows(IllegalArgumentException.class, () -> adminService.viewCars(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> adminService.viewCars("not a cursor!", 10));
+    }
+
+    @Test
+    @DisplayName("Should page reservations by start time and id")
+    void testViewReservations_Pages() {
+        // Given
+        String firstId = "01a14805-ddd1-7000-a4e8-e5a018944c9f";
+        String secondId = "01a14805-de02-7000-9d65-a896f6177451";
+        ReservationSummary summary1 = new ReservationSummary(firstId, "John Doe", "Camry",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-05T10:00:00"),
+                Reservation.ReservationStatus.CONFIRMED, 200.0);
+        ReservationSummary summary2 = new ReservationSummary(secondId, "John Doe", "Camry",
+                LocalDateTime.parse("2023-11-01T10:00:00"), null, Reservation.ReservationStatus.PENDING, 150.0);
+
+        when(reservationRepository.findFirstPage(Limit.of(2))).thenReturn(Arrays.asList(summary1, summary2));
+        when(reservationRepository.findPageAfter(LocalDateTime.parse("2023-10-01T10:00:00"), firstId, Limit.of(2)))
+                .thenReturn(List.of(summary2));
 
         // When
-        List<Reservation> result = adminService.viewAllReservations();
+        CursorPage<ReservationSummary> first = adminService.viewReservations(null, 1);
+        CursorPage<ReservationSummary> second = adminService.viewReservations(first.nextCursor(), 1);
 
         // Then
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(testReservation, result.get(0));
-        assertEquals(reservation2, result.get(1));
-        verify(reservationRepository, times(1)).findAll();
+        assertEquals(List.of(summary1), first.items());
+        assertEquals(List.of(summary2), second.items());
+        assertNull(second.nextCursor());
+        verify(reservationRepository, never()).findAll();
+
+        // Reservation ids are UUIDs, so a cursor carrying anything else was not issued by us
+        String forged = new KeysetCursor("2023-10-01T10:00", "res1").encode();
+        assertThrows(IllegalArgumentException.class, () -> adminService.viewReservations(forged, 1));
     }
 
     @Test
-    @DisplayName("Should view all reservations when no reservations exist")
-    void testViewAllReservations_Success_NoReservationsExist() {
+    @DisplayName("Should view reservations when no reservations exist")
+    void testViewReservations_NoReservationsExist() {
         // Given
-        when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
+        when(reservationRepository.findFirstPage(Limit.of(51))).thenReturn(Collections.emptyList());
 
         // When
-        List<Reservation> result = adminService.viewAllReservations();
+        CursorPage<ReservationSummary> result = adminService.viewReservations(null, 50);
 
         // Then
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(reservationRepository, times(1)).findAll();
+        assertTrue(result.items().isEmpty());
+        assertNull(result.nextCursor());
     }
 
     @Test
     @DisplayName("Should make reservation for customer successfully")
     void testMakeReservationForCustomer_Success() {
         // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
 
         when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
             Reservation reservation = invocation.getArgument(0);
             reservation.setReservationId("RES123");
             return reservation;
         });
-        when(customerRepository.save(testCustomer)).thenReturn(testCustomer);
         when(carRepository.save(testCar)).thenReturn(testCar);
+        when(customerRepository.getReferenceById("customer1")).thenReturn(testCustomer);
 
         // When
         adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime);
@@ -318,8 +486,10 @@ class AdminServiceImplTest {
         // Then
         ArgumentCaptor<Reservation> reservationCaptor = ArgumentCaptor.forClass(Reservation.class);
         verify(reservationRepository, times(1)).save(reservationCaptor.capture());
-        verify(customerRepository, times(1)).save(testCustomer);
+        verify(customerRepository, never()).save(any(Customer.class));
         verify(carRepository, times(1)).save(testCar);
+        verify(carRepository, times(1)).forceVersionIncrement(testCar);
+        verify(customerRepository, times(1)).adjustActiveReservations("customer1", 1);
 
         Reservation savedReservation = reservationCaptor.getValue();
         assertEquals(testCustomer, savedReservation.getCustomer());
@@ -327,6 +497,10 @@ class AdminServiceImplTest {
         assertEquals(startTime, savedReservation.getStartTime());
         assertEquals(endTime, savedReservation.getEndTime());
         assertEquals(Reservation.ReservationStatus.CONFIRMED, savedReservation.getStatus());
+        assertEquals(1.0, meterRegistry.counter("reservations.booked", "path", "admin").count());
+
+        // The reservation row carries the association; the customer's collection is left alone
+        assertNull(testCustomer.getReservationList());
     }
 
     @Test
@@ -334,16 +508,17 @@ class AdminServiceImplTest {
     void testMakeReservationForCustomer_CarNotAvailable() {
         // Given
         testCar.setCarStatus(Car.CarStatus.RENTED);
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        // When
-        adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime);
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
 
-        // Then
+        // When & Then
+        assertThrows(CarUnavailableException.class,
+                () -> adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime));
         verify(reservationRepository, never()).save(any(Reservation.class));
         verify(customerRepository, never()).save(any(Customer.class));
         verify(carRepository, never()).save(any(Car.class));
+        assertEquals(1.0, meterRegistry.counter("reservations.conflicts", "path", "admin", "reason", "unavailable").count());
+        assertEquals(0.0, meterRegistry.counter("reservations.booked", "path", "admin").count());
     }
 
     @Test
@@ -351,24 +526,39 @@ class AdminServiceImplTest {
     void testMakeReservationForCustomer_CarInMaintenance() {
         // Given
         testCar.setCarStatus(Car.CarStatus.MAINTENANCE);
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
 
-        // When
-        adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime);
-
-        // Then
+        // When & Then
+        assertThrows(CarUnavailableException.class,
+                () -> adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime));
         verify(reservationRepository, never()).save(any(Reservation.class));
         verify(customerRepository, never()).save(any(Customer.class));
         verify(carRepository, never()).save(any(Car.class));
     }
 
+    @Test
+    @DisplayName("Should refuse an admin booking that overlaps an existing one")
+    void testMakeReservationForCustomer_Overlap() {
+        // Given
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
+        when(reservationRepository.existsConfirmedOverlap(testCar.getId(), startTime, endTime)).thenReturn(true);
+
+        // When & Then
+        assertThrows(CarUnavailableException.class,
+                () -> adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+        verify(carRepository, never()).forceVersionIncrement(any(Car.class));
+        assertEquals(1.0, meterRegistry.counter("reservations.conflicts", "path", "admin", "reason", "overlap").count());
+    }
+
     @Test
     @DisplayName("Should handle null car gracefully")
     void testMakeReservationForCustomer_NullCar() {
         // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
 
         // When & Then
         assertThrows(NullPointerException.class, () -> {
@@ -394,9 +584,11 @@ class AdminServiceImplTest {
         verify(reservationRepository, times(1)).findById(reservationId);
         verify(reservationRepository, times(1)).save(testReservation);
         verify(carRepository, times(1)).save(testCar);
+        verify(customerRepository, times(1)).adjustActiveReservations("customer1", -1);
 
         // Verify reservation was cancelled
         assertEquals(Reservation.ReservationStatus.CANCELLED, testReservation.getStatus());
+        assertEquals(1.0, meterRegistry.counter("reservations.cancelled", "by", "admin").count());
     }
 
     @Test
@@ -452,20 +644,18 @@ class AdminServiceImplTest {
     @DisplayName("Should save reservation with correct save order")
     void testMakeReservationForCustomer_SaveOrder() {
         // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
 
         when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
-        when(customerRepository.save(testCustomer)).thenReturn(testCustomer);
         when(carRepository.save(testCar)).thenReturn(testCar);
 
         // When
         adminService.makeReservationForCustomer(testCustomer, testCar, startTime, endTime);
 
         // Then - Verify save order using InOrder
-        InOrder inOrder = inOrder(reservationRepository, customerRepository, carRepository);
+        InOrder inOrder = inOrder(reservationRepository, carRepository);
         inOrder.verify(reservationRepository).save(any(Reservation.class));
-        inOrder.verify(customerRepository).save(testCustomer);
         inOrder.verify(carRepository).save(testCar);
     }
 
@@ -473,8 +663,8 @@ class AdminServiceImplTest {
     @DisplayName("Should handle repository save failures")
     void testMakeReservationForCustomer_RepositorySaveFailure() {
         // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenThrow(new RuntimeException("Database error"));
@@ -489,4 +679,38 @@ class AdminServiceImplTest {
         verify(carRepository, never()).save(any(Car.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should query confirmed reservations overlapping a window")
+    void testViewReservationsOverlapping() {
+        // Given
+        LocalDateTime from = LocalDateTime.parse("2023-10-02T00:00:00");
+        LocalDateTime to = LocalDateTime.parse("2023-10-09T00:00:00");
+        when(reservationRepository.findOverlapping(Reservation.ReservationStatus.CONFIRMED, from, to, Limit.of(50)))
+                .thenReturn(List.of(testSummary));
+
+        // When
+        List<ReservationSummary> result = adminService.viewReservationsOverlapping(from, to, 50);
+
+        // Then
+        assertEquals(List.of(testSummary), result);
+        assertThrows(IllegalArgumentException.class, () -> adminService.viewReservationsOverlapping(to, from, 50));
+    }
+
+    @Test
+    @DisplayName("Should query confirmed reservations ending within the given duration")
+    void testViewReservationsEndingWithin() {
+        // Given
+        ArgumentCaptor<LocalDateTime> fromCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> toCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(reservationRepository.findEndingBetween(any(), any(), any(), any())).thenReturn(List.of(testSummary));
+
+        // When
+        List<ReservationSummary> result = adminService.viewReservationsEndingWithin(Duration.ofHours(1), 10);
+
+        // Then
+        assertEquals(List.of(testSummary), result);
+        verify(reservationRepository).findEndingBetween(eq(Reservation.ReservationStatus.CONFIRMED),
+                fromCaptor.capture(), toCaptor.capture(), eq(Limit.of(10)));
+        assertEquals(Duration.ofHours(1), Duration.between(fromCaptor.getValue(), toCaptor.getValue()));
+    }
+}
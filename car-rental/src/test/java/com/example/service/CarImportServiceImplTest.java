@@ -0,0 +1,138 @@
+package com.example.service;
+
+import com.example.dto.CarImportFormat;
+import com.example.dto.CarImportSummary;
+import com.example.models.Car;
+import com.example.repository.CarRepository;
+import com.example.service.impl.CarImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CarImportServiceImplTest {
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CarImportServiceImpl importService;
+
+    @Test
+    @DisplayName("Should create new cars, update known ones and report invalid CSV rows")
+    void testImportCars_Csv() throws Exception {
+        // Given - car1 already exists and is reserved
+        Car existing = new Car("car1", "Camry", "Toyota", Car.CarStatus.RESERVED, 25.0, Car.CarType.SEDAN);
+        when(carRepository.findAllById(any())).thenReturn(List.of(existing));
+        String csv = """
+                id,model,brand,ratePerHour,carType
+                car1,Camry XLE,Toyota,30,SEDAN
+                car9,"Model ""S""\",Tesla,80,sedan
+                car10,X5,BMW,abc,SUV
+                car11,X5,BMW,60,BOAT
+                """;
+
+        // When
+        CarImportSummary summary = importService.importCars(CarImportFormat.CSV, body(csv));
+
+        // Then
+        assertEquals(1, summary.created());
+        assertEquals(1, summary.updated());
+        assertEquals(2, summary.rejected());
+        assertEquals(List.of(4L, 5L), summary.rejectedRows().stream().map(CarImportSummary.RejectedRow::line).toList());
+
+        ArgumentCaptor<Car> persisted = ArgumentCaptor.forClass(Car.class);
+        verify(entityManager).persist(persisted.capture());
+        assertEquals("Model \"S\"", persisted.getValue().getModel());
+        assertEquals(Car.CarStatus.AVAILABLE, persisted.getValue().getCarStatus());
+
+        // Details are updated in place, the booking status is left alone
+        assertEquals("Camry XLE", existing.getModel());
+        assertEquals(30.0, existing.getRatePerHour());
+        assertEquals(Car.CarStatus.RESERVED, existing.getCarStatus());
+    }
+
+    @Test
+    @DisplayName("Should flush and clear the persistence context after every batch")
+    void testImportCars_FlushesPerBatch() throws Exception {
+        // Given - 1200 new cars as NDJSON, one malformed line
+        String ndjson = IntStream.range(0, 1200)
+                .mapToObj(i -> "{\"id\":\"car" + i + "\",\"model\":\"M\",\"brand\":\"B\",\"ratePerHour\":10,\"carType\":\"SUV\"}")
+                .collect(Collectors.joining("\n", "", "\n{not json\n"));
+        when(carRepository.findAllById(any())).thenReturn(List.of());
+
+        // When
+        CarImportSummary summary = importService.importCars(CarImportFormat.NDJSON, body(ndjson));
+
+        // Then - batches of 500, 500 and 200
+        assertEquals(1200, summary.created());
+        assertEquals(1, summary.rejected());
+        verify(entityManager, times(1200)).persist(any(Car.class));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("Should assign branches from the optional column and keep them when it is empty")
+    void testImportCars_Branches() throws Exception {
+        // Given - car1 is kept downtown
+        Car existing = new Car("car1", "Camry", "Toyota", Car.CarStatus.AVAILABLE, 25.0, Car.CarType.SEDAN);
+        existing.setBranchId("downtown");
+        when(carRepository.findAllById(any())).thenReturn(List.of(existing));
+        String csv = """
+                id,model,brand,ratePerHour,carType,branchId
+                car1,Camry,Toyota,25,SEDAN,
+                car2,CR-V,Honda,35,SUV,airport
+                """;
+
+        // When
+        importService.importCars(CarImportFormat.CSV, body(csv));
+
+        // Then
+        ArgumentCaptor<Car> persisted = ArgumentCaptor.forClass(Car.class);
+        verify(entityManager).persist(persisted.capture());
+        assertEquals("airport", persisted.getValue().getBranchId());
+        assertEquals("downtown", existing.getBranchId());
+    }
+
+    @Test
+    @DisplayName("Should refuse a CSV body whose header lacks a required column")
+    void testImportCars_MissingColumn() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> importService.importCars(CarImportFormat.CSV,
+                body("id,model,brand,carType\ncar1,Camry,Toyota,SEDAN\n")));
+        verify(entityManager, never()).persist(any());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
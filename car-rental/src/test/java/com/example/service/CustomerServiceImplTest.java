@@ -1,12 +1,25 @@
 package com.example.service;
 
+import com.example.availability.CarAvailabilityIndex;
+import com.example.dto.BulkReservationRequest;
+import com.example.dto.BulkReservationResult;
+import com.example.dto.ReservationSummary;
+import com.example.exception.CarUnavailableException;
+import com.example.exception.CustomerNotFoundException;
+import com.example.fleet.FleetCounters;
+import com.example.metrics.ReservationMetrics;
 import com.example.models.Car;
 import com.example.models.Customer;
 import com.example.models.Reservation;
+import com.example.pricing.PricingEngine;
+import com.example.readmodel.FleetChange;
+import com.example.readmodel.FleetChangeStream;
+import com.example.readmodel.FleetReadModel;
 import com.example.repository.CarRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.ReservationRepository;
 import com.example.service.impl.CustomerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,22 +28,35 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +71,23 @@ class CustomerServiceImplTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Spy
+    private CarAvailabilityIndex availabilityIndex = new CarAvailabilityIndex();
+
+    @Spy
+    private FleetCounters fleetCounters = new FleetCounters();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReservationMetrics reservationMetrics = new ReservationMetrics(meterRegistry);
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine();
+
+    @Spy
+    private FleetChangeStream changeStream = new FleetChangeStream(List.of(new FleetReadModel()));
+
     @InjectMocks
     private CustomerServiceImpl customerService;
 
@@ -95,33 +138,34 @@ class CustomerServiceImplTest {
         testReservation.setReservationId("res1");
         testReservation.setCustomer(testCustomer);
         testReservation.setCar(availableCar);
-        testReservation.setStartTime("2023-10-01T10:00:00");
-        testReservation.setEndTime("2023-10-05T10:00:00");
+        testReservation.setStartTime(LocalDateTime.parse("2023-10-01T10:00:00"));
+        testReservation.setEndTime(LocalDateTime.parse("2023-10-05T10:00:00"));
         testReservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
-        testReservation.setTotalCost(200.0);
+        testReservation.setTotalCostCents(20000);
     }
 
     @Test
     @DisplayName("Should return available cars when cars exist")
     void testViewAvailableCars_Success_CarsAvailable() {
         // Given
-        List<Car> allCars = Arrays.asList(availableCar, rentedCar, maintenanceCar);
-        when(carRepository.findAll()).thenReturn(allCars);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(carRepository.findByCarStatus(Car.CarStatus.AVAILABLE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(availableCar), pageable, false));
 
         // When
-        List<Car> result = customerService.viewAvailableCars();
+        Slice<Car> result = customerService.viewAvailableCars(null, pageable);
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(availableCar, result.get(0));
-        assertEquals(Car.CarStatus.AVAILABLE, result.get(0).getCarStatus());
-        verify(carRepository, times(1)).findAll();
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(availableCar, result.getContent().get(0));
+        verify(carRepository, times(1)).findByCarStatus(Car.CarStatus.AVAILABLE, pageable);
+        verify(carRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("Should return multiple available cars when multiple cars are available")
-    void testViewAvailableCars_Success_MultipleCarsAvailable() {
+    @DisplayName("Should filter available cars by type in the query")
+    void testViewAvailableCars_Success_FilteredByType() {
         // Given
         Car anotherAvailableCar = new Car();
         anotherAvailableCar.setId("car4");
@@ -130,170 +174,49 @@ class CustomerServiceImplTest {
         anotherAvailableCar.setCarType(Car.CarType.SUV);
         anotherAvailableCar.setRatePerHour(40.0);
 
-        List<Car> allCars = Arrays.asList(availableCar, rentedCar, anotherAvailableCar, maintenanceCar);
-        when(carRepository.findAll()).thenReturn(allCars);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(carRepository.findByCarStatusAndCarType(Car.CarStatus.AVAILABLE, Car.CarType.SUV, pageable))
+                .thenReturn(new SliceImpl<>(List.of(anotherAvailableCar), pageable, false));
 
         // When
-        List<Car> result = customerService.viewAvailableCars();
+        Slice<Car> result = customerService.viewAvailableCars(Car.CarType.SUV, pageable);
 
         // Then
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertTrue(result.contains(availableCar));
-        assertTrue(result.contains(anotherAvailableCar));
-        assertTrue(result.stream().allMatch(car -> car.getCarStatus() == Car.CarStatus.AVAILABLE));
-        verify(carRepository, times(1)).findAll();
+        assertEquals(List.of(anotherAvailableCar), result.getContent());
+        verify(carRepository, never()).findByCarStatus(any(), any());
     }
 
     @Test
-    @DisplayName("Should return empty list when no cars are available")
-    void testViewAvailableCars_Success_NoCarsAvailable() {
-        // Given - Only non-available cars
-        List<Car> allCars = Arrays.asList(rentedCar, maintenanceCar);
-        when(carRepository.findAll()).thenReturn(allCars);
+    @DisplayName("Should report further pages without loading them")
+    void testViewAvailableCars_Success_HasNextPage() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        when(carRepository.findByCarStatus(Car.CarStatus.AVAILABLE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(availableCar), pageable, true));
 
         // When
-        List<Car> result = customerService.viewAvailableCars();
+        Slice<Car> result = customerService.viewAvailableCars(null, pageable);
 
         // Then
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(carRepository, times(1)).findAll();
+        assertEquals(1, result.getNumberOfElements());
+        assertTrue(result.hasNext());
     }
 
     @Test
-    @DisplayName("Should return empty list when no cars exist in database")
-    void testViewAvailableCars_Success_NoCarsInDatabase() {
+    @DisplayName("Should return empty page when no cars are available")
+    void testViewAvailableCars_Success_NoCarsAvailable() {
         // Given
-        when(carRepository.findAll()).thenReturn(Collections.emptyList());
+        Pageable pageable = PageRequest.of(0, 20);
+        when(carRepository.findByCarStatus(Car.CarStatus.AVAILABLE, pageable))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), pageable, false));
 
         // When
-        List<Car> result = customerService.viewAvailableCars();
+        Slice<Car> result = customerService.viewAvailableCars(null, pageable);
 
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carRepository, times(1)).findAll();
-    }
-
-    @Test
-    @DisplayName("Should make reservation successfully when car is available")
-    void testMakeReservation_Success() {
-        // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
-            Reservation reservation = invocation.getArgument(0);
-            reservation.setReservationId("RES123");
-            return reservation;
-        });
-        when(customerRepository.save(testCustomer)).thenReturn(testCustomer);
-        when(carRepository.save(availableCar)).thenReturn(availableCar);
-
-        // When
-        customerService.makeReservation(testCustomer, availableCar, startTime, endTime);
-
-        // Then
-        ArgumentCaptor<Reservation> reservationCaptor = ArgumentCaptor.forClass(Reservation.class);
-        verify(reservationRepository, times(1)).save(reservationCaptor.capture());
-        verify(customerRepository, times(1)).save(testCustomer);
-        verify(carRepository, times(1)).save(availableCar);
-
-        Reservation savedReservation = reservationCaptor.getValue();
-        assertEquals(testCustomer, savedReservation.getCustomer());
-        assertEquals(availableCar, savedReservation.getCar());
-        assertEquals(startTime, savedReservation.getStartTime());
-        assertEquals(endTime, savedReservation.getEndTime());
-        assertEquals(Reservation.ReservationStatus.CONFIRMED, savedReservation.getStatus());
-    }
-
-    @Test
-    @DisplayName("Should not make reservation when car is rented")
-    void testMakeReservation_CarNotAvailable_Rented() {
-        // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        // When
-        customerService.makeReservation(testCustomer, rentedCar, startTime, endTime);
-
-        // Then
-        verify(reservationRepository, never()).save(any(Reservation.class));
-        verify(customerRepository, never()).save(any(Customer.class));
-        verify(carRepository, never()).save(any(Car.class));
-    }
-
-    @Test
-    @DisplayName("Should not make reservation when car is in maintenance")
-    void testMakeReservation_CarNotAvailable_Maintenance() {
-        // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        // When
-        customerService.makeReservation(testCustomer, maintenanceCar, startTime, endTime);
-
-        // Then
-        verify(reservationRepository, never()).save(any(Reservation.class));
-        verify(customerRepository, never()).save(any(Customer.class));
-        verify(carRepository, never()).save(any(Car.class));
-    }
-
-    @Test
-    @DisplayName("Should verify save order in successful reservation")
-    void testMakeReservation_SaveOrder() {
-        // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
-        when(customerRepository.save(testCustomer)).thenReturn(testCustomer);
-        when(carRepository.save(availableCar)).thenReturn(availableCar);
-
-        // When
-        customerService.makeReservation(testCustomer, availableCar, startTime, endTime);
-
-        // Then - Verify save order using InOrder
-        InOrder inOrder = inOrder(reservationRepository, customerRepository, carRepository);
-        inOrder.verify(reservationRepository).save(any(Reservation.class));
-        inOrder.verify(customerRepository).save(testCustomer);
-        inOrder.verify(carRepository).save(availableCar);
-    }
-
-    @Test
-    @DisplayName("Should handle null car gracefully")
-    void testMakeReservation_NullCar() {
-        // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        // When & Then
-        assertThrows(NullPointerException.class, () -> {
-            customerService.makeReservation(testCustomer, null, startTime, endTime);
-        });
-
-        verify(reservationRepository, never()).save(any(Reservation.class));
-    }
-
-
-    @Test
-    @DisplayName("Should handle repository save failures")
-    void testMakeReservation_RepositorySaveFailure() {
-        // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-
-        when(reservationRepository.save(any(Reservation.class))).thenThrow(new RuntimeException("Database error"));
-
-        // When & Then
-        assertThrows(RuntimeException.class, () -> {
-            customerService.makeReservation(testCustomer, availableCar, startTime, endTime);
-        });
-
-        // Verify subsequent saves are not called due to exception
-        verify(customerRepository, never()).save(any(Customer.class));
-        verify(carRepository, never()).save(any(Car.class));
+        assertFalse(result.hasNext());
     }
 
     @Test
@@ -304,7 +227,6 @@ class CustomerServiceImplTest {
         when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(testReservation));
         when(reservationRepository.save(testReservation)).thenReturn(testReservation);
         when(carRepository.save(availableCar)).thenReturn(availableCar);
-        when(customerRepository.save(testCustomer)).thenReturn(testCustomer);
 
         // When
         customerService.cancelReservation(reservationId);
@@ -313,7 +235,8 @@ class CustomerServiceImplTest {
         verify(reservationRepository, times(1)).findById(reservationId);
         verify(reservationRepository, times(1)).save(testReservation);
         verify(carRepository, times(1)).save(availableCar);
-        verify(customerRepository, times(1)).save(testCustomer);
+        verify(customerRepository, never()).save(any(Customer.class));
+        verify(customerRepository, times(1)).adjustActiveReservations("customer1", -1);
 
         // Verify reservation was cancelled
         assertEquals(Reservation.ReservationStatus.CANCELLED, testReservation.getStatus());
@@ -377,16 +300,31 @@ class CustomerServiceImplTest {
         when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(testReservation));
         when(reservationRepository.save(testReservation)).thenReturn(testReservation);
         when(carRepository.save(availableCar)).thenReturn(availableCar);
-        when(customerRepository.save(testCustomer)).thenReturn(testCustomer);
 
         // When
         customerService.cancelReservation(reservationId);
 
         // Then - Verify save order using InOrder
-        InOrder inOrder = inOrder(reservationRepository, carRepository, customerRepository);
+        InOrder inOrder = inOrder(reservationRepository, carRepository);
         inOrder.verify(reservationRepository).save(testReservation);
         inOrder.verify(carRepository).save(availableCar);
-        inOrder.verify(customerRepository).save(testCustomer);
+    }
+
+    @Test
+    @DisplayName("Should cancel without touching the customer's reservation history")
+    @SuppressWarnings("unchecked")
+    void testCancelReservation_DoesNotLoadCustomerHistory() {
+        // Given - a history that must not be read, as if it held thousands of rows
+        List<Reservation> history = mock(List.class);
+        testCustomer.setReservationList(history);
+        when(reservationRepository.findById("res1")).thenReturn(Optional.of(testReservation));
+
+        // When
+        customerService.cancelReservation("res1");
+
+        // Then
+        verifyNoInteractions(history);
+        verify(customerRepository, never()).save(any(Customer.class));
     }
 
     @Test
@@ -395,24 +333,20 @@ class CustomerServiceImplTest {
         // Given
         String customerId = "customer1";
 
-        Reservation reservation2 = new Reservation();
-        reservation2.setReservationId("res2");
-        reservation2.setCustomer(testCustomer);
-        reservation2.setCar(rentedCar);
-        reservation2.setStartTime("2023-11-01T10:00:00");
-        reservation2.setEndTime("2023-11-05T10:00:00");
-        reservation2.setStatus(Reservation.ReservationStatus.PENDING);
-        reservation2.setTotalCost(180.0);
-
-        List<Reservation> reservations = Arrays.asList(testReservation, reservation2);
-        when(reservationRepository.findByCustomerId(customerId)).thenReturn(reservations);
+        List<ReservationSummary> reservations = Arrays.asList(
+                new ReservationSummary("res1", "John Doe", "Toyota Camry", LocalDateTime.parse("2023-10-01T10:00:00"),
+                        LocalDateTime.parse("2023-10-05T10:00:00"), Reservation.ReservationStatus.CONFIRMED, 200.0),
+                new ReservationSummary("res2", "John Doe", "Honda Civic", LocalDateTime.parse("2023-11-01T10:00:00"),
+                        LocalDateTime.parse("2023-11-05T10:00:00"), Reservation.ReservationStatus.PENDING, 180.0));
+        when(reservationRepository.findSummariesByCustomerId(customerId)).thenReturn(reservations);
 
         // When
         customerService.viewMyReservations(customerId);
 
         // Then
-        verify(reservationRepository, times(1)).findByCustomerId(customerId);
-        // Note: This method only logs, so we verify the repository call
+        verify(reservationRepository, times(1)).findSummariesByCustomerId(customerId);
+        // Note: This method only logs, so we verify the single summary query
+        verify(customerRepository, never()).findById(any());
     }
 
     @Test
@@ -420,26 +354,26 @@ class CustomerServiceImplTest {
     void testViewMyReservations_Success_NoReservationsExist() {
         // Given
         String customerId = "customer1";
-        when(reservationRepository.findByCustomerId(customerId)).thenReturn(Collections.emptyList());
+        when(reservationRepository.findSummariesByCustomerId(customerId)).thenReturn(Collections.emptyList());
 
         // When
         customerService.viewMyReservations(customerId);
 
         // Then
-        verify(reservationRepository, times(1)).findByCustomerId(customerId);
+        verify(reservationRepository, times(1)).findSummariesByCustomerId(customerId);
     }
 
     @Test
     @DisplayName("Should handle null customer ID when viewing reservations")
     void testViewMyReservations_NullCustomerId() {
         // Given
-        when(reservationRepository.findByCustomerId(null)).thenReturn(Collections.emptyList());
+        when(reservationRepository.findSummariesByCustomerId(null)).thenReturn(Collections.emptyList());
 
         // When
         customerService.viewMyReservations(null);
 
         // Then
-        verify(reservationRepository, times(1)).findByCustomerId(null);
+        verify(reservationRepository, times(1)).findSummariesByCustomerId(null);
     }
 
     @Test
@@ -447,13 +381,13 @@ class CustomerServiceImplTest {
     void testViewMyReservations_EmptyCustomerId() {
         // Given
         String emptyCustomerId = "";
-        when(reservationRepository.findByCustomerId(emptyCustomerId)).thenReturn(Collections.emptyList());
+        when(reservationRepository.findSummariesByCustomerId(emptyCustomerId)).thenReturn(Collections.emptyList());
 
         // When
         customerService.viewMyReservations(emptyCustomerId);
 
         // Then
-        verify(reservationRepository, times(1)).findByCustomerId(emptyCustomerId);
+        verify(reservationRepository, times(1)).findSummariesByCustomerId(emptyCustomerId);
     }
 
     @Test
@@ -461,13 +395,13 @@ class CustomerServiceImplTest {
     void testViewMyReservations_SpecialCharactersCustomerId() {
         // Given
         String specialCustomerId = "customer@#$%";
-        when(reservationRepository.findByCustomerId(specialCustomerId)).thenReturn(Collections.emptyList());
+        when(reservationRepository.findSummariesByCustomerId(specialCustomerId)).thenReturn(Collections.emptyList());
 
         // When
         customerService.viewMyReservations(specialCustomerId);
 
         // Then
-        verify(reservationRepository, times(1)).findByCustomerId(specialCustomerId);
+        verify(reservationRepository, times(1)).findSummariesByCustomerId(specialCustomerId);
     }
 
     @Test
@@ -475,49 +409,398 @@ class CustomerServiceImplTest {
     void testViewMyReservations_RepositoryException() {
         // Given
         String customerId = "customer1";
-        when(reservationRepository.findByCustomerId(customerId)).thenThrow(new RuntimeException("Database error"));
+        when(reservationRepository.findSummariesByCustomerId(customerId)).thenThrow(new RuntimeException("Database error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> {
             customerService.viewMyReservations(customerId);
         });
 
-        verify(reservationRepository, times(1)).findByCustomerId(customerId);
+        verify(reservationRepository, times(1)).findSummariesByCustomerId(customerId);
+    }
+
+    @Test
+    @DisplayName("Should not claim a car for a window overlapping a booking in the index")
+    void testReserve_OverlappingWindow() {
+        // Given
+        availabilityIndex.book("car1", "res0",
+                LocalDateTime.parse("2023-10-04T10:00:00"), LocalDateTime.parse("2023-10-06T10:00:00"));
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+
+        // When & Then
+        assertThrows(CarUnavailableException.class, () -> customerService.reserve("customer1", "car1",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-05T10:00:00")));
+        verify(carRepository, never()).claimForBooking(any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+        assertEquals(1.0, meterRegistry.counter("reservations.conflicts", "path", "claim", "reason", "overlap").count());
+    }
+
+    @Test
+    @DisplayName("Should list only bookable cars that are free for the requested window")
+    void testViewFreeCars() {
+        // Given
+        Car bookedCar = new Car("car4", "Ford Focus", "Ford", Car.CarStatus.RESERVED, 40.0, Car.CarType.SEDAN);
+        availabilityIndex.book("car4", "res0",
+                LocalDateTime.parse("2023-10-02T10:00:00"), LocalDateTime.parse("2023-10-03T10:00:00"));
+        Pageable pageable = PageRequest.of(0, 20);
+        when(carRepository.findByCarStatusIn(List.of(Car.CarStatus.AVAILABLE, Car.CarStatus.RESERVED), pageable))
+                .thenReturn(new SliceImpl<>(List.of(availableCar, bookedCar), pageable, false));
+
+        // When
+        Slice<Car> result = customerService.viewFreeCars(
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-05T10:00:00"), pageable);
+
+        // Then
+        assertEquals(List.of(availableCar), result.getContent());
     }
 
     @Test
-    @DisplayName("Should not modify reservation status in makeReservation when car unavailable")
-    void testMakeReservation_NoStatusChangeWhenCarUnavailable() {
+    @DisplayName("Should keep reading bookable cars until the page of free cars is full")
+    void testViewFreeCars_FirstSliceMostlyBooked() {
         // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
-        Car.CarStatus originalStatus = rentedCar.getCarStatus();
+        LocalDateTime start = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2023-10-05T10:00:00");
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            cars.add(new Car("car" + (10 + i), "Model " + i, "Brand", Car.CarStatus.AVAILABLE, 50.0, Car.CarType.SEDAN));
+        }
+        for (String booked : List.of("car10", "car11", "car13")) {
+            availabilityIndex.book(booked, "res-" + booked, start, end);
+        }
+        List<Car.CarStatus> bookable = List.of(Car.CarStatus.AVAILABLE, Car.CarStatus.RESERVED);
+        for (int slice = 0; slice < 3; slice++) {
+            when(carRepository.findByCarStatusIn(bookable, PageRequest.of(slice, 2))).thenReturn(
+                    new SliceImpl<>(cars.subList(2 * slice, 2 * slice + 2), PageRequest.of(slice, 2), slice < 2));
+        }
 
         // When
-        customerService.makeReservation(testCustomer, rentedCar, startTime, endTime);
+        Slice<Car> first = customerService.viewFreeCars(start, end, PageRequest.of(0, 2));
+        Slice<Car> second = customerService.viewFreeCars(start, end, PageRequest.of(1, 2));
 
         // Then
-        assertEquals(originalStatus, rentedCar.getCarStatus());
+        assertEquals(List.of(cars.get(2), cars.get(4)), first.getContent());
+        assertTrue(first.hasNext());
+        assertEquals(List.of(cars.get(5)), second.getContent());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should free the reservation window when cancelling")
+    void testCancelReservation_ReleasesWindow() {
+        // Given
+        LocalDateTime start = testReservation.getStartTime();
+        LocalDateTime end = testReservation.getEndTime();
+        availabilityIndex.book("car1", "res1", start, end);
+        when(reservationRepository.findById("res1")).thenReturn(Optional.of(testReservation));
+
+        // When
+        customerService.cancelReservation("res1");
+
+        // Then
+        assertTrue(availabilityIndex.isFree("car1", start, end));
+        verify(carRepository, times(1)).forceVersionIncrement(availableCar);
+        assertEquals(Car.CarStatus.AVAILABLE, availableCar.getCarStatus());
+        verify(changeStream).emit(new FleetChange.Released("car1", "res1", 1, start, end));
+    }
+
+    @Test
+    @DisplayName("Should book through the fast path with a single claim and insert")
+    void testReserve_Success() {
+        // Given
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-01T14:00:00");
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car1")).thenReturn(Optional.of(carRate("car1", 50.0)));
+        when(carRepository.getReferenceById("car1")).thenReturn(availableCar);
+        when(customerRepository.getReferenceById("customer1")).thenReturn(testCustomer);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setReservationId("RES123");
+            return reservation;
+        });
+
+        // When
+        String reservationId = customerService.reserve("customer1", "car1", startTime, endTime);
+
+        // Then
+        assertEquals("RES123", reservationId);
+        ArgumentCaptor<Reservation> reservationCaptor = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationRepository, times(1)).save(reservationCaptor.capture());
+        assertEquals(Reservation.ReservationStatus.CONFIRMED, reservationCaptor.getValue().getStatus());
+        assertEquals(20000, reservationCaptor.getValue().getTotalCostCents());
+        assertFalse(availabilityIndex.isFree("car1", startTime, endTime));
+
+        // The fast path never loads or re-saves the car and customer aggregates
+        verify(carRepository, never()).save(any(Car.class));
+        verify(customerRepository, never()).save(any(Customer.class));
+
+        // The customer's count moves in the same transaction; the fleet counters see the car leave AVAILABLE
+        verify(customerRepository, times(1)).adjustActiveReservations("customer1", 1);
+        assertEquals(1, fleetCounters.count(Car.CarStatus.RESERVED));
+        assertEquals(-1, fleetCounters.count(Car.CarStatus.AVAILABLE));
+        assertEquals(1.0, meterRegistry.counter("reservations.booked", "path", "claim").count());
+
+        // The read model hears of both the claim and the booking
+        verify(changeStream).emit(new FleetChange.StatusChanged("car1", 1, Car.CarStatus.RESERVED));
+        verify(changeStream).emit(new FleetChange.Booked("car1", "RES123", 0, startTime, endTime));
+    }
+
+    @Test
+    @DisplayName("Should reject the fast path for an unknown customer before claiming the car")
+    void testReserve_CustomerNotFound() {
+        // Given
+        when(customerRepository.existsById("ghost")).thenReturn(false);
+
+        // When & Then
+        assertThrows(CustomerNotFoundException.class, () -> customerService.reserve("ghost", "car1",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-01T14:00:00")));
+        verify(carRepository, never()).claimForBooking(any());
+    }
+
+    @Test
+    @DisplayName("Should not insert a reservation when the car cannot be claimed")
+    void testReserve_ClaimFails() {
+        // Given - conditional update matched no row
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car2")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(CarUnavailableException.class, () -> customerService.reserve("customer1", "car2",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-01T14:00:00")));
         verify(reservationRepository, never()).save(any(Reservation.class));
+        assertEquals(1.0, meterRegistry.counter("reservations.conflicts", "path", "claim", "reason", "unavailable").count());
+        assertEquals(0.0, meterRegistry.counter("reservations.booked", "path", "claim").count());
     }
 
     @Test
-    @DisplayName("Should handle multiple concurrent reservation attempts gracefully")
-    void testMakeReservation_ConcurrentAttempts() {
+    @DisplayName("Should roll back the claim when an overlapping booking committed first")
+    void testReserve_OverlapAfterClaim() {
+        // Given
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-01T14:00:00");
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car1")).thenReturn(Optional.of(carRate("car1", 50.0)));
+        when(reservationRepository.existsConfirmedOverlap("car1", startTime, endTime)).thenReturn(true);
+
+        // When & Then
+        assertThrows(CarUnavailableException.class,
+                () -> customerService.reserve("customer1", "car1", startTime, endTime));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+        assertTrue(availabilityIndex.isFree("car1", startTime, endTime));
+    }
+
+    @Test
+    @DisplayName("Should claim the car before inserting the reservation and counting it for the customer")
+    void testReserve_SaveOrder() {
         // Given
-        String startTime = "2023-10-01T10:00:00";
-        String endTime = "2023-10-05T10:00:00";
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car1")).thenReturn(Optional.of(carRate("car1", 50.0)));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setReservationId("RES123");
+            return reservation;
+        });
 
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
-        when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
-        when(carRepository.save(any(Car.class))).thenReturn(availableCar);
+        // When
+        customerService.reserve("customer1", "car1", startTime, endTime);
 
-        // When - Make multiple reservations
-        customerService.makeReservation(testCustomer, availableCar, startTime, endTime);
-        customerService.makeReservation(testCustomer, availableCar, startTime, endTime);
+        // Then - Verify write order using InOrder
+        InOrder inOrder = inOrder(carRepository, reservationRepository, customerRepository);
+        inOrder.verify(carRepository).claimForBooking("car1");
+        inOrder.verify(reservationRepository).save(any(Reservation.class));
+        inOrder.verify(customerRepository).adjustActiveReservations("customer1", 1);
+    }
 
+    @Test
+    @DisplayName("Should handle null car gracefully")
+    void testReserve_NullCar() {
+        // Given
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+
+        // When & Then
+        assertThrows(NullPointerException.class, () -> customerService.reserve("customer1", null,
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-05T10:00:00")));
+        verify(carRepository, never()).claimForBooking(any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    @DisplayName("Should handle repository save failure")
+    void testReserve_RepositorySaveFailure() {
+        // Given
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car1")).thenReturn(Optional.of(carRate("car1", 50.0)));
+        when(reservationRepository.save(any(Reservation.class))).thenThrow(new RuntimeException("Database error"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> customerService.reserve("customer1", "car1", startTime, endTime));
+
+        // Nothing after the insert runs, so the window stays free and nothing is counted or published
+        verify(customerRepository, never()).adjustActiveReservations(any(), anyInt());
+        assertTrue(availabilityIndex.isFree("car1", startTime, endTime));
+        assertEquals(0, fleetCounters.count(Car.CarStatus.RESERVED));
+        verify(changeStream, never()).emit(any());
+    }
+
+    @Test
+    @DisplayName("Should not change any status when the car is rented or in maintenance")
+    void testReserve_NoStatusChangeWhenCarUnavailable() {
+        // Given - the guarded update matches neither car
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car2")).thenReturn(Optional.empty());
+        when(carRepository.claimForBooking("car3")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(CarUnavailableException.class,
+                () -> customerService.reserve("customer1", "car2", startTime, endTime));
+        assertThrows(CarUnavailableException.class,
+                () -> customerService.reserve("customer1", "car3", startTime, endTime));
+        assertEquals(Car.CarStatus.RENTED, rentedCar.getCarStatus());
+        assertEquals(Car.CarStatus.MAINTENANCE, maintenanceCar.getCarStatus());
+        assertEquals(0, fleetCounters.count(Car.CarStatus.RESERVED));
+        verify(changeStream, never()).emit(any());
+    }
+
+    @Test
+    @DisplayName("Should handle multiple concurrent reservation attempts gracefully")
+    void testReserve_ConcurrentAttempts() {
+        // Given
+        LocalDateTime startTime = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime endTime = LocalDateTime.parse("2023-10-05T10:00:00");
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.claimForBooking("car1")).thenReturn(Optional.of(carRate("car1", 50.0)));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setReservationId("RES123");
+            return reservation;
+        });
+
+        // When - the same window is booked twice
+        customerService.reserve("customer1", "car1", startTime, endTime);
+        assertThrows(CarUnavailableException.class,
+                () -> customerService.reserve("customer1", "car1", startTime, endTime));
+
+        // Then - the second attempt is turned away before it claims the car again
+        verify(carRepository, times(1)).claimForBooking("car1");
         verify(reservationRepository, times(1)).save(any(Reservation.class));
-        verify(customerRepository, times(1)).save(testCustomer);
-        verify(carRepository, times(1)).save(availableCar);
+        verify(customerRepository, times(1)).adjustActiveReservations("customer1", 1);
+    }
+
+    @Test
+    @DisplayName("Should confirm the free items of a batch and report the rest per item")
+    void testReserveAll_PartialSuccess() {
+        // Given - car1 is bookable, car2 is not; the second car1 item overlaps the first
+        LocalDateTime start = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2023-10-01T14:00:00");
+        List<BulkReservationRequest.Item> items = List.of(
+                new BulkReservationRequest.Item("car1", start, end),
+                new BulkReservationRequest.Item("car1", start.plusHours(2), end.plusHours(2)),
+                new BulkReservationRequest.Item("car2", start, end),
+                new BulkReservationRequest.Item("car1", end, start));
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(customerRepository.getReferenceById("customer1")).thenReturn(testCustomer);
+        when(carRepository.lockAllForBooking(any())).thenReturn(Map.of("car1", carRate("car1", 50.0)));
+        when(carRepository.getReferenceById("car1")).thenReturn(availableCar);
+        when(reservationRepository.findConfirmedWindows(any(), any(), any())).thenReturn(List.of());
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Reservation> reservations = new ArrayList<>();
+            invocation.<Iterable<Reservation>>getArgument(0).forEach(reservations::add);
+            reservations.forEach(reservation -> reservation.setReservationId("RES-" + reservation.getStartTime().getHour()));
+            return reservations;
+        });
+
+        // When
+        List<BulkReservationResult> results = customerService.reserveAll("customer1", items);
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals(BulkReservationResult.Outcome.CONFIRMED, results.get(0).outcome());
+        assertEquals("RES-10", results.get(0).reservationId());
+        assertEquals(BulkReservationResult.Outcome.CONFLICT, results.get(1).outcome());
+        assertEquals(BulkReservationResult.Outcome.CONFLICT, results.get(2).outcome());
+        assertEquals(BulkReservationResult.Outcome.REJECTED, results.get(3).outcome());
+        assertFalse(availabilityIndex.isFree("car1", start, end));
+        verify(reservationRepository, times(1)).saveAll(any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+        verify(customerRepository, times(1)).adjustActiveReservations("customer1", 1);
+        verify(carRepository, times(1)).markAllReserved(Set.of("car1"));
+        assertEquals(1, fleetCounters.count(Car.CarStatus.RESERVED));
+        assertEquals(1.0, meterRegistry.counter("reservations.booked", "path", "bulk").count());
+        assertEquals(1.0, meterRegistry.counter("reservations.conflicts", "path", "bulk", "reason", "overlap").count());
+        assertEquals(1.0, meterRegistry.counter("reservations.conflicts", "path", "bulk", "reason", "unavailable").count());
+    }
+
+    @Test
+    @DisplayName("Should report a conflict for items overlapping an existing booking")
+    void testReserveAll_OverlapsExistingBooking() {
+        // Given
+        LocalDateTime start = LocalDateTime.parse("2023-10-01T10:00:00");
+        LocalDateTime end = LocalDateTime.parse("2023-10-01T14:00:00");
+        ReservationRepository.BookedWindow booked = mock(ReservationRepository.BookedWindow.class);
+        when(booked.getCarId()).thenReturn("car1");
+        when(booked.getStartTime()).thenReturn(start.minusHours(1));
+        when(booked.getEndTime()).thenReturn(start.plusHours(1));
+        when(customerRepository.existsById("customer1")).thenReturn(true);
+        when(carRepository.lockAllForBooking(any())).thenReturn(Map.of("car1", carRate("car1", 50.0)));
+        when(reservationRepository.findConfirmedWindows(any(), any(), any())).thenReturn(List.of(booked));
+
+        // When
+        List<BulkReservationResult> results = customerService.reserveAll("customer1",
+                List.of(new BulkReservationRequest.Item("car1", start, end)));
+
+        // Then
+        assertEquals(BulkReservationResult.Outcome.CONFLICT, results.get(0).outcome());
+        assertTrue(results.get(0).reason().contains("already booked"));
+        verify(customerRepository, never()).adjustActiveReservations(any(), anyInt());
+        verify(carRepository, times(1)).markAllReserved(Set.of());
+        assertEquals(0, fleetCounters.count(Car.CarStatus.RESERVED));
+    }
+
+    @Test
+    @DisplayName("Should refuse oversized batches before touching the database")
+    void testReserveAll_TooManyItems() {
+        // Given
+        BulkReservationRequest.Item item = new BulkReservationRequest.Item("car1",
+                LocalDateTime.parse("2023-10-01T10:00:00"), LocalDateTime.parse("2023-10-01T14:00:00"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.reserveAll("customer1", Collections.nCopies(501, item)));
+        verify(customerRepository, never()).existsById(any());
+    }
+
+    private static CarRepository.CarRate carRate(String id, double ratePerHour) {
+        return new CarRepository.CarRate() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public double getRatePerHour() {
+                return ratePerHour;
+            }
+
+            @Override
+            public Car.CarStatus getCarStatus() {
+                return Car.CarStatus.AVAILABLE;
+            }
+
+            @Override
+            public Car.CarType getCarType() {
+                return Car.CarType.SEDAN;
+            }
+
+            @Override
+            public long getVersion() {
+                return 0;
+            }
+        };
     }
-}
\ No newline at end of file
+}
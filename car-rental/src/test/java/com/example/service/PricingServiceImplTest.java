@@ -0,0 +1,155 @@
+package com.example.service;
+
+import com.example.dto.Quote;
+import com.example.dto.QuoteRequest;
+import com.example.models.Car;
+import com.example.models.RateCard;
+import com.example.pricing.PricingEngine;
+import com.example.repository.CarRepository;
+import com.example.repository.RateCardRepository;
+import com.example.service.impl.PricingServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PricingServiceImplTest {
+    private static final LocalDateTime START = LocalDateTime.parse("2024-02-01T10:00:00");
+
+    @Mock
+    private RateCardRepository rateCardRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine();
+
+    @InjectMocks
+    private PricingServiceImpl pricingService;
+
+    @Test
+    @DisplayName("Should price every item and answer invalid items and unknown cars on their own")
+    void testQuote() {
+        // Given
+        when(carRepository.findCarRates(any())).thenReturn(List.of(carRate("car1", 50.0)));
+        List<QuoteRequest.Item> items = List.of(
+                new QuoteRequest.Item("car1", START, START.plusHours(4)),
+                new QuoteRequest.Item("car2", START, START.plusHours(4)),
+                new QuoteRequest.Item("car1", START, START));
+
+        // When
+        List<Quote> quotes = pricingService.quote(items);
+
+        // Then
+        assertEquals(Quote.priced(0, "car1", 20_000), quotes.get(0));
+        assertEquals(Quote.rejected(1, "car2", "Car car2 not found"), quotes.get(1));
+        assertEquals("startTime must be before endTime", quotes.get(2).reason());
+        assertNull(quotes.get(2).totalCostCents());
+        verify(carRepository, times(1)).findCarRates(any());
+    }
+
+    @Test
+    @DisplayName("Should keep the request order when a large quote is priced in parallel")
+    void testQuote_Parallel() {
+        // Given
+        when(carRepository.findCarRates(any())).thenReturn(List.of(carRate("car1", 10.0)));
+        List<QuoteRequest.Item> items = IntStream.range(0, 1000)
+                .mapToObj(i -> new QuoteRequest.Item("car1", START, START.plusHours(i + 1)))
+                .toList();
+
+        // When
+        List<Quote> quotes = pricingService.quote(items);
+
+        // Then
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(Quote.priced(i, "car1", 1000L * (i + 1)), quotes.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse empty and oversized quotes")
+    void testQuote_Size() {
+        QuoteRequest.Item item = new QuoteRequest.Item("car1", START, START.plusHours(1));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.quote(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.quote(Collections.nCopies(1001, item)));
+        verify(carRepository, never()).findCarRates(any());
+    }
+
+    @Test
+    @DisplayName("Should price with a new rate card once it is added")
+    void testAddRateCard() {
+        // Given
+        RateCard rateCard = new RateCard(null, Car.CarType.SEDAN, null, START.minusDays(1), 1000, 15000L, null, 0);
+        when(rateCardRepository.save(rateCard)).thenReturn(rateCard);
+        when(rateCardRepository.findAllInEffectOrder()).thenReturn(List.of(rateCard));
+
+        // When
+        pricingService.addRateCard(rateCard);
+
+        // Then
+        assertEquals(15_000, pricingEngine.quote("car1", Car.CarType.SEDAN, 50.0, START, START.plusDays(1)));
+        assertEquals(20_000, pricingEngine.quote("car1", Car.CarType.SUV, 50.0, START, START.plusHours(4)));
+    }
+
+    @Test
+    @DisplayName("Should reject a rate card without exactly one scope or with invalid amounts")
+    void testAddRateCard_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> pricingService.addRateCard(
+                new RateCard(null, Car.CarType.SEDAN, "car1", START, 1000, null, null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.addRateCard(
+                new RateCard(null, null, null, START, 1000, null, null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.addRateCard(
+                new RateCard(null, Car.CarType.SEDAN, null, START, 0, null, null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.addRateCard(
+                new RateCard(null, Car.CarType.SEDAN, null, START, 1000, 0L, null, 0)));
+        verify(rateCardRepository, never()).save(any());
+    }
+
+    private static CarRepository.CarRate carRate(String id, double ratePerHour) {
+        return new CarRepository.CarRate() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public double getRatePerHour() {
+                return ratePerHour;
+            }
+
+            @Override
+            public Car.CarStatus getCarStatus() {
+                return Car.CarStatus.AVAILABLE;
+            }
+
+            @Override
+            public Car.CarType getCarType() {
+                return Car.CarType.SEDAN;
+            }
+
+            @Override
+            public long getVersion() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.service;
+
+import com.example.dto.ReservationExportFilter;
+import com.example.models.Car;
+import com.example.models.Customer;
+import com.example.models.Reservation;
+import com.example.repository.ReservationRepository;
+import com.example.service.impl.ReservationExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExportServiceImplTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private ReservationExportServiceImpl exportService;
+
+    @Test
+    @DisplayName("Should write one JSON document per line and close the cursor")
+    void testExportReservations_WritesNdjson() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        ReservationExportFilter filter = new ReservationExportFilter(Reservation.ReservationStatus.CONFIRMED, null, null);
+        when(reservationRepository.streamForExport(Reservation.ReservationStatus.CONFIRMED, null, null))
+                .thenReturn(Stream.of(reservation("res1"), reservation("res2")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = exportService.exportReservations(filter, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("res1", first.get("reservationId").asText());
+        assertEquals("car1", first.get("car").get("id").asText());
+        assertEquals("res2", objectMapper.readTree(lines[1]).get("reservationId").asText());
+        assertTrue(closed.get());
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    @DisplayName("Should detach written rows every batch")
+    void testExportReservations_ClearsPersistenceContext() throws Exception {
+        // Given
+        ReservationExportFilter filter = new ReservationExportFilter(null, null, null);
+        when(reservationRepository.streamForExport(null, null, null))
+                .thenReturn(IntStream.range(0, 1200).mapToObj(i -> reservation("res" + i)));
+
+        // When
+        long written = exportService.exportReservations(filter, new ByteArrayOutputStream());
+
+        // Then
+        assertEquals(1200, written);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed time filters")
+    void testExportFilter_InvalidTimes() {
+        assertThrows(IllegalArgumentException.class, () -> ReservationExportFilter.of(null, "yesterday", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReservationExportFilter.of(null, "2023-10-02T00:00:00", "2023-10-01T00:00:00"));
+    }
+
+    private static Reservation reservation(String id) {
+        Car car = new Car("car1", "Camry", "Toyota", Car.CarStatus.RESERVED, 25.0, Car.CarType.SEDAN);
+        Customer customer = new Customer("customer1", "John Doe", "john@example.com", "123", "DL1");
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(id);
+        reservation.setCar(car);
+        reservation.setCustomer(customer);
+        reservation.setStartTime(LocalDateTime.parse("2023-10-01T10:00:00"));
+        reservation.setEndTime(LocalDateTime.parse("2023-10-01T12:00:00"));
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        return reservation;
+    }
+}